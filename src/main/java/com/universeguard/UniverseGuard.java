@@ -24,6 +24,7 @@ import org.spongepowered.api.entity.living.player.gamemode.GameMode;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.game.state.GameInitializationEvent;
 import org.spongepowered.api.event.game.state.GameStartedServerEvent;
+import org.spongepowered.api.event.game.state.GameStoppingServerEvent;
 import org.spongepowered.api.item.ItemType;
 import org.spongepowered.api.item.ItemTypes;
 import org.spongepowered.api.plugin.Plugin;
@@ -42,7 +43,12 @@ import com.universeguard.command.argument.RegionNameElement;
 import com.universeguard.command.argument.RegionPointCommandElement;
 import com.universeguard.command.argument.SubflagCommandElement;
 import com.universeguard.event.EventListener;
+import com.universeguard.event.EventChunkUnload;
+import com.universeguard.event.EventPlayerConnection;
+import com.universeguard.event.EventRegionEffects;
+import com.universeguard.event.EventRegionMove;
 import com.universeguard.event.EventRegionSelect;
+import com.universeguard.event.EventWorldLoad;
 import com.universeguard.region.GlobalRegion;
 import com.universeguard.region.Region;
 import com.universeguard.region.enums.EnumDirection;
@@ -55,6 +61,13 @@ import com.universeguard.utils.EventUtils;
 import com.universeguard.utils.FlagUtils;
 import com.universeguard.utils.LogUtils;
 import com.universeguard.utils.PermissionUtils;
+import com.universeguard.utils.MobUtils;
+import com.universeguard.utils.RegionBodyUtils;
+import com.universeguard.utils.RegionEffectUtils;
+import com.universeguard.utils.RegionIndexUtils;
+import com.universeguard.utils.RegionMigrationUtils;
+import com.universeguard.utils.RegionSessionUtils;
+import com.universeguard.utils.RegionStorageUtils;
 import com.universeguard.utils.RegionUtils;
 import com.universeguard.utils.TranslationUtils;
 
@@ -98,9 +111,41 @@ public class UniverseGuard {
 	 */
 	public static int GAMEMODE_TIMER = 5;
 	/**
-	 * The Enter Flag Timer update frequency (in milliseconds)
+	 * The time each tick can use for Region effects like hunger and gamemode (in microseconds)
 	 */
-	public static int ENTER_FLAG_TIMER = 100;
+	public static int EFFECTS_BUDGET = 2000;
+	/**
+	 * The Permission Cache duration (in milliseconds)
+	 */
+	public static int PERMISSION_CACHE_TIMER = 1000;
+	/**
+	 * The time Region changes are collected before being written to disk (in milliseconds)
+	 */
+	public static int SAVE_DELAY = 1000;
+	/**
+	 * The Region storage engine. Can be "json", "journal" or "database"
+	 */
+	public static String STORAGE_ENGINE = "json";
+	/**
+	 * The number of journal records after which the journal is compacted
+	 */
+	public static int JOURNAL_COMPACT_THRESHOLD = 1000;
+	/**
+	 * Sets if Regions are saved in the compact format
+	 */
+	public static boolean COMPACT_REGIONS = false;
+	/**
+	 * The number of migrated Regions queued to be saved each tick
+	 */
+	public static int MIGRATION_BATCH = 100;
+	/**
+	 * Sets if the flags and members of Local Regions are loaded from the storage only when used
+	 */
+	public static boolean LAZY_BODIES = false;
+	/**
+	 * The number of Local Regions that keep their flags and members in memory when they are loaded only when used
+	 */
+	public static int BODY_CACHE_SIZE = 10000;
 	/**
 	 * Sets if players can be in more Regions
 	 */
@@ -165,52 +210,72 @@ public class UniverseGuard {
 		// Load the configuration
 		this.loadConfig();
 		// Load the regions
-		UniverseGuard.ALL_REGIONS = RegionUtils.getAllRegions();
+		long time = System.nanoTime();
+		ArrayList<Region> regions = RegionUtils.getAllRegions();
+		time = logPhase(RegionText.REGIONS_LOADED.getValue() + " (" + regions.size() + ")", time);
+		// Upgrade the regions saved by older versions
+		int migrated = RegionMigrationUtils.migrate(regions);
+		time = logPhase(RegionText.REGIONS_MIGRATED.getValue() + " (" + migrated + ")", time);
+		UniverseGuard.ALL_REGIONS = regions;
+		RegionIndexUtils.rebuild();
+		time = logPhase(RegionText.REGIONS_INDEXED.getValue(), time);
 		// Register the commands
 		this.registerCommands();
+		time = logPhase(RegionText.COMMANDS_REGISTERED.getValue(), time);
 		// Register the events
 		this.registerEvents();
+		logPhase(RegionText.EVENTS_REGISTERED.getValue(), time);
 		
 		LogUtils.print(RegionText.LOADED.getValue());
 	}
+	
+	/**
+	 * Print how long a loading phase took
+	 * @param phase The phase
+	 * @param start The time the phase started (in nanoseconds)
+	 * @return The time the phase ended (in nanoseconds)
+	 */
+	private static long logPhase(String phase, long start) {
+		long end = System.nanoTime();
+		LogUtils.print(phase + " in " + TimeUnit.NANOSECONDS.toMillis(end - start) + " ms");
+		return end;
+	}
 	/**
 	 * onGameStart Method. Called after the Plugin start
 	 * @param event
 	 */
 	@Listener
 	public void onGameStart(GameStartedServerEvent event) {
+		// Index the registered mobs
+		MobUtils.init();
 		// Check for Global regions. If one is missing then create it
 		LogUtils.print(RegionText.CONFIGURATION_UPDATING_REGIONS.getValue());
 		for(World w : Sponge.getServer().getWorlds()) {
 			if(RegionUtils.load(w.getName()) == null)
 				RegionUtils.save(new GlobalRegion(w.getName()));
 		}
-		// Update regions to the latest RegionVersion
-		this.updateRegions();
 		// Convert the old region format to the new one (from UniverseGuard to UniverseGuard2)
 		if(RegionUtils.shouldConvertOldRegions()) {
 			LogUtils.print(RegionText.CONFIGURATION_CONVERTING_OLD_REGIONS.getValue());
 			RegionUtils.convertOldRegions();
 			LogUtils.print(RegionText.CONFIGURATION_OLD_REGIONS_CONVERTED.getValue());	
 		}
+		// Drop the bodies once mobs and commands are registered, so their compiled values are complete
+		RegionBodyUtils.unloadAll(UniverseGuard.ALL_REGIONS);
 		LogUtils.print(RegionText.CONFIGURATION_REGIONS_UPDATED.getValue());
 	}
-
+	
 	/**
-	 * Update regions to the latest RegionVersion
+	 * onServerStopping Method. Called when the server is stopping
+	 * @param event
 	 */
-	private void updateRegions() {
-		ArrayList<Region> updatedRegions = new ArrayList<Region>();
-		for(Region region : UniverseGuard.ALL_REGIONS) {
-			if(region.getVersion() != REGION_VERSION) {
-				updatedRegions.add(region);
-			}
-		}
-		for(Region region : updatedRegions) {
-			RegionUtils.update(region);
-		}
-		RegionUtils.saveIndex();
+	@Listener
+	public void onServerStopping(GameStoppingServerEvent event) {
+		// Write the Regions still waiting to be saved
+		RegionMigrationUtils.flush();
+		RegionStorageUtils.shutdown();
 	}
+
 	/**
 	 * Load configuration
 	 */
@@ -272,6 +337,8 @@ public class UniverseGuard {
 		CommandSpec regionGamemode = CommandUtils.buildCommandSpec("Set the gamemode of a region", new RegionGamemodeExecutor(), RegionPermission.ALL.getValue(), GenericArguments.catalogedElement(Text.of("gamemode"), GameMode.class));
 		CommandSpec regionHere = CommandUtils.buildCommandSpec("Tells wich region you are currently in", new RegionHereExecutor());
 		CommandSpec regionReload = CommandUtils.buildCommandSpec("Reload cached regions", new RegionReloadExecutor(), RegionPermission.ALL.getValue());
+		CommandSpec regionStats = CommandUtils.buildCommandSpec("Show how many region checks have been done and skipped", new RegionStatsExecutor(), RegionPermission.ALL.getValue());
+		CommandSpec regionExport = CommandUtils.buildCommandSpec("Write all regions to JSON files", new RegionExportExecutor(), RegionPermission.ALL.getValue());
 		CommandSpec regionFarewell = CommandUtils.buildCommandSpec("Set the farewell message of a region", new RegionFarewellExecutor(), RegionPermission.ALL.getValue(), GenericArguments.remainingJoinedStrings(Text.of("message")));
 		CommandSpec regionGreeting = CommandUtils.buildCommandSpec("Set the greeting message of a region", new RegionGreetingExecutor(), RegionPermission.ALL.getValue(), GenericArguments.remainingJoinedStrings(Text.of("message")));
 		CommandSpec regionCopy = CommandUtils.buildCommandSpec("Copy a region into a new one", new RegionCopyExecutor(), RegionPermission.ALL.getValue(), new RegionNameElement(Text.of("name")), GenericArguments.remainingJoinedStrings(Text.of("newRegion")));
@@ -344,6 +411,8 @@ public class UniverseGuard {
 				.child(regionFlagInfo, "flaginfo")
 				.child(regionHere, "here")
 				.child(regionReload, "reload")
+				.child(regionStats, "stats")
+				.child(regionExport, "export")
 				.child(regionFarewell, "farewell")
 				.child(regionGreeting, "greeting")
 				.child(regionCopy, "copy")
@@ -361,32 +430,35 @@ public class UniverseGuard {
 	private void registerEvents() {
 		EventUtils.init(GAME);
 		EventUtils.registerEvent(new EventRegionSelect());
-		EventUtils.registerEvent(new FlagPlaceListener());
-		EventUtils.registerEvent(new FlagDestroyListener());
-		EventUtils.registerEvent(new FlagPvpListener());
-		EventUtils.registerEvent(new FlagExpDropListener());
-		EventUtils.registerEvent(new FlagItemDropListener());
-		EventUtils.registerEvent(new FlagItemPickupListener());
-		EventUtils.registerEvent(new FlagEnderPearlListener());
-		EventUtils.registerEvent(new FlagSleepListener());
-		EventUtils.registerEvent(new FlagLighterListener());
-		EventUtils.registerEvent(new FlagChestsListener());
-		EventUtils.registerEvent(new FlagTrappedChestsListener());
-		EventUtils.registerEvent(new FlagEnderChestsListener());
-		EventUtils.registerEvent(new FlagWaterFlowListener());
-		EventUtils.registerEvent(new FlagLavaFlowListener());
-		EventUtils.registerEvent(new FlagOtherLiquidsFlowListener());
-		EventUtils.registerEvent(new FlagLeafDecayListener());
-		EventUtils.registerEvent(new FlagFireSpreadListener());
-		EventUtils.registerEvent(new FlagPotionSplashListener());
-		EventUtils.registerEvent(new FlagFallDamageListener());
-		EventUtils.registerEvent(new FlagWallDamageListener());
-		EventUtils.registerEvent(new FlagDrownListener());
-		EventUtils.registerEvent(new FlagCactusDamageListener());
-		EventUtils.registerEvent(new FlagFireDamageListener());
-		EventUtils.registerEvent(new FlagInvincibleListener());
-		EventUtils.registerEvent(new FlagEndermanGriefListener());
-		EventUtils.registerEvent(new FlagEnderDragonBlockDamageListener());
+		EventUtils.registerEvent(new EventChunkUnload());
+		EventUtils.registerEvent(new EventWorldLoad());
+		EventUtils.registerEvent(new EventPlayerConnection());
+		EventUtils.registerFlagEvent(EnumRegionFlag.PLACE, new FlagPlaceListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.DESTROY, new FlagDestroyListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.PVP, new FlagPvpListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.EXP_DROP, new FlagExpDropListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.ITEM_DROP, new FlagItemDropListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.ITEM_PICKUP, new FlagItemPickupListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.ENDERPEARL, new FlagEnderPearlListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.SLEEP, new FlagSleepListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.LIGHTER, new FlagLighterListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.CHESTS, new FlagChestsListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.TRAPPED_CHESTS, new FlagTrappedChestsListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.ENDER_CHESTS, new FlagEnderChestsListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.WATER_FLOW, new FlagWaterFlowListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.LAVA_FLOW, new FlagLavaFlowListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.OTHER_LIQUIDS_FLOW, new FlagOtherLiquidsFlowListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.LEAF_DECAY, new FlagLeafDecayListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.FIRE_SPREAD, new FlagFireSpreadListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.POTION_SPLASH, new FlagPotionSplashListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.FALL_DAMAGE, new FlagFallDamageListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.WALL_DAMAGE, new FlagWallDamageListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.DROWN, new FlagDrownListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.CACTUS_DAMAGE, new FlagCactusDamageListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.FIRE_DAMAGE, new FlagFireDamageListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.INVINCIBLE, new FlagInvincibleListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.ENDERMAN_GRIEF, new FlagEndermanGriefListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.ENDER_DRAGON_BLOCK_DAMAGE, new FlagEnderDragonBlockDamageListener());
 		EventUtils.registerEvent(new FlagInteractListener());
 		EventUtils.registerEvent(new FlagVehiclePlaceListener());
 		EventUtils.registerEvent(new FlagVehicleDestroyListener());
@@ -397,30 +469,25 @@ public class UniverseGuard {
 		EventUtils.registerEvent(new FlagMobDamageListener());
 		EventUtils.registerEvent(new FlagMobDropListener());
 		EventUtils.registerEvent(new FlagCommandListener());
-		EventUtils.registerEvent(new FlagSendChatListener());
-		EventUtils.registerEvent(new FlagIceMeltListener());
-		EventUtils.registerEvent(new FlagVinesGrowthListener());
-		EventUtils.registerEvent(new FlagExitListener());
-		EventUtils.registerEvent(new FlagFarewellListener());
-		EventUtils.registerEvent(new FlagGreetingListener());
-        EventUtils.registerEvent(new FlagTrampleListener());
-		
-		Task.builder()
-			.execute(new FlagHungerListener())
-        	.interval(UniverseGuard.HUNGER_TIMER, TimeUnit.SECONDS)
-        	.name("Hunger Timer Task")
-        	.submit(UniverseGuard.INSTANCE);
-		
-		Task.builder()
-			.execute(new FlagGamemodeListener())
-			.interval(UniverseGuard.GAMEMODE_TIMER, TimeUnit.SECONDS)
-			.name("Gamemode Timer Task")
-			.submit(UniverseGuard.INSTANCE);
+		EventUtils.registerFlagEvent(EnumRegionFlag.SEND_CHAT, new FlagSendChatListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.ICE_MELT, new FlagIceMeltListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.VINES_GROWTH, new FlagVinesGrowthListener());
+		EventUtils.registerEvent(new EventRegionMove());
+		RegionSessionUtils.addHandler(new FlagExitListener());
+		FlagEnterListener enterListener = new FlagEnterListener();
+		RegionSessionUtils.addHandler(enterListener);
+		EventUtils.registerFlagEvent(EnumRegionFlag.ENTER, enterListener);
+		RegionSessionUtils.addHandler(new FlagFarewellListener());
+		RegionSessionUtils.addHandler(new FlagGreetingListener());
+		EventUtils.registerFlagEvent(EnumRegionFlag.TRAMPLE, new FlagTrampleListener());
+		EventUtils.updateFlagEvents();
 		
+		RegionEffectUtils.addEffect(new FlagHungerListener());
+		RegionEffectUtils.addEffect(new FlagGamemodeListener());
 		Task.builder()
-			.execute(new FlagEnterListener())
-			.interval(UniverseGuard.ENTER_FLAG_TIMER, TimeUnit.MILLISECONDS)
-			.name("Enter Flag Timer Task")
+			.execute(new EventRegionEffects())
+			.intervalTicks(1)
+			.name("Region Effects Task")
 			.submit(UniverseGuard.INSTANCE);
 		
 		// Debug utility. Used internally
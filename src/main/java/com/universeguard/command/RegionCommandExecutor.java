@@ -35,6 +35,7 @@ public class RegionCommandExecutor implements CommandExecutor {
 				if(CommandUtils.isValid(command)) {
 					boolean value = Boolean.valueOf(args.<String>getOne("value").get());
 					Region region = RegionUtils.getPendingRegion(src);
+					command = CommandUtils.getCanonicalName(command);
 					if(value) {
 						region.enableCommand(command);
 						MessageUtils.sendSuccessMessage(src, RegionText.REGION_COMMAND_ENABLED.getValue() + ": " + command);
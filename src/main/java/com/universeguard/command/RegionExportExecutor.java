@@ -0,0 +1,44 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.command;
+
+import java.util.concurrent.ExecutionException;
+
+import org.spongepowered.api.command.CommandException;
+import org.spongepowered.api.command.CommandResult;
+import org.spongepowered.api.command.CommandSource;
+import org.spongepowered.api.command.args.CommandContext;
+import org.spongepowered.api.command.spec.CommandExecutor;
+
+import com.universeguard.region.enums.RegionText;
+import com.universeguard.utils.LogUtils;
+import com.universeguard.utils.MessageUtils;
+import com.universeguard.utils.RegionStorageUtils;
+
+/**
+ * 
+ * Command Handler for /rg export
+ * @author Jimi
+ *
+ */
+public class RegionExportExecutor implements CommandExecutor {
+
+	@Override
+	public CommandResult execute(CommandSource src, CommandContext args) throws CommandException {
+		RegionStorageUtils.flushAndWait();
+		try {
+			RegionStorageUtils.export().get();
+			MessageUtils.sendSuccessMessage(src, RegionText.REGION_EXPORT.getValue());
+		} catch (InterruptedException | ExecutionException e) {
+			LogUtils.log(e);
+			MessageUtils.sendErrorMessage(src, RegionText.REGION_SAVE_EXCEPTION.getValue());
+		}
+		return CommandResult.empty();
+	}
+
+}
@@ -19,6 +19,7 @@ import com.universeguard.region.enums.EnumRegionFlag;
 import com.universeguard.region.enums.EnumRegionInteract;
 import com.universeguard.region.enums.EnumRegionVehicle;
 import com.universeguard.region.enums.RegionText;
+import com.universeguard.utils.EventUtils;
 import com.universeguard.utils.FlagUtils;
 import com.universeguard.utils.MessageUtils;
 import com.universeguard.utils.RegionUtils;
@@ -103,6 +104,7 @@ public class RegionFlagExecutor implements CommandExecutor {
 							MessageUtils.sendErrorMessage(src, RegionText.REGION_FLAG_NOT_VALID.getValue());
 						break;
 					case "mobspawn":
+						String mobSpawn = FlagUtils.getMobId(name);
 						if(name.equalsIgnoreCase("all")) {
 							region.setMobSpawn("all", value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
@@ -113,13 +115,14 @@ public class RegionFlagExecutor implements CommandExecutor {
 							region.setMobSpawn("allpassive", value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
 						}
-						else if (FlagUtils.getMobId(name) != null) {
-							region.setMobSpawn(FlagUtils.getMobId(name), value);
+						else if (mobSpawn != null) {
+							region.setMobSpawn(mobSpawn, value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
 						} else
 							MessageUtils.sendErrorMessage(src, RegionText.REGION_MOB_NOT_FOUND.getValue());
 						break;
 					case "mobdamage":
+						String mobDamage = FlagUtils.getMobId(name);
 						if(name.equalsIgnoreCase("all")) {
 							region.setMobDamage("all", value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
@@ -130,13 +133,14 @@ public class RegionFlagExecutor implements CommandExecutor {
 							region.setMobDamage("allpassive", value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
 						}
-						else if (FlagUtils.getMobId(name) != null) {
-							region.setMobDamage(FlagUtils.getMobId(name), value);
+						else if (mobDamage != null) {
+							region.setMobDamage(mobDamage, value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
 						} else
 							MessageUtils.sendErrorMessage(src, RegionText.REGION_MOB_NOT_FOUND.getValue());
 						break;
 					case "mobpve":
+						String mobPve = FlagUtils.getMobId(name);
 						if(name.equalsIgnoreCase("all")) {
 							region.setMobPve("all", value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
@@ -147,13 +151,14 @@ public class RegionFlagExecutor implements CommandExecutor {
 							region.setMobPve("allpassive", value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
 						}
-						else if (FlagUtils.getMobId(name) != null) {
-							region.setMobPve(FlagUtils.getMobId(name), value);
+						else if (mobPve != null) {
+							region.setMobPve(mobPve, value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
 						} else
 							MessageUtils.sendErrorMessage(src, RegionText.REGION_MOB_NOT_FOUND.getValue());
 						break;
 					case "mobdrop":
+						String mobDrop = FlagUtils.getMobId(name);
 						if(name.equalsIgnoreCase("all")) {
 							region.setMobDrop("all", value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
@@ -164,8 +169,8 @@ public class RegionFlagExecutor implements CommandExecutor {
 							region.setMobDrop("allpassive", value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
 						}
-						else if (FlagUtils.getMobId(name) != null) {
-							region.setMobDrop(FlagUtils.getMobId(name), value);
+						else if (mobDrop != null) {
+							region.setMobDrop(mobDrop, value);
 							MessageUtils.sendSuccessMessage(src, RegionText.REGION_FLAG_UPDATED.getValue());
 						} else
 							MessageUtils.sendErrorMessage(src, RegionText.REGION_MOB_NOT_FOUND.getValue());
@@ -183,6 +188,7 @@ public class RegionFlagExecutor implements CommandExecutor {
 				} else
 					MessageUtils.sendErrorMessage(src, RegionText.REGION_FLAG_NOT_VALID.getValue());
 				RegionUtils.updatePendingRegion(src, region);
+				EventUtils.updateFlagEvents();
 			} else {
 				MessageUtils.sendErrorMessage(src, getCommandUsage());
 			}
@@ -17,6 +17,7 @@ import com.universeguard.region.LocalRegion;
 import com.universeguard.region.Region;
 import com.universeguard.region.enums.RegionText;
 import com.universeguard.utils.MessageUtils;
+import com.universeguard.utils.RegionIndexUtils;
 import com.universeguard.utils.RegionUtils;
 
 /**
@@ -35,6 +36,7 @@ public class RegionPriorityExecutor implements CommandExecutor {
 				Region region = RegionUtils.getPendingRegion(src);
 				if(region.isLocal()) {
 					((LocalRegion)region).setPriority(priority);
+					RegionIndexUtils.refresh((LocalRegion)region);
 					MessageUtils.sendSuccessMessage(src, RegionText.REGION_PRIORITY_UPDATED.getValue());
 					RegionUtils.updatePendingRegion(src, region);						
 				}
@@ -7,6 +7,8 @@
  */
 package com.universeguard.command;
 
+import java.util.ArrayList;
+
 import org.spongepowered.api.command.CommandException;
 import org.spongepowered.api.command.CommandResult;
 import org.spongepowered.api.command.CommandSource;
@@ -14,8 +16,16 @@ import org.spongepowered.api.command.args.CommandContext;
 import org.spongepowered.api.command.spec.CommandExecutor;
 
 import com.universeguard.UniverseGuard;
+import com.universeguard.region.Region;
 import com.universeguard.region.enums.RegionText;
+import com.universeguard.utils.CommandUtils;
+import com.universeguard.utils.EventUtils;
 import com.universeguard.utils.MessageUtils;
+import com.universeguard.utils.PermissionUtils;
+import com.universeguard.utils.RegionBodyUtils;
+import com.universeguard.utils.RegionIndexUtils;
+import com.universeguard.utils.RegionMigrationUtils;
+import com.universeguard.utils.RegionStorageUtils;
 import com.universeguard.utils.RegionUtils;
 
 /**
@@ -28,8 +38,17 @@ public class RegionReloadExecutor implements CommandExecutor {
 
 	@Override
 	public CommandResult execute(CommandSource src, CommandContext args) throws CommandException {
-		UniverseGuard.ALL_REGIONS.clear();
-		UniverseGuard.ALL_REGIONS = RegionUtils.getAllRegions();
+		RegionMigrationUtils.flush();
+		RegionStorageUtils.flushAndWait();
+		// Load the Regions before replacing the loaded ones, so they are never empty
+		ArrayList<Region> regions = RegionUtils.getAllRegions();
+		RegionMigrationUtils.migrate(regions);
+		CommandUtils.clearCanonicalNames();
+		PermissionUtils.clearCache();
+		UniverseGuard.ALL_REGIONS = regions;
+		RegionIndexUtils.rebuild();
+		RegionBodyUtils.unloadAll(regions);
+		EventUtils.updateFlagEvents();
 		MessageUtils.sendSuccessMessage(src, RegionText.REGION_RELOAD.getValue());
 		return CommandResult.empty();
 	}
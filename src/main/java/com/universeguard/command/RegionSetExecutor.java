@@ -21,6 +21,7 @@ import com.universeguard.region.components.RegionLocation;
 import com.universeguard.region.enums.RegionPoint;
 import com.universeguard.region.enums.RegionText;
 import com.universeguard.utils.MessageUtils;
+import com.universeguard.utils.RegionIndexUtils;
 import com.universeguard.utils.RegionUtils;
 
 /**
@@ -73,6 +74,7 @@ public class RegionSetExecutor implements CommandExecutor {
 							break;
 					}
 				}
+				RegionIndexUtils.refresh(localRegion);
 				RegionUtils.updatePendingRegion(src, localRegion);
 				if(src instanceof Player)
 					RegionUtils.setRegionScoreboard((Player)src, localRegion);
@@ -0,0 +1,58 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.command;
+
+import org.spongepowered.api.command.CommandException;
+import org.spongepowered.api.command.CommandResult;
+import org.spongepowered.api.command.CommandSource;
+import org.spongepowered.api.command.args.CommandContext;
+import org.spongepowered.api.command.spec.CommandExecutor;
+import org.spongepowered.api.text.format.TextColors;
+
+import com.universeguard.UniverseGuard;
+import com.universeguard.event.RegionEffect;
+import com.universeguard.region.enums.RegionText;
+import com.universeguard.utils.EventUtils;
+import com.universeguard.utils.MessageUtils;
+import com.universeguard.utils.RegionBodyUtils;
+import com.universeguard.utils.RegionEffectUtils;
+import com.universeguard.utils.RegionSessionUtils;
+
+/**
+ * 
+ * Command Handler for /rg stats
+ * @author Jimi
+ *
+ */
+public class RegionStatsExecutor implements CommandExecutor {
+
+	@Override
+	public CommandResult execute(CommandSource src, CommandContext args) throws CommandException {
+		long moveChecks = RegionSessionUtils.getMoveChecks();
+		long skippedChecks = RegionSessionUtils.getSkippedChecks();
+		MessageUtils.sendMessage(src, RegionText.STATS.getValue(), TextColors.GOLD);
+		MessageUtils.sendMessage(src, RegionText.MOVE_CHECKS.getValue() + ": " + moveChecks, TextColors.YELLOW);
+		MessageUtils.sendMessage(src, RegionText.SKIPPED_MOVE_CHECKS.getValue() + ": " + skippedChecks
+				+ (moveChecks > 0 ? " (" + (skippedChecks * 100 / moveChecks) + "%)" : ""), TextColors.YELLOW);
+		MessageUtils.sendMessage(src, RegionText.FLAG_LISTENERS.getValue() + ": " + EventUtils.getRegisteredFlagEvents() + "/" + EventUtils.getFlagEvents(), TextColors.YELLOW);
+		if(UniverseGuard.LAZY_BODIES) {
+			MessageUtils.sendMessage(src, RegionText.BODY_CACHE.getValue() + ": " + RegionBodyUtils.getSize() + "/" + UniverseGuard.BODY_CACHE_SIZE
+					+ ", " + RegionBodyUtils.getHits() + " " + RegionText.BODY_CACHE_HITS.getValue()
+					+ ", " + RegionBodyUtils.getMisses() + " " + RegionText.BODY_CACHE_MISSES.getValue()
+					+ ", " + RegionBodyUtils.getEvictions() + " " + RegionText.BODY_CACHE_EVICTIONS.getValue(), TextColors.YELLOW);
+		}
+		long budget = RegionEffectUtils.getTicks() * RegionEffectUtils.getBudget();
+		for(RegionEffect effect : RegionEffectUtils.getEffects()) {
+			MessageUtils.sendMessage(src, effect.getName() + ": " + effect.getProcessed() + " " + RegionText.EFFECT_PLAYERS.getValue()
+					+ ", " + effect.getApplied() + " " + RegionText.EFFECT_APPLIED.getValue()
+					+ ", " + (budget > 0 ? String.format("%.2f", effect.getTime() * 100.0 / budget) : "0.00") + "% " + RegionText.EFFECT_BUDGET.getValue(), TextColors.YELLOW);
+		}
+		return CommandResult.empty();
+	}
+
+}
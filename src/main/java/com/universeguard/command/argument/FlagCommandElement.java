@@ -1,16 +1,13 @@
 package com.universeguard.command.argument;
 
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.List;
 
-import org.spongepowered.api.CatalogType;
-import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.CommandSource;
 import org.spongepowered.api.command.args.ArgumentParseException;
 import org.spongepowered.api.command.args.CommandArgs;
 import org.spongepowered.api.command.args.CommandContext;
 import org.spongepowered.api.command.args.PatternMatchingCommandElement;
-import org.spongepowered.api.entity.EntityType;
 import org.spongepowered.api.text.Text;
 
 import com.universeguard.region.enums.EnumRegionExplosion;
@@ -18,6 +15,7 @@ import com.universeguard.region.enums.EnumRegionFlag;
 import com.universeguard.region.enums.EnumRegionInteract;
 import com.universeguard.region.enums.EnumRegionSubflag;
 import com.universeguard.region.enums.EnumRegionVehicle;
+import com.universeguard.utils.MobUtils;
 
 /**
  * This class is used by the Sponge CommandSpec 
@@ -26,6 +24,7 @@ import com.universeguard.region.enums.EnumRegionVehicle;
 
 public class FlagCommandElement extends PatternMatchingCommandElement{
 
+	private static final String[] ALL_MOBS = {"all", "allhostile", "allpassive"};
 	private EnumRegionSubflag subFlag;
 	public FlagCommandElement(Text key) {
 		super(key);
@@ -40,6 +39,26 @@ public class FlagCommandElement extends PatternMatchingCommandElement{
 		}
         super.parse(source, args, context);
     }
+    
+    @Override
+    public List<String> complete(CommandSource source, CommandArgs args, CommandContext context) {
+    	if(!isMobSubflag(context))
+    		return super.complete(source, args, context);
+    	String prefix = args.nextIfPresent().orElse("").toLowerCase();
+    	ArrayList<String> mobs = new ArrayList<String>();
+    	for(String all : ALL_MOBS) {
+    		if(all.startsWith(prefix))
+    			mobs.add(all);
+    	}
+    	mobs.addAll(MobUtils.getMobIdsStartingWith(prefix));
+    	return mobs;
+    }
+    
+    private boolean isMobSubflag(CommandContext context) {
+    	String subflag = context.<String>getOne("subflag").orElse("");
+    	return subflag.equalsIgnoreCase("mobspawn") || subflag.equalsIgnoreCase("mobpve") 
+    			|| subflag.equalsIgnoreCase("mobdamage") || subflag.equalsIgnoreCase("mobdrop");
+    }
 
 	@Override
 	protected Iterable<String> getChoices(CommandSource source) {
@@ -71,11 +90,9 @@ public class FlagCommandElement extends PatternMatchingCommandElement{
 			case MOBPVE:
 			case MOBDAMAGE:
 			case MOBDROP:
-					flags.addAll(Sponge.getRegistry().getAllOf(EntityType.class).stream()
-						    .map(CatalogType::getId).collect(Collectors.toList()));
-					flags.add("all");
-					flags.add("allhostile");
-					flags.add("allpassive");
+					flags.addAll(MobUtils.getMobIds());
+					for(String all : ALL_MOBS)
+						flags.add(all);
 			default: break;
 			}
 		}
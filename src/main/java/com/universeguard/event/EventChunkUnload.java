@@ -0,0 +1,28 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.event;
+
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.world.chunk.UnloadChunkEvent;
+import org.spongepowered.api.world.Chunk;
+
+import com.universeguard.utils.RegionIndexUtils;
+
+/**
+ * Handler for chunk unloading, drops the Regions cached for the chunk
+ * @author Jimi
+ *
+ */
+public class EventChunkUnload {
+
+	@Listener
+	public void onChunkUnload(UnloadChunkEvent event) {
+		Chunk chunk = event.getTargetChunk();
+		RegionIndexUtils.unloadChunk(chunk.getWorld().getName(), chunk.getPosition().getX(), chunk.getPosition().getZ());
+	}
+}
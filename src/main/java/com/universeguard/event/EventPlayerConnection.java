@@ -0,0 +1,33 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.event;
+
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.network.ClientConnectionEvent;
+
+import com.universeguard.utils.PermissionUtils;
+import com.universeguard.utils.RegionSessionUtils;
+
+/**
+ * Handler for player connections, drops the permissions and the Region cached for the player
+ * @author Jimi
+ *
+ */
+public class EventPlayerConnection {
+
+	@Listener
+	public void onPlayerJoin(ClientConnectionEvent.Join event) {
+		PermissionUtils.invalidate(event.getTargetEntity());
+	}
+
+	@Listener
+	public void onPlayerDisconnect(ClientConnectionEvent.Disconnect event) {
+		PermissionUtils.invalidate(event.getTargetEntity());
+		RegionSessionUtils.remove(event.getTargetEntity());
+	}
+}
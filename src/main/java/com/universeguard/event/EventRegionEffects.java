@@ -0,0 +1,23 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.event;
+
+import com.universeguard.utils.RegionEffectUtils;
+
+/**
+ * Task running the Region effects every tick
+ * @author Jimi
+ *
+ */
+public class EventRegionEffects implements Runnable {
+
+	@Override
+	public void run() {
+		RegionEffectUtils.tick();
+	}
+}
@@ -0,0 +1,35 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.event;
+
+import org.spongepowered.api.entity.Entity;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.entity.MoveEntityEvent;
+
+import com.universeguard.utils.RegionSessionUtils;
+
+/**
+ * Handler for player movements, tracks the Region each player is in
+ * @author Jimi
+ *
+ */
+public class EventRegionMove {
+
+	@Listener
+	public void onMove(MoveEntityEvent event) {
+		if(event.getTargetEntity() instanceof Player)
+			RegionSessionUtils.handleMove(event, (Player)event.getTargetEntity());
+		else if(!event.getTargetEntity().getPassengers().isEmpty()) {
+			for(Entity entity : event.getTargetEntity().getPassengers()) {
+				if(entity instanceof Player)
+					RegionSessionUtils.handleMove(event, (Player)entity);
+			}
+		}
+	}
+}
@@ -24,6 +24,7 @@ import com.universeguard.region.enums.RegionText;
 import com.universeguard.utils.InventoryUtils;
 import com.universeguard.utils.MessageUtils;
 import com.universeguard.utils.PermissionUtils;
+import com.universeguard.utils.RegionIndexUtils;
 import com.universeguard.utils.RegionLocationUtils;
 import com.universeguard.utils.RegionUtils;
 
@@ -85,6 +86,7 @@ public class EventRegionSelect {
 							MessageUtils.sendHotbarMessage(player,
 									RegionText.SECOND_POINT_SET.getValue() + " " + location.toString());
 						}
+						RegionIndexUtils.refresh(region);
 						RegionUtils.setPendingRegion(player, region);
 						RegionUtils.setRegionScoreboard(player, region);
 					}
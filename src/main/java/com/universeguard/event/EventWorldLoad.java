@@ -0,0 +1,26 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.event;
+
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.world.LoadWorldEvent;
+
+import com.universeguard.utils.RegionIndexUtils;
+
+/**
+ * Handler for world loading, resolves the world of the Regions in it
+ * @author Jimi
+ *
+ */
+public class EventWorldLoad {
+
+	@Listener
+	public void onWorldLoad(LoadWorldEvent event) {
+		RegionIndexUtils.loadWorld(event.getTargetWorld());
+	}
+}
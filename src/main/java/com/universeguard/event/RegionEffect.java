@@ -0,0 +1,148 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.event;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+
+import org.spongepowered.api.entity.living.player.Player;
+
+import com.universeguard.region.Region;
+
+/**
+ * Periodic effect applied to the players based on the Region they are in.
+ * Keeps the players still to be processed in the current round and how much time it used
+ * @author Jimi
+ *
+ */
+public abstract class RegionEffect {
+	/**
+	 * Players still to be processed in the current round
+	 */
+	private ArrayDeque<UUID> PENDING = new ArrayDeque<UUID>();
+	/**
+	 * Players to process each tick to complete a round in time
+	 */
+	private int QUOTA;
+	/**
+	 * Tick the next round can start at
+	 */
+	private long NEXT_ROUND;
+	/**
+	 * Processed players
+	 */
+	private long PROCESSED;
+	/**
+	 * Players the effect has been applied to
+	 */
+	private long APPLIED;
+	/**
+	 * Time used (in nanoseconds)
+	 */
+	private long TIME;
+
+	/**
+	 * Get the name of the effect
+	 * @return The name of the effect
+	 */
+	public abstract String getName();
+
+	/**
+	 * Get how often (in ticks) each player should be processed
+	 * @return The interval in ticks
+	 */
+	public abstract int getInterval();
+
+	/**
+	 * Apply the effect to a player if its state doesn't match the Region it's in
+	 * @param player The player
+	 * @param region The Region the player is in
+	 * @return true if the player state has been changed, false otherwise
+	 */
+	public abstract boolean apply(Player player, Region region);
+
+	/**
+	 * Start a new round
+	 * @param players The players to process
+	 * @param tick The current tick
+	 */
+	public void startRound(Iterable<UUID> players, long tick) {
+		for(UUID player : players)
+			this.PENDING.add(player);
+		int interval = Math.max(this.getInterval(), 1);
+		this.QUOTA = (this.PENDING.size() + interval - 1) / interval;
+		this.NEXT_ROUND = tick + interval;
+	}
+
+	/**
+	 * Check if a new round can start
+	 * @param tick The current tick
+	 * @return true if every player of the current round has been processed and the interval passed, false otherwise
+	 */
+	public boolean canStartRound(long tick) {
+		return this.PENDING.isEmpty() && tick >= this.NEXT_ROUND;
+	}
+
+	/**
+	 * Get the next player to process
+	 * @return The next player if there are players left in the round, null otherwise
+	 */
+	public UUID nextPlayer() {
+		return this.PENDING.poll();
+	}
+
+	/**
+	 * Get the number of players to process each tick
+	 * @return The number of players to process each tick
+	 */
+	public int getQuota() {
+		return this.QUOTA;
+	}
+
+	/**
+	 * Count a processed player
+	 * @param applied If the effect has been applied to the player
+	 */
+	public void addProcessed(boolean applied) {
+		this.PROCESSED++;
+		if(applied)
+			this.APPLIED++;
+	}
+
+	/**
+	 * Add time used by the effect
+	 * @param time The time in nanoseconds
+	 */
+	public void addTime(long time) {
+		this.TIME += time;
+	}
+
+	/**
+	 * Get the number of processed players
+	 * @return The number of processed players
+	 */
+	public long getProcessed() {
+		return this.PROCESSED;
+	}
+
+	/**
+	 * Get the number of players the effect has been applied to
+	 * @return The number of players the effect has been applied to
+	 */
+	public long getApplied() {
+		return this.APPLIED;
+	}
+
+	/**
+	 * Get the time used by the effect
+	 * @return The time in nanoseconds
+	 */
+	public long getTime() {
+		return this.TIME;
+	}
+}
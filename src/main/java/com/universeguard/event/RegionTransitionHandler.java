@@ -0,0 +1,31 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.event;
+
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.event.entity.MoveEntityEvent;
+
+import com.universeguard.region.Region;
+
+/**
+ * Handler for players moving from a Region to another one
+ * @author Jimi
+ *
+ */
+public interface RegionTransitionHandler {
+
+	/**
+	 * Handle a player moving from a Region to another one. The event can be
+	 * cancelled to keep the player in the Region it's leaving
+	 * @param event The move event
+	 * @param player The player
+	 * @param from The Region the player is leaving
+	 * @param to The Region the player is entering
+	 */
+	public void handleTransition(MoveEntityEvent event, Player player, Region from, Region to);
+}
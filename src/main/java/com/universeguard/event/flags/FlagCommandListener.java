@@ -17,7 +17,7 @@ import com.universeguard.region.enums.RegionPermission;
 import com.universeguard.region.enums.RegionText;
 import com.universeguard.utils.MessageUtils;
 import com.universeguard.utils.PermissionUtils;
-import com.universeguard.utils.RegionUtils;
+import com.universeguard.utils.RegionSessionUtils;
 
 /**
  * Handler for the command flag
@@ -32,7 +32,7 @@ public class FlagCommandListener {
 	}
 	
 	private void handleEvent(SendCommandEvent event, String command, Player player) {
-		Region region = RegionUtils.getRegion(player.getLocation());
+		Region region = RegionSessionUtils.getCurrentRegion(player);
 		if(region != null) {
 			boolean cancel = !region.isCommandEnabled(command) && !PermissionUtils.hasPermission(player, RegionPermission.REGION);
 			if(cancel) {
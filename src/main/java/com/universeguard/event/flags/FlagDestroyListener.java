@@ -7,7 +7,6 @@
  */
 package com.universeguard.event.flags;
 
-import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.block.tileentity.TileEntity;
@@ -100,13 +99,7 @@ public class FlagDestroyListener {
 	
 	@Listener
 	public void onBlockDestroyedByPlayer(ChangeBlockEvent.Break event, @First Player player) {
-		if (!event.getTransactions().isEmpty()) {
-			BlockSnapshot block = event.getTransactions().get(0).getFinal();
-			if (block.getLocation().isPresent()) {
-				Location<World> location = block.getLocation().get();
-				this.handleEvent(event,location, player);
-			}
-		}
+		RegionUtils.handleTransactions(event, EnumRegionFlag.DESTROY, player, RegionEventType.LOCAL, null);
 	}
 
 	private boolean handleEvent(Cancellable event, Location<World> location, Player player) {
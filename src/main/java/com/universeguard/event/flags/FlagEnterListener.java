@@ -7,57 +7,66 @@
  */
 package com.universeguard.event.flags;
 
-import org.spongepowered.api.Sponge;
+import org.spongepowered.api.entity.Transform;
 import org.spongepowered.api.entity.living.player.Player;
-import org.spongepowered.api.util.Direction;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.entity.MoveEntityEvent;
+import org.spongepowered.api.event.entity.living.humanoid.player.RespawnPlayerEvent;
+import org.spongepowered.api.event.network.ClientConnectionEvent;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
 
-import com.flowpowered.math.vector.Vector3i;
+import com.universeguard.event.RegionTransitionHandler;
 import com.universeguard.region.Region;
 import com.universeguard.region.enums.EnumRegionFlag;
-import com.universeguard.utils.DirectionUtils;
+import com.universeguard.region.enums.RegionText;
+import com.universeguard.utils.MessageUtils;
 import com.universeguard.utils.RegionUtils;
 
 /**
- * Handler for the enter flag
+ * Handler for the enter flag. Moves and teleports are handled as Region transitions,
+ * players joining or respawning in a Region they can't enter are sent to the world spawn
  * @author Jimi
  *
  */
-public class FlagEnterListener implements Runnable {
+public class FlagEnterListener implements RegionTransitionHandler {
 	
 	@Override
-	public void run() {
-		for(Player player : Sponge.getServer().getOnlinePlayers()) {
-			Region region = RegionUtils.getRegion(player.getLocation());
-			Direction direction = DirectionUtils.getPlayerDirection(player);
-			if(region != null && region.isLocal() && !RegionUtils.hasPermission(player, region) && !region.getFlag(EnumRegionFlag.ENTER)) {
-				player.setLocation(player.getLocation().sub(getOffset(direction)));
-			}
+	public void handleTransition(MoveEntityEvent event, Player player, Region regionFrom, Region regionTo) {
+		if(this.isDenied(player, regionTo)) {
+			event.setCancelled(true);
+			MessageUtils.sendHotbarErrorMessage(player, RegionText.NO_PERMISSION_REGION.getValue());
 		}
 	}
 	
-	private static Vector3i getOffset(Direction direction) {
-		int offsetX = 0;
-		int offsetY = 0;
-		int offsetZ = 0;
-		if(direction.equals(Direction.NORTH)) {
-			offsetZ = -1;
+	@Listener
+	public void onPlayerJoin(ClientConnectionEvent.Join event) {
+		Player player = event.getTargetEntity();
+		if(this.isDenied(player, RegionUtils.getRegion(player.getLocation()))) {
+			player.setLocation(player.getWorld().getSpawnLocation());
+			MessageUtils.sendHotbarErrorMessage(player, RegionText.NO_PERMISSION_REGION.getValue());
 		}
-		else if(direction.equals(Direction.SOUTH)) {
-			offsetZ = 1;
-		}
-		else if(direction.equals(Direction.EAST)) {
-			offsetX = 1;
-		}
-		else if(direction.equals(Direction.WEST)) {
-			offsetX = -1;
-		}
-		else if(direction.equals(Direction.UP)) {
-			offsetY = -1;
-		}
-		else if(direction.equals(Direction.DOWN)) {
-			offsetY = 1;
+	}
+	
+	@Listener
+	public void onPlayerRespawn(RespawnPlayerEvent event) {
+		Player player = event.getTargetEntity();
+		Transform<World> to = event.getToTransform();
+		if(this.isDenied(player, RegionUtils.getRegion(to.getLocation()))) {
+			Location<World> spawn = to.getExtent().getSpawnLocation();
+			event.setToTransform(to.setLocation(spawn));
+			MessageUtils.sendHotbarErrorMessage(player, RegionText.NO_PERMISSION_REGION.getValue());
 		}
-		return new Vector3i(offsetX, offsetY, offsetZ);
+	}
+	
+	/**
+	 * Check if a player can't enter a Region
+	 * @param player The player
+	 * @param region The Region
+	 * @return true if the Region denies the enter flag to the player, false otherwise
+	 */
+	private boolean isDenied(Player player, Region region) {
+		return region != null && region.isLocal() && !region.getFlag(EnumRegionFlag.ENTER) && !RegionUtils.hasPermission(player, region);
 	}
 	
 }
@@ -7,6 +7,7 @@
  */
 package com.universeguard.event.flags;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 
 import org.spongepowered.api.block.BlockState;
@@ -17,9 +18,11 @@ import org.spongepowered.api.event.world.ExplosionEvent;
 import org.spongepowered.api.world.Location;
 import org.spongepowered.api.world.World;
 
+import com.universeguard.region.LocalRegion;
 import com.universeguard.region.Region;
 import com.universeguard.region.enums.EnumRegionExplosion;
 import com.universeguard.utils.FlagUtils;
+import com.universeguard.utils.RegionIndexUtils;
 import com.universeguard.utils.RegionUtils;
 
 /**
@@ -44,18 +47,43 @@ public class FlagExplosionDestroyListener {
 			explosion = EnumRegionExplosion.OTHER_EXPLOSIONS;
 		}
 
+		if (event.getAffectedLocations().isEmpty())
+			return;
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+		for (Location<World> location : event.getAffectedLocations()) {
+			minX = Math.min(minX, location.getBlockX());
+			minY = Math.min(minY, location.getBlockY());
+			minZ = Math.min(minZ, location.getBlockZ());
+			maxX = Math.max(maxX, location.getBlockX());
+			maxY = Math.max(maxY, location.getBlockY());
+			maxZ = Math.max(maxZ, location.getBlockZ());
+		}
+		World world = event.getTargetWorld();
+		// Only the Regions intersecting the blast can protect its blocks
+		ArrayList<LocalRegion> regions = RegionIndexUtils.getLocalRegionsIn(world, minX, minY, minZ, maxX, maxY, maxZ);
+		Region globalRegion = RegionUtils.getGlobalRegion(event.getAffectedLocations().get(0));
+		boolean restricted = globalRegion != null && !globalRegion.getExplosionDestroy(explosion);
+		for (LocalRegion region : regions)
+			restricted = restricted || !region.getExplosionDestroy(explosion);
+		if (!restricted)
+			return;
+
 		Iterator<Location<World>> it = event.getAffectedLocations().iterator();
 		while (it.hasNext()) {
 			Location<World> location = it.next();
-			BlockState block = event.getTargetWorld().getBlock(location.getBlockPosition());
-			if (block != null && block.getType() != BlockTypes.AIR) {
-				Region region = RegionUtils.getRegion(location);
-				if (region != null) {
-					if (!region.getExplosionDestroy(explosion)) {
-						it.remove();
-					}
+			Region region = globalRegion;
+			for (LocalRegion localRegion : regions) {
+				if (localRegion.contains(world, location.getBlockX(), location.getBlockY(), location.getBlockZ())) {
+					region = localRegion;
+					break;
 				}
 			}
+			if (region != null && !region.getExplosionDestroy(explosion)) {
+				BlockState block = world.getBlock(location.getBlockPosition());
+				if (block != null && block.getType() != BlockTypes.AIR)
+					it.remove();
+			}
 		}
 	}
 }
@@ -7,37 +7,40 @@
  */
 package com.universeguard.event.flags;
 
-import org.spongepowered.api.Sponge;
 import org.spongepowered.api.data.key.Keys;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.entity.living.player.gamemode.GameModes;
-import org.spongepowered.api.event.Cancellable;
-import org.spongepowered.api.world.Location;
-import org.spongepowered.api.world.World;
 
+import com.universeguard.UniverseGuard;
+import com.universeguard.event.RegionEffect;
+import com.universeguard.region.Region;
 import com.universeguard.region.enums.EnumRegionFlag;
-import com.universeguard.region.enums.RegionEventType;
-import com.universeguard.utils.RegionUtils;
 
 /**
  * Handler for the hunger flag
  * @author Jimi
  *
  */
-public class FlagHungerListener implements Runnable {
+public class FlagHungerListener extends RegionEffect {
 	
 	@Override
-	public void run() {
-		for(Player player : Sponge.getServer().getOnlinePlayers()) {
-			if(player.gameMode().exists() && player.gameMode().get().equals(GameModes.SURVIVAL) ) {
-				if(this.handleEvent(null, player.getLocation(), null))
-					player.offer(player.getFoodData().set(Keys.FOOD_LEVEL, 20));
-			}
-		}
+	public String getName() {
+		return EnumRegionFlag.HUNGER.getName();
+	}
+	
+	@Override
+	public int getInterval() {
+		return UniverseGuard.HUNGER_TIMER * 20;
 	}
 	
-	private boolean handleEvent(Cancellable event, Location<World> location, Player player) {
-		return RegionUtils.handleEvent(event, EnumRegionFlag.HUNGER, location, player, RegionEventType.GLOBAL);
+	@Override
+	public boolean apply(Player player, Region region) {
+		if(!region.getFlag(EnumRegionFlag.HUNGER) && player.gameMode().exists() && player.gameMode().get().equals(GameModes.SURVIVAL)
+				&& player.get(Keys.FOOD_LEVEL).orElse(20) < 20) {
+			player.offer(Keys.FOOD_LEVEL, 20);
+			return true;
+		}
+		return false;
 	}
 	
 }
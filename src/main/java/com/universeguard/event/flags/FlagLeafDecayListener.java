@@ -7,7 +7,6 @@
  */
 package com.universeguard.event.flags;
 
-import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.entity.living.player.Player;
@@ -34,12 +33,10 @@ public class FlagLeafDecayListener {
 	
 	@Listener
 	public void onLeafDecay(ChangeBlockEvent.Decay event) {
-		if(!event.getTransactions().isEmpty()) {
-			BlockSnapshot block = event.getTransactions().get(0).getOriginal();
-			BlockType type = block.getState().getType();
-			if(type.equals(BlockTypes.LEAVES) || type.equals(BlockTypes.LEAVES2))
-				this.handleEvent(event, block.getLocation().get(), null);
-		}
+		RegionUtils.handleTransactions(event, EnumRegionFlag.LEAF_DECAY, null, RegionEventType.GLOBAL, transaction -> {
+			BlockType type = transaction.getOriginal().getState().getType();
+			return type.equals(BlockTypes.LEAVES) || type.equals(BlockTypes.LEAVES2);
+		});
 	}
 	
 	@Listener
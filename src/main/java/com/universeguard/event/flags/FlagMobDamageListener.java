@@ -9,10 +9,7 @@ package com.universeguard.event.flags;
 
 import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.entity.EntityType;
-import org.spongepowered.api.entity.living.Creature;
 import org.spongepowered.api.entity.living.Living;
-import org.spongepowered.api.entity.living.animal.Animal;
-import org.spongepowered.api.entity.living.monster.Monster;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.cause.entity.damage.source.EntityDamageSource;
@@ -42,15 +39,9 @@ public class FlagMobDamageListener {
 		EntityType type = entity.getType();
 		if(!FlagUtils.isBlockEntity(type) && !FlagUtils.isVehicle(type) && entity instanceof Living)
 		{
-			String name = type.getId().toLowerCase();
 			Region region = RegionUtils.getRegion(entity.getLocation());
 			if(region != null) {
-				boolean relatedAllFlag = !region.getMobDamage("all");
-				if(entity instanceof Monster)
-					relatedAllFlag =  relatedAllFlag || !region.getMobDamage("allhostile");
-				if(entity instanceof Creature || entity instanceof Animal)
-					relatedAllFlag =  relatedAllFlag || !region.getMobDamage("allpassive");
-				boolean cancel = relatedAllFlag || !region.getMobDamage(name);
+				boolean cancel = !region.getMobDamage(type);
 				if(cancel) {
 					event.setCancelled(true);
 				}
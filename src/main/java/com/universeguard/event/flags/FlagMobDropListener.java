@@ -10,10 +10,7 @@ package com.universeguard.event.flags;
 import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.entity.EntityType;
 import org.spongepowered.api.entity.EntityTypes;
-import org.spongepowered.api.entity.living.Creature;
 import org.spongepowered.api.entity.living.Living;
-import org.spongepowered.api.entity.living.animal.Animal;
-import org.spongepowered.api.entity.living.monster.Monster;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.cause.entity.spawn.EntitySpawnCause;
@@ -45,15 +42,9 @@ public class FlagMobDropListener {
 	private void handleEvent(SpawnEntityEvent event, Entity entity)
 	{
 		EntityType type = entity.getType();
-		String name = type.getId().toLowerCase();
 		Region region = RegionUtils.getRegion(entity.getLocation());
 		if(region != null) {
-			boolean relatedAllFlag = !region.getMobDrop("all");
-			if(entity instanceof Monster)
-				relatedAllFlag =  relatedAllFlag || !region.getMobDrop("allhostile");
-			if(entity instanceof Creature || entity instanceof Animal)
-				relatedAllFlag =  relatedAllFlag || !region.getMobDrop("allpassive");
-			boolean cancel = relatedAllFlag || !region.getMobDrop(name);
+			boolean cancel = !region.getMobDrop(type);
 			if(cancel) {
 				event.setCancelled(true);
 			}
@@ -9,10 +9,7 @@ package com.universeguard.event.flags;
 
 import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.entity.EntityType;
-import org.spongepowered.api.entity.living.Creature;
 import org.spongepowered.api.entity.living.Living;
-import org.spongepowered.api.entity.living.animal.Animal;
-import org.spongepowered.api.entity.living.monster.Monster;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.cause.entity.damage.source.EntityDamageSource;
@@ -46,15 +43,9 @@ public class FlagMobPveListener {
 		EntityType type = entity.getType();
 		if(!FlagUtils.isBlockEntity(type) && !FlagUtils.isVehicle(type) && entity instanceof Living)
 		{
-			String name = type.getId().toLowerCase();
 			Region region = RegionUtils.getRegion(entity.getLocation());
 			if(region != null) {
-				boolean relatedAllFlag = !region.getMobPve("all");
-				if(entity instanceof Monster)
-					relatedAllFlag =  relatedAllFlag || !region.getMobPve("allhostile");
-				if(entity instanceof Creature || entity instanceof Animal)
-					relatedAllFlag =  relatedAllFlag || !region.getMobPve("allpassive");
-				boolean cancel = relatedAllFlag || !region.getMobPve(name) && !PermissionUtils.hasPermission(player, RegionPermission.REGION);
+				boolean cancel = !region.getMobPveCategory(type) || (!region.getMobPve(type) && !PermissionUtils.hasPermission(player, RegionPermission.REGION));
 				if(cancel) {
 					event.setCancelled(true);
 					MessageUtils.sendHotbarErrorMessage(player, RegionText.NO_PERMISSION_REGION.getValue());
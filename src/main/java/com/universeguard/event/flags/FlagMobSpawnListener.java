@@ -9,10 +9,7 @@ package com.universeguard.event.flags;
 
 import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.entity.EntityType;
-import org.spongepowered.api.entity.living.Creature;
 import org.spongepowered.api.entity.living.Living;
-import org.spongepowered.api.entity.living.animal.Animal;
-import org.spongepowered.api.entity.living.monster.Monster;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.cause.entity.spawn.EntitySpawnCause;
@@ -58,15 +55,9 @@ public class FlagMobSpawnListener {
 		EntityType type = entity.getType();
 		if(!FlagUtils.isBlockEntity(type) && !FlagUtils.isVehicle(type) && entity instanceof Living)
 		{
-			String name = type.getId().toLowerCase();
 			Region region = RegionUtils.getRegion(entity.getLocation());
 			if(region != null) {
-				boolean relatedAllFlag = !region.getMobSpawn("all");
-				if(entity instanceof Monster)
-					relatedAllFlag =  relatedAllFlag || !region.getMobSpawn("allhostile");
-				if(entity instanceof Creature || entity instanceof Animal)
-					relatedAllFlag =  relatedAllFlag || !region.getMobSpawn("allpassive");
-				boolean cancel = relatedAllFlag || !region.getMobSpawn(name);
+				boolean cancel = !region.getMobSpawn(type);
 				if(player != null)
 					cancel = cancel && !PermissionUtils.hasPermission(player, RegionPermission.REGION);
 				if(cancel) {
@@ -7,7 +7,6 @@
  */
 package com.universeguard.event.flags;
 
-import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.block.tileentity.TileEntity;
 import org.spongepowered.api.entity.Entity;
@@ -69,13 +68,8 @@ public class FlagPlaceListener {
 	
 	@Listener
 	public void onBlockPlacedByPlayer(ChangeBlockEvent.Place event, @Root Player player) {
-		if (!event.getTransactions().isEmpty()) {
-			BlockSnapshot block = event.getTransactions().get(0).getFinal();
-			if (block.getLocation().isPresent() && !block.getState().getType().equals(BlockTypes.FIRE)) {
-				Location<World> location = block.getLocation().get();
-				this.handleEvent(event, location, player);
-			}
-		}
+		RegionUtils.handleTransactions(event, EnumRegionFlag.PLACE, player, RegionEventType.LOCAL,
+				transaction -> !transaction.getFinal().getState().getType().equals(BlockTypes.FIRE));
 	}
 
 	private boolean handleEvent(Cancellable event, Location<World> location, Player player) {
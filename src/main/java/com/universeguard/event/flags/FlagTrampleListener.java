@@ -4,7 +4,6 @@ import com.universeguard.region.enums.EnumRegionFlag;
 import com.universeguard.region.enums.RegionEventType;
 import com.universeguard.utils.FlagUtils;
 import com.universeguard.utils.RegionUtils;
-import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.entity.living.player.Player;
@@ -23,22 +22,14 @@ public class FlagTrampleListener {
 
     @Listener
     public void onFarmlandBreak(ChangeBlockEvent.Place event) {
-        if(!event.getTransactions().isEmpty()) {
-            BlockSnapshot source = event.getTransactions().get(0).getOriginal();
-            if(source.getState().getType().equals(BlockTypes.FARMLAND) && source.getLocation().isPresent())
-                this.handleEvent(event, source.getLocation().get(), null);
-        }
+        RegionUtils.handleTransactions(event, EnumRegionFlag.TRAMPLE, null, RegionEventType.GLOBAL,
+                transaction -> transaction.getOriginal().getState().getType().equals(BlockTypes.FARMLAND));
     }
 
     @Listener
     public void onFieldsBreak(ChangeBlockEvent.Break event, @First Player player) {
-        if (!event.getTransactions().isEmpty()) {
-            BlockSnapshot block = event.getTransactions().get(0).getFinal();
-            if (block.getLocation().isPresent() && FlagUtils.isCrop(block.getState().getType())) {
-                Location<World> location = block.getLocation(). get();
-                this.handleEvent(event,location, player);
-            }
-        }
+        RegionUtils.handleTransactions(event, EnumRegionFlag.TRAMPLE, player, RegionEventType.GLOBAL,
+                transaction -> FlagUtils.isCrop(transaction.getFinal().getState().getType()));
     }
 
     @Listener
@@ -18,6 +18,7 @@ import com.universeguard.region.enums.EnumRegionVehicle;
 import com.universeguard.region.enums.RegionText;
 import com.universeguard.utils.FlagUtils;
 import com.universeguard.utils.MessageUtils;
+import com.universeguard.utils.RegionSessionUtils;
 import com.universeguard.utils.RegionUtils;
 
 /**
@@ -37,7 +38,7 @@ public class FlagVehicleDestroyListener {
 	}
 	
 	private void handleEvent(InteractEntityEvent.Primary event, EnumRegionVehicle vehicle, Player player) {
-		Region region = RegionUtils.getRegion(player.getLocation());
+		Region region = RegionSessionUtils.getCurrentRegion(player);
 		if(region != null && vehicle != null) {
 			boolean cancel = !region.getVehicleDestroy(vehicle) && !RegionUtils.hasPermission(player, region);
 			if(cancel) {
@@ -21,6 +21,7 @@ import com.universeguard.region.enums.EnumRegionVehicle;
 import com.universeguard.region.enums.RegionText;
 import com.universeguard.utils.FlagUtils;
 import com.universeguard.utils.MessageUtils;
+import com.universeguard.utils.RegionSessionUtils;
 import com.universeguard.utils.RegionUtils;
 
 /**
@@ -43,7 +44,7 @@ public class FlagVehiclePlaceListener {
 	}
 	
 	private void handleEvent(SpawnEntityEvent event, EnumRegionVehicle vehicle, Player player) {
-		Region region = RegionUtils.getRegion(player.getLocation());
+		Region region = RegionSessionUtils.getCurrentRegion(player);
 		if(region != null && vehicle != null) {
 			boolean cancel = !region.getVehiclePlace(vehicle) && !RegionUtils.hasPermission(player, region);
 			if(cancel) {
@@ -26,6 +26,7 @@ import org.spongepowered.api.world.World;
 
 import com.universeguard.region.enums.EnumRegionFlag;
 import com.universeguard.region.enums.RegionEventType;
+import com.universeguard.utils.RegionIndexUtils;
 import com.universeguard.utils.RegionUtils;
 
 /**
@@ -38,8 +39,10 @@ public class FlagWaterFlowListener {
 	@Listener
 	public void onWaterFlow(ChangeBlockEvent.Pre event) {
 		if(!event.getLocations().isEmpty()) {
-			BlockSnapshot block = event.getLocations().get(0).getExtent().createSnapshot(event.getLocations().get(0).getBlockX(), event.getLocations().get(0).getBlockY(), event.getLocations().get(0).getBlockZ());
 			Location<World> location = event.getLocations().get(event.getLocations().size() - 1);
+			if(!RegionIndexUtils.mayDeny(EnumRegionFlag.WATER_FLOW, location))
+				return;
+			BlockSnapshot block = event.getLocations().get(0).getExtent().createSnapshot(event.getLocations().get(0).getBlockX(), event.getLocations().get(0).getBlockY(), event.getLocations().get(0).getBlockZ());
 			Optional<MatterProperty> matter = block.getState().getProperty(MatterProperty.class);
 			if(matter.isPresent() && matter.get().getValue().equals(Matter.LIQUID)) {
 				BlockType blockType = block.getState().getType();
@@ -7,9 +7,18 @@
  */
 package com.universeguard.region;
 
+import java.util.ArrayList;
+import java.util.UUID;
+
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.world.World;
 
+import com.universeguard.region.components.RegionCommand;
+import com.universeguard.region.components.RegionExplosion;
+import com.universeguard.region.components.RegionFlag;
+import com.universeguard.region.components.RegionInteract;
+import com.universeguard.region.components.RegionMob;
+import com.universeguard.region.components.RegionVehicle;
 import com.universeguard.region.enums.RegionType;
 
 /**
@@ -27,6 +36,24 @@ public class GlobalRegion extends Region {
 		super(RegionType.GLOBAL, name);
 	}
 	
+	/**
+	 * Global Region Constructor for a Region read from a file. The lists are used as they are,
+	 * only the missing ones get their default values
+	 * @param id The Region ID
+	 * @param name The Region name
+	 * @param gamemode The Region GameMode, null for the default one
+	 * @param flags The Region flags
+	 * @param interacts The Region interacts
+	 * @param vehicles The Region vehicles
+	 * @param explosions The Region explosions
+	 * @param mobs The Region mobs
+	 * @param commands The Region commands
+	 */
+	public GlobalRegion(UUID id, String name, String gamemode, ArrayList<RegionFlag> flags, ArrayList<RegionInteract> interacts,
+			ArrayList<RegionVehicle> vehicles, ArrayList<RegionExplosion> explosions, ArrayList<RegionMob> mobs, ArrayList<RegionCommand> commands) {
+		super(RegionType.GLOBAL, id, name, gamemode, flags, interacts, vehicles, explosions, mobs, commands);
+	}
+	
 	/**
 	 * Get the World object for the Region
 	 * @return The Region World Object
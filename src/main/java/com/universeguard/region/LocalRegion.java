@@ -8,16 +8,25 @@
 package com.universeguard.region;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.UUID;
 
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.world.World;
 
+import com.universeguard.region.components.RegionBounds;
+import com.universeguard.region.components.RegionCommand;
+import com.universeguard.region.components.RegionExplosion;
+import com.universeguard.region.components.RegionFlag;
+import com.universeguard.region.components.RegionInteract;
 import com.universeguard.region.components.RegionLocation;
 import com.universeguard.region.components.RegionMember;
+import com.universeguard.region.components.RegionMob;
+import com.universeguard.region.components.RegionVehicle;
 import com.universeguard.region.enums.RegionRole;
 import com.universeguard.region.enums.RegionType;
+import com.universeguard.utils.MemberIndexUtils;
 import com.universeguard.utils.RegionUtils;
 
 /**
@@ -59,6 +68,14 @@ public class LocalRegion extends Region {
 	 * Region Greeting message
 	 */
 	private String GREETING_MESSAGE;
+	/**
+	 * Compiled bounds of the Region, rebuilt when the points change
+	 */
+	private transient RegionBounds BOUNDS;
+	/**
+	 * Region members by UUID, rebuilt when the members list is replaced
+	 */
+	private transient HashMap<UUID, RegionMember> MEMBER_MAP;
 	/**
 	 * LocalRegion Constructor
 	 * @param name The Region name
@@ -77,6 +94,7 @@ public class LocalRegion extends Region {
 		super(RegionType.LOCAL, name);
 		this.FIRST_POINT= firstPoint;
 		this.SECOND_POINT = secondPoint;
+		this.compileBounds();
 		this.PRIORITY = 0;
 		this.TELEPORT_LOCATION = firstPoint;
 		this.SPAWN_LOCATION = secondPoint;
@@ -85,12 +103,50 @@ public class LocalRegion extends Region {
 		this.GREETING_MESSAGE = "";
 	}
 	
+	/**
+	 * Local Region Constructor for a Region read from a file. The lists are used as they are,
+	 * only the missing ones get their default values
+	 * @param id The Region ID
+	 * @param name The Region name
+	 * @param gamemode The Region GameMode, null for the default one
+	 * @param firstPoint The first point
+	 * @param secondPoint The second point
+	 * @param priority The Region priority
+	 * @param teleportLocation The Region teleport location
+	 * @param spawnLocation The Region spawn location
+	 * @param members The Region members
+	 * @param farewell The Region farewell message
+	 * @param greeting The Region greeting message
+	 * @param flags The Region flags
+	 * @param interacts The Region interacts
+	 * @param vehicles The Region vehicles
+	 * @param explosions The Region explosions
+	 * @param mobs The Region mobs
+	 * @param commands The Region commands
+	 */
+	public LocalRegion(UUID id, String name, String gamemode, RegionLocation firstPoint, RegionLocation secondPoint, int priority,
+			RegionLocation teleportLocation, RegionLocation spawnLocation, ArrayList<RegionMember> members, String farewell, String greeting,
+			ArrayList<RegionFlag> flags, ArrayList<RegionInteract> interacts, ArrayList<RegionVehicle> vehicles,
+			ArrayList<RegionExplosion> explosions, ArrayList<RegionMob> mobs, ArrayList<RegionCommand> commands) {
+		super(RegionType.LOCAL, id, name, gamemode, flags, interacts, vehicles, explosions, mobs, commands);
+		this.FIRST_POINT = firstPoint;
+		this.SECOND_POINT = secondPoint;
+		this.compileBounds();
+		this.PRIORITY = priority;
+		this.TELEPORT_LOCATION = teleportLocation;
+		this.SPAWN_LOCATION = spawnLocation;
+		this.MEMBERS = members != null ? members : new ArrayList<RegionMember>();
+		this.FAREWELL_MESSAGE = farewell != null ? farewell : "";
+		this.GREETING_MESSAGE = greeting != null ? greeting : "";
+	}
+	
 	/**
 	 * Set the first point base on location
 	 * @param location The location
 	 */
 	public void setFirstPoint(RegionLocation location) {
 		FIRST_POINT = location;
+		this.compileBounds();
 	}
 	
 	/**
@@ -107,6 +163,7 @@ public class LocalRegion extends Region {
 	 */
 	public void setSecondPoint(RegionLocation location) {
 		SECOND_POINT = location;
+		this.compileBounds();
 	}
 	
 	/**
@@ -170,7 +227,14 @@ public class LocalRegion extends Region {
 	 * @param members The members
 	 */
 	public void setMembers(ArrayList<RegionMember> members) {
+		this.loadBody();
+		boolean indexed = MemberIndexUtils.isIndexed(this);
+		if(indexed)
+			MemberIndexUtils.remove(this);
 		this.MEMBERS = members;
+		this.MEMBER_MAP = null;
+		if(indexed)
+			MemberIndexUtils.add(this);
 	}
 	
 	/**
@@ -178,6 +242,7 @@ public class LocalRegion extends Region {
 	 * @return The Region Members
 	 */
 	public ArrayList<RegionMember> getMembers() {
+		this.loadBody();
 		return this.MEMBERS;
 	}
 	
@@ -196,7 +261,7 @@ public class LocalRegion extends Region {
 	 * @param role The role
 	 */
 	public void addMember(Player player, RegionRole role) {
-		this.MEMBERS.add(new RegionMember(player, role));
+		this.addMember(new RegionMember(player, role));
 	}
 	
 	/**
@@ -206,7 +271,54 @@ public class LocalRegion extends Region {
 	 * @param role The role
 	 */
 	public void addMemberByUUIDAndUsername(UUID player, String username, RegionRole role) {
-		this.MEMBERS.add(new RegionMember(player, username, role));
+		this.addMember(new RegionMember(player, username, role));
+	}
+	
+	/**
+	 * Add a member to the Region
+	 * @param member The member
+	 */
+	private void addMember(RegionMember member) {
+		this.loadBody();
+		this.MEMBERS.add(member);
+		if(this.MEMBER_MAP != null && !this.MEMBER_MAP.containsKey(member.getUUID()))
+			this.MEMBER_MAP.put(member.getUUID(), member);
+		MemberIndexUtils.addMember(this, this.getLoadedMember(member.getUUID()));
+	}
+	
+	/**
+	 * Get a member of the Region. Indexed Regions are checked through the members index,
+	 * so the body is not loaded
+	 * @param player The player's UUID
+	 * @return The member if the player is a member of the Region, null otherwise
+	 */
+	public RegionMember getMember(UUID player) {
+		if(MemberIndexUtils.isIndexed(this))
+			return MemberIndexUtils.getMember(this, player);
+		// Used by events, so a Region that can't be loaded has no members
+		if(!this.tryLoadBody())
+			return null;
+		return this.getLoadedMember(player);
+	}
+	
+	/**
+	 * Get a member of the Region from its members list
+	 * @param player The player's UUID
+	 * @return The member if the player is a member of the Region, null otherwise
+	 */
+	private RegionMember getLoadedMember(UUID player) {
+		this.loadBody();
+		if(this.MEMBER_MAP == null) {
+			HashMap<UUID, RegionMember> members = new HashMap<UUID, RegionMember>();
+			if(this.MEMBERS != null) {
+				for(RegionMember member : this.MEMBERS) {
+					if(!members.containsKey(member.getUUID()))
+						members.put(member.getUUID(), member);
+				}
+			}
+			this.MEMBER_MAP = members;
+		}
+		return this.MEMBER_MAP.get(player);
 	}
 
 	/**
@@ -214,15 +326,17 @@ public class LocalRegion extends Region {
 	 * @param player The player
 	 */
 	public void removeMemberByUUID(UUID player) {
-		RegionMember toRemove = null;
-		for(RegionMember member : this.MEMBERS) {
-			if(member.getUUID().equals(player)) {
-				toRemove = member;
-				break;
-			}
-		}
-		if(toRemove != null)
+		this.loadBody();
+		RegionMember toRemove = this.getLoadedMember(player);
+		if(toRemove != null) {
 			this.MEMBERS.remove(toRemove);
+			this.MEMBER_MAP = null;
+			RegionMember next = this.getLoadedMember(player);
+			if(next != null)
+				MemberIndexUtils.addMember(this, next);
+			else
+				MemberIndexUtils.removeMember(this, player);
+		}
 	}
 	
 	/**
@@ -238,14 +352,17 @@ public class LocalRegion extends Region {
 	 * @param message the Farewell message
 	 */
 	public void setFarewellMessage(String message) {
+		this.loadBody();
 		this.FAREWELL_MESSAGE = message;
 	}
 	
 	/**
 	 * Get the Farewell message
-	 * @return the Farewell message
+	 * @return the Farewell message, empty if the Region can't be loaded
 	 */
 	public String getFarewellMessage() {
+		if(!this.tryLoadBody())
+			return "";
 		return this.FAREWELL_MESSAGE;
 	}
 	
@@ -254,17 +371,55 @@ public class LocalRegion extends Region {
 	 * @param message the Greeting message
 	 */
 	public void setGreetingMessage(String message) {
+		this.loadBody();
 		this.GREETING_MESSAGE = message;
 	}
 	
 	/**
 	 * Get the Greeting message
-	 * @return the Greeting message
+	 * @return the Greeting message, empty if the Region can't be loaded
 	 */
 	public String getGreetingMessage() {
+		if(!this.tryLoadBody())
+			return "";
 		return this.GREETING_MESSAGE;
 	}
 	
+	/**
+	 * Drop the members and the messages along with the flags
+	 */
+	@Override
+	public void unloadBody() {
+		this.MEMBERS = null;
+		this.MEMBER_MAP = null;
+		this.FAREWELL_MESSAGE = null;
+		this.GREETING_MESSAGE = null;
+		super.unloadBody();
+	}
+	
+	/**
+	 * Set the body of the Region from a copy loaded from the storage.
+	 * Members are indexed again, so the index points to the loaded ones
+	 * @param region The loaded Region
+	 */
+	@Override
+	public void setBody(Region region) {
+		super.setBody(region);
+		if(region instanceof LocalRegion) {
+			LocalRegion local = (LocalRegion) region;
+			this.MEMBERS = local.MEMBERS;
+			this.FAREWELL_MESSAGE = local.FAREWELL_MESSAGE;
+			this.GREETING_MESSAGE = local.GREETING_MESSAGE;
+		} else {
+			this.MEMBERS = new ArrayList<RegionMember>();
+			this.FAREWELL_MESSAGE = "";
+			this.GREETING_MESSAGE = "";
+		}
+		this.MEMBER_MAP = null;
+		if(MemberIndexUtils.isIndexed(this))
+			MemberIndexUtils.add(this);
+	}
+	
 	/**
 	 * Get the World object for the Region
 	 * @return The Region World Object
@@ -272,5 +427,36 @@ public class LocalRegion extends Region {
 	public World getWorld() {
 		return this.FIRST_POINT != null && Sponge.getServer().getWorld(this.FIRST_POINT.getWorld()).isPresent() ? Sponge.getServer().getWorld(this.FIRST_POINT.getWorld()).get() : null;
 	}
+	
+	/**
+	 * Get the compiled bounds of the Region.
+	 * Regions loaded from file don't have them yet, so they are compiled on first use
+	 * @return The Region bounds, null if a point is missing
+	 */
+	public RegionBounds getBounds() {
+		if(this.BOUNDS == null)
+			this.compileBounds();
+		return this.BOUNDS;
+	}
+	
+	/**
+	 * Check if a block is inside the Region
+	 * @param world The world
+	 * @param x The block X coordinate
+	 * @param y The block Y coordinate
+	 * @param z The block Z coordinate
+	 * @return true if the block is inside the Region, false otherwise
+	 */
+	public boolean contains(World world, int x, int y, int z) {
+		RegionBounds bounds = this.getBounds();
+		return bounds != null && bounds.contains(world, x, y, z);
+	}
+	
+	/**
+	 * Compile the Region bounds from its points
+	 */
+	private void compileBounds() {
+		this.BOUNDS = this.FIRST_POINT != null && this.SECOND_POINT != null ? new RegionBounds(this.FIRST_POINT, this.SECOND_POINT) : null;
+	}
 
 }
@@ -8,8 +8,11 @@
 package com.universeguard.region;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.UUID;
 
+import org.spongepowered.api.entity.EntityType;
 import org.spongepowered.api.entity.living.player.gamemode.GameModes;
 
 import com.universeguard.UniverseGuard;
@@ -23,8 +26,13 @@ import com.universeguard.region.enums.EnumRegionExplosion;
 import com.universeguard.region.enums.EnumRegionFlag;
 import com.universeguard.region.enums.EnumRegionInteract;
 import com.universeguard.region.enums.EnumRegionVehicle;
+import com.universeguard.region.enums.RegionText;
 import com.universeguard.region.enums.RegionType;
+import com.universeguard.utils.CommandUtils;
 import com.universeguard.utils.FlagUtils;
+import com.universeguard.utils.MobUtils;
+import com.universeguard.utils.RegionBodyUtils;
+import com.universeguard.utils.RegionIndexUtils;
 
 /**
  * Region Class
@@ -77,6 +85,65 @@ public class Region {
 	 * Region Commands
 	 */
 	private ArrayList<RegionCommand> COMMANDS;
+	/**
+	 * Flag, Interact, Vehicle and Explosion values by ordinal, compiled from the lists above
+	 */
+	private transient long FLAG_BITS;
+	private transient long INTERACT_BITS;
+	private transient long VEHICLE_PLACE_BITS;
+	private transient long VEHICLE_DESTROY_BITS;
+	private transient long EXPLOSION_DAMAGE_BITS;
+	private transient long EXPLOSION_DESTROY_BITS;
+	/**
+	 * If the bitsets are up to date with the lists
+	 */
+	private transient boolean BITS_COMPILED;
+	/**
+	 * Changes every time the flags of any Region change
+	 */
+	private static long FLAGS_VERSION = 0;
+	/**
+	 * Denied mobs by capability, with the all, allhostile and allpassive subflags folded in
+	 */
+	private transient BitSet[] MOB_DENIED;
+	/**
+	 * Denied all, allhostile and allpassive subflags, three bits by capability
+	 */
+	private transient int MOB_CATEGORIES_DENIED;
+	/**
+	 * Mob indexes version the denied mobs have been compiled with
+	 */
+	private transient int MOB_VERSION;
+	/**
+	 * Number of indexed mobs when the denied mobs have been compiled
+	 */
+	private transient int MOB_COUNT;
+	/**
+	 * If the mobs list has mobs that had no index when the denied mobs have been compiled
+	 */
+	private transient boolean MOB_UNRESOLVED;
+	/**
+	 * Command values by canonical command name
+	 */
+	private transient HashMap<String, Boolean> COMMAND_POLICY;
+	/**
+	 * Canonical command names version the command values have been compiled with
+	 */
+	private transient int COMMAND_VERSION;
+	/**
+	 * If the commands list has commands that weren't registered when the command values have been compiled
+	 */
+	private transient boolean COMMAND_UNRESOLVED;
+	/**
+	 * If the flags, mobs and commands lists have been dropped to save memory
+	 */
+	private transient boolean BODY_UNLOADED;
+	
+	// Mob capabilities
+	private static final int MOB_SPAWN = 0;
+	private static final int MOB_PVE = 1;
+	private static final int MOB_DAMAGE = 2;
+	private static final int MOB_DROP = 3;
 	
 	/**
 	 * Region Constructor
@@ -110,6 +177,34 @@ public class Region {
 		this.initFlags();
 	}
 	
+	/**
+	 * Region Constructor for a Region read from a file. The lists are used as they are,
+	 * only the missing ones get their default values
+	 * @param type The Region Type
+	 * @param id The Region ID
+	 * @param name The Region name
+	 * @param gamemode The Region GameMode, null for the default one
+	 * @param flags The Region flags
+	 * @param interacts The Region interacts
+	 * @param vehicles The Region vehicles
+	 * @param explosions The Region explosions
+	 * @param mobs The Region mobs
+	 * @param commands The Region commands
+	 */
+	protected Region(RegionType type, UUID id, String name, String gamemode, ArrayList<RegionFlag> flags, ArrayList<RegionInteract> interacts,
+			ArrayList<RegionVehicle> vehicles, ArrayList<RegionExplosion> explosions, ArrayList<RegionMob> mobs, ArrayList<RegionCommand> commands) {
+		this.ID = id;
+		this.TYPE = type;
+		this.NAME = name;
+		this.GAMEMODE = gamemode != null ? gamemode : GameModes.NOT_SET.getId();
+		this.FLAGS = flags != null ? flags : getDefaultFlags();
+		this.INTERACTS = interacts != null ? interacts : getDefaultInteracts();
+		this.VEHICLES = vehicles != null ? vehicles : getDefaultVehicles();
+		this.EXPLOSIONS = explosions != null ? explosions : getDefaultExplosions();
+		this.MOBS = mobs != null ? mobs : new ArrayList<RegionMob>();
+		this.COMMANDS = commands != null ? commands : new ArrayList<RegionCommand>();
+	}
+	
 
 	/**
 	 * Set the Region ID
@@ -130,23 +225,405 @@ public class Region {
 	 * INitialize Region flags
 	 */
 	public void initFlags() {
-		this.FLAGS = new ArrayList<RegionFlag>();
-		this.INTERACTS = new ArrayList<RegionInteract>();
-		this.VEHICLES = new ArrayList<RegionVehicle>();
-		this.EXPLOSIONS = new ArrayList<RegionExplosion>();
+		this.loadBody();
+		this.FLAGS = getDefaultFlags();
+		this.INTERACTS = getDefaultInteracts();
+		this.VEHICLES = getDefaultVehicles();
+		this.EXPLOSIONS = getDefaultExplosions();
 		this.MOBS = new ArrayList<RegionMob>();
-		
+		this.invalidateBits();
+		this.MOB_DENIED = null;
+	}
+	
+	/**
+	 * Get the default Region flags
+	 * @return A new list with every flag set to its default value
+	 */
+	private static ArrayList<RegionFlag> getDefaultFlags() {
+		ArrayList<RegionFlag> flags = new ArrayList<RegionFlag>();
 		for(EnumRegionFlag flag : EnumRegionFlag.values())
-			this.FLAGS.add(new RegionFlag(flag));
-		
+			flags.add(new RegionFlag(flag));
+		return flags;
+	}
+	
+	/**
+	 * Get the default Region interacts
+	 * @return A new list with every interact set to its default value
+	 */
+	private static ArrayList<RegionInteract> getDefaultInteracts() {
+		ArrayList<RegionInteract> interacts = new ArrayList<RegionInteract>();
 		for(EnumRegionInteract interact : EnumRegionInteract.values())
-			this.INTERACTS.add(new RegionInteract(interact));
-		
+			interacts.add(new RegionInteract(interact));
+		return interacts;
+	}
+	
+	/**
+	 * Get the default Region vehicles
+	 * @return A new list with every vehicle set to its default value
+	 */
+	private static ArrayList<RegionVehicle> getDefaultVehicles() {
+		ArrayList<RegionVehicle> vehicles = new ArrayList<RegionVehicle>();
 		for(EnumRegionVehicle vehicle : EnumRegionVehicle.values())
-			this.VEHICLES.add(new RegionVehicle(vehicle));
-		
+			vehicles.add(new RegionVehicle(vehicle));
+		return vehicles;
+	}
+	
+	/**
+	 * Get the default Region explosions
+	 * @return A new list with every explosion set to its default value
+	 */
+	private static ArrayList<RegionExplosion> getDefaultExplosions() {
+		ArrayList<RegionExplosion> explosions = new ArrayList<RegionExplosion>();
 		for(EnumRegionExplosion explosion : EnumRegionExplosion.values())
+			explosions.add(new RegionExplosion(explosion));
+		return explosions;
+	}
+	
+	/**
+	 * Copy flags, interacts, vehicles, explosions, mobs and commands from another Region
+	 * @param region The Region to copy from
+	 */
+	public void copyFlags(Region region) {
+		this.loadBody();
+		this.FLAGS = new ArrayList<RegionFlag>();
+		for(RegionFlag flag : region.getFlags())
+			this.FLAGS.add(new RegionFlag(flag));
+		this.INTERACTS = new ArrayList<RegionInteract>();
+		for(RegionInteract interact : region.getInteracts())
+			this.INTERACTS.add(new RegionInteract(interact));
+		this.VEHICLES = new ArrayList<RegionVehicle>();
+		for(RegionVehicle vehicle : region.getVehicles())
+			this.VEHICLES.add(new RegionVehicle(vehicle));
+		this.EXPLOSIONS = new ArrayList<RegionExplosion>();
+		for(RegionExplosion explosion : region.getExplosions())
 			this.EXPLOSIONS.add(new RegionExplosion(explosion));
+		this.MOBS = new ArrayList<RegionMob>();
+		for(RegionMob mob : region.getMobs())
+			this.MOBS.add(new RegionMob(mob));
+		this.COMMANDS = new ArrayList<RegionCommand>();
+		for(RegionCommand command : region.getCommands())
+			this.COMMANDS.add(new RegionCommand(command.getCommand(), command.isEnabled()));
+		this.invalidateBits();
+		this.MOB_DENIED = null;
+		this.COMMAND_POLICY = null;
+	}
+	
+	/**
+	 * Compile the bitsets from the flags, interacts, vehicles and explosions lists.
+	 * Missing flags and interacts are disabled, missing vehicles and explosions are enabled
+	 */
+	private void compileBits() {
+		long flags = 0L;
+		long seen = 0L;
+		for(RegionFlag f : this.FLAGS) {
+			EnumRegionFlag flag = FlagUtils.getFlag(f.getName());
+			if(flag != null && (seen & 1L << flag.ordinal()) == 0L) {
+				seen |= 1L << flag.ordinal();
+				if(f.getValue())
+					flags |= 1L << flag.ordinal();
+			}
+		}
+		long interacts = 0L;
+		seen = 0L;
+		for(RegionInteract i : this.INTERACTS) {
+			EnumRegionInteract interact = FlagUtils.getInteract(i.getBlock());
+			if(interact != null && (seen & 1L << interact.ordinal()) == 0L) {
+				seen |= 1L << interact.ordinal();
+				if(i.isEnabled())
+					interacts |= 1L << interact.ordinal();
+			}
+		}
+		long vehiclePlace = -1L;
+		long vehicleDestroy = -1L;
+		seen = 0L;
+		for(RegionVehicle v : this.VEHICLES) {
+			EnumRegionVehicle vehicle = FlagUtils.getVehicle(v.getName());
+			if(vehicle != null && (seen & 1L << vehicle.ordinal()) == 0L) {
+				seen |= 1L << vehicle.ordinal();
+				if(!v.getPlace())
+					vehiclePlace &= ~(1L << vehicle.ordinal());
+				if(!v.getDestroy())
+					vehicleDestroy &= ~(1L << vehicle.ordinal());
+			}
+		}
+		long explosionDamage = -1L;
+		long explosionDestroy = -1L;
+		seen = 0L;
+		for(RegionExplosion e : this.EXPLOSIONS) {
+			EnumRegionExplosion explosion = FlagUtils.getExplosion(e.getExplosion());
+			if(explosion != null && (seen & 1L << explosion.ordinal()) == 0L) {
+				seen |= 1L << explosion.ordinal();
+				if(!e.getDamage())
+					explosionDamage &= ~(1L << explosion.ordinal());
+				if(!e.getDestroy())
+					explosionDestroy &= ~(1L << explosion.ordinal());
+			}
+		}
+		this.FLAG_BITS = flags;
+		this.INTERACT_BITS = interacts;
+		this.VEHICLE_PLACE_BITS = vehiclePlace;
+		this.VEHICLE_DESTROY_BITS = vehicleDestroy;
+		this.EXPLOSION_DAMAGE_BITS = explosionDamage;
+		this.EXPLOSION_DESTROY_BITS = explosionDestroy;
+		this.BITS_COMPILED = true;
+	}
+	
+	/**
+	 * Compile the denied mobs from the mobs list
+	 */
+	private void compileMobs() {
+		int version = MobUtils.getVersion();
+		int count = MobUtils.getMobCount();
+		BitSet[] denied = new BitSet[4];
+		int categories = 0;
+		boolean unresolved = false;
+		for(int capability = 0; capability < denied.length; capability++) {
+			denied[capability] = new BitSet(count);
+			boolean all = this.getMobValue(capability, "all");
+			boolean hostile = this.getMobValue(capability, "allhostile");
+			boolean passive = this.getMobValue(capability, "allpassive");
+			if(!all)
+				categories |= 1 << (capability * 3);
+			if(!hostile)
+				categories |= 2 << (capability * 3);
+			if(!passive)
+				categories |= 4 << (capability * 3);
+			if(all && hostile && passive)
+				continue;
+			for(int mob = 0; mob < count; mob++) {
+				if(!all || (!hostile && MobUtils.isHostile(mob)) || (!passive && MobUtils.isPassive(mob)))
+					denied[capability].set(mob);
+			}
+		}
+		for(RegionMob m : this.MOBS) {
+			int mob = MobUtils.getMobIndex(m.getMob());
+			if(mob < 0 && !isMobCategory(m.getMob()))
+				unresolved = true;
+			if(mob >= 0) {
+				if(!m.getSpawn())
+					denied[MOB_SPAWN].set(mob);
+				if(!m.getPve())
+					denied[MOB_PVE].set(mob);
+				if(!m.getDamage())
+					denied[MOB_DAMAGE].set(mob);
+				if(!m.getDrop())
+					denied[MOB_DROP].set(mob);
+			}
+		}
+		this.MOB_DENIED = denied;
+		this.MOB_CATEGORIES_DENIED = categories;
+		this.MOB_VERSION = version;
+		this.MOB_COUNT = count;
+		this.MOB_UNRESOLVED = unresolved;
+	}
+	
+	/**
+	 * Add the mobs indexed since the last compilation to the denied mobs.
+	 * Indexes are never reused, so only the all, allhostile and allpassive subflags apply to them
+	 */
+	private void extendMobs() {
+		int version = MobUtils.getVersion();
+		int count = MobUtils.getMobCount();
+		BitSet[] denied = new BitSet[this.MOB_DENIED.length];
+		for(int capability = 0; capability < denied.length; capability++) {
+			denied[capability] = (BitSet) this.MOB_DENIED[capability].clone();
+			int categories = this.MOB_CATEGORIES_DENIED >> (capability * 3);
+			for(int mob = this.MOB_COUNT; mob < count; mob++) {
+				if((categories & 1) != 0 || ((categories & 2) != 0 && MobUtils.isHostile(mob)) || ((categories & 4) != 0 && MobUtils.isPassive(mob)))
+					denied[capability].set(mob);
+			}
+		}
+		this.MOB_DENIED = denied;
+		this.MOB_VERSION = version;
+		this.MOB_COUNT = count;
+	}
+	
+	/**
+	 * Check if a mob name is one of the all, allhostile and allpassive subflags
+	 * @param mob The mob name
+	 * @return true if the name is a subflag, false otherwise
+	 */
+	private static boolean isMobCategory(String mob) {
+		return mob != null && (mob.equalsIgnoreCase("all") || mob.equalsIgnoreCase("allhostile") || mob.equalsIgnoreCase("allpassive"));
+	}
+	
+	/**
+	 * Get the value of a capability for a mob from the mobs list
+	 * @param capability The capability
+	 * @param mob The mob
+	 * @return The value of the capability for the mob
+	 */
+	private boolean getMobValue(int capability, String mob) {
+		switch(capability) {
+		case MOB_PVE:
+			return this.getMobPve(mob);
+		case MOB_DAMAGE:
+			return this.getMobDamage(mob);
+		case MOB_DROP:
+			return this.getMobDrop(mob);
+		case MOB_SPAWN:
+		default:
+			return this.getMobSpawn(mob);
+		}
+	}
+	
+	/**
+	 * Check if a capability is allowed for a mob
+	 * @param capability The capability
+	 * @param type The mob EntityType
+	 * @return true if the mob is allowed, false otherwise
+	 */
+	private boolean isMobAllowed(int capability, EntityType type) {
+		int mob = MobUtils.getMobIndex(type);
+		if(!this.checkMobs())
+			return false;
+		return !this.MOB_DENIED[capability].get(mob);
+	}
+	
+	/**
+	 * Check if a capability is allowed for a mob by the all, allhostile and allpassive subflags only
+	 * @param capability The capability
+	 * @param type The mob EntityType
+	 * @return true if the category of the mob is allowed, false otherwise
+	 */
+	private boolean isMobCategoryAllowed(int capability, EntityType type) {
+		int mob = MobUtils.getMobIndex(type);
+		if(!this.checkMobs())
+			return false;
+		int categories = this.MOB_CATEGORIES_DENIED >> (capability * 3);
+		return (categories & 1) == 0 && ((categories & 2) == 0 || !MobUtils.isHostile(mob)) && ((categories & 4) == 0 || !MobUtils.isPassive(mob));
+	}
+	
+	/**
+	 * Compile the denied mobs if the mobs list changed since the last compilation, or if new mobs
+	 * have been indexed and the list has mobs that had no index. Other Regions only add the new mobs,
+	 * so the body is loaded only when the list has to be read again
+	 * @return true if the denied mobs are up to date, false if the body can't be loaded
+	 */
+	private boolean checkMobs() {
+		int version = MobUtils.getVersion();
+		if(this.MOB_DENIED == null || (this.MOB_UNRESOLVED && this.MOB_VERSION != version)) {
+			if(!this.tryLoadBody())
+				return false;
+			this.compileMobs();
+		} else if(this.MOB_VERSION != version)
+			this.extendMobs();
+		return true;
+	}
+	
+	/**
+	 * Compile the command values if the commands list changed since the last compilation, or if the
+	 * command mappings changed and the list has commands that weren't registered. The body is loaded
+	 * only to compile them, so command checks don't need it
+	 * @return true if the command values are up to date, false if the body can't be loaded
+	 */
+	private boolean checkCommands() {
+		if(this.COMMAND_POLICY == null || (this.COMMAND_UNRESOLVED && this.COMMAND_VERSION != CommandUtils.getVersion())) {
+			if(!this.tryLoadBody())
+				return false;
+			this.compileCommands();
+		}
+		return true;
+	}
+	
+	/**
+	 * Compile the bitsets if the lists changed since the last compilation.
+	 * Regions loaded from file don't have them yet, so they are compiled on first use
+	 */
+	private void checkBits() {
+		// If the body can't be loaded the bitsets are left as they are and compiled on the next check
+		if(!this.BITS_COMPILED && this.tryLoadBody())
+			this.compileBits();
+	}
+	
+	/**
+	 * Load the body of the Region if it has been unloaded, or mark it as used
+	 */
+	protected void loadBody() {
+		// Changes must fail, so a default body is never saved over the stored one
+		if(!this.tryLoadBody())
+			throw new IllegalStateException(RegionText.REGION_BODY_EXCEPTION.getValue() + ": " + this.getName());
+	}
+	
+	/**
+	 * Load the body of the Region if it has been unloaded, or mark it as used.
+	 * Checks made by events use this, so they can deny the action instead of failing
+	 * @return true if the body is loaded, false if it can't be loaded from the storage
+	 */
+	protected boolean tryLoadBody() {
+		if(this.BODY_UNLOADED)
+			return RegionBodyUtils.load(this);
+		if(UniverseGuard.LAZY_BODIES)
+			RegionBodyUtils.touch(this);
+		return true;
+	}
+	
+	/**
+	 * Check if the body of the Region has been unloaded
+	 * @return true if the body has to be loaded from the storage, false otherwise
+	 */
+	public boolean isBodyUnloaded() {
+		return this.BODY_UNLOADED;
+	}
+	
+	/**
+	 * Drop the flags, mobs and commands lists. The bitsets, the denied mobs and the
+	 * command values are compiled first and kept, so flag, mob and command checks never need the body
+	 */
+	public void unloadBody() {
+		if(!this.BITS_COMPILED)
+			this.compileBits();
+		this.checkMobs();
+		this.checkCommands();
+		this.FLAGS = null;
+		this.INTERACTS = null;
+		this.VEHICLES = null;
+		this.EXPLOSIONS = null;
+		this.MOBS = null;
+		this.COMMANDS = null;
+		this.BODY_UNLOADED = true;
+	}
+	
+	/**
+	 * Set the body of the Region from a copy loaded from the storage
+	 * @param region The loaded Region
+	 */
+	public void setBody(Region region) {
+		this.FLAGS = region.FLAGS;
+		this.INTERACTS = region.INTERACTS;
+		this.VEHICLES = region.VEHICLES;
+		this.EXPLOSIONS = region.EXPLOSIONS;
+		this.MOBS = region.MOBS;
+		this.COMMANDS = region.COMMANDS;
+		this.BODY_UNLOADED = false;
+	}
+	
+	/**
+	 * Mark the bitsets as outdated. The flags version changes only for indexed Regions,
+	 * Regions being built or copied are checked when they are indexed
+	 */
+	private void invalidateBits() {
+		this.BITS_COMPILED = false;
+		if(RegionIndexUtils.isIndexed(this))
+			FLAGS_VERSION++;
+	}
+	
+	/**
+	 * Get the version of the Region flags. It changes every time the flags of any Region change
+	 * @return The version of the Region flags
+	 */
+	public static long getFlagsVersion() {
+		return FLAGS_VERSION;
+	}
+	
+	/**
+	 * Get the flags that would cancel an event in the Region, without checking permissions
+	 * @return The denied flags by ordinal
+	 */
+	public long getDeniedFlags() {
+		this.checkBits();
+		long invincible = 1L << EnumRegionFlag.INVINCIBLE.ordinal();
+		return (~this.FLAG_BITS & ~invincible) | (this.FLAG_BITS & invincible);
 	}
 	
 	/**
@@ -155,12 +632,14 @@ public class Region {
 	public void updateFlags() {
 		removeOldFlags();
 		setMissingFlags();
+		this.invalidateBits();
 	}
 	
 	/**
 	 * Set missing Region flags
 	 */
 	public void setMissingFlags() {
+		this.loadBody();
 		boolean update = false;
 		for(EnumRegionFlag f : EnumRegionFlag.values()) {
 			RegionFlag flag = new RegionFlag(f);
@@ -229,6 +708,7 @@ public class Region {
 	 * Remove old Region flags
 	 */
 	public void removeOldFlags() {
+		this.loadBody();
 		ArrayList<RegionFlag> flagsToRemove = new ArrayList<RegionFlag>();
 		ArrayList<RegionInteract> interactsToRemove = new ArrayList<RegionInteract>();
 		ArrayList<RegionVehicle> vehiclesToRemove = new ArrayList<RegionVehicle>();
@@ -305,7 +785,9 @@ public class Region {
 	 * @param flags The Region flag
 	 */
 	public void setFlags(ArrayList<RegionFlag> flags) {
+		this.loadBody();
 		this.FLAGS = flags;
+		this.invalidateBits();
 	}
 	
 	/**
@@ -313,6 +795,7 @@ public class Region {
 	 * @return The Region flags
 	 */
 	public ArrayList<RegionFlag> getFlags() {
+		this.loadBody();
 		return this.FLAGS;
 	}
 	
@@ -322,10 +805,12 @@ public class Region {
 	 * @param value The flag value
 	 */
 	public void setFlag(EnumRegionFlag flag, boolean value) {
+		this.loadBody();
 		for(RegionFlag f : this.FLAGS) {
 			if(f.getName().equalsIgnoreCase(flag.getName()))
 				f.setValue(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -334,11 +819,8 @@ public class Region {
 	 * @return The flag value
 	 */
 	public boolean getFlag(EnumRegionFlag flag) {
-		for(RegionFlag f : this.FLAGS) {
-			if(f.getName().equalsIgnoreCase(flag.getName()))
-				return f.getValue();
-		}
-		return false;
+		this.checkBits();
+		return (this.FLAG_BITS & 1L << flag.ordinal()) != 0L;
 	}
 	
 	/**
@@ -346,9 +828,11 @@ public class Region {
 	 * @param value The interact value
 	 */
 	public void setAllInteract(boolean value) {
+		this.loadBody();
 		for(RegionInteract i : this.INTERACTS) {
 			i.setEnabled(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -357,10 +841,12 @@ public class Region {
 	 * @param value The interact value
 	 */
 	public void setInteract(EnumRegionInteract interact, boolean value) {
+		this.loadBody();
 		for(RegionInteract i : this.INTERACTS) {
 			if(i.getBlock().equalsIgnoreCase(interact.getName()))
 				i.setEnabled(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -369,11 +855,8 @@ public class Region {
 	 * @return The interact value
 	 */
 	public boolean getInteract(EnumRegionInteract interact) {
-		for(RegionInteract i : this.INTERACTS) {
-			if(i.getBlock().equalsIgnoreCase(interact.getName()))
-				return i.isEnabled();
-		}
-		return false;
+		this.checkBits();
+		return (this.INTERACT_BITS & 1L << interact.ordinal()) != 0L;
 	}
 	
 	/**
@@ -397,7 +880,9 @@ public class Region {
 	 * @param commands The Region commands
 	 */
 	public void setCommands(ArrayList<RegionCommand> commands) {
+		this.loadBody();
 		this.COMMANDS = commands;
+		this.COMMAND_POLICY = null;
 	}
 	
 	/**
@@ -405,30 +890,50 @@ public class Region {
 	 * @return The Region commands
 	 */
 	public ArrayList<RegionCommand> getCommands() {
+		this.loadBody();
 		return this.COMMANDS;
 	}
 	
 	/**
 	 * Check if a command is enabled in the Region
 	 * @param command The command
-	 * @return true if the command is enabled or not set, false otherwise
+	 * @return true if the command is enabled or not set, false if it's disabled or the Region can't be loaded
 	 */
 	public boolean isCommandEnabled(String command) {
-		RegionCommand regionCommand = getRegionCommand(command);
-		return regionCommand == null ? true : regionCommand.isEnabled();
+		if(!this.checkCommands())
+			return false;
+		Boolean enabled = this.COMMAND_POLICY.get(CommandUtils.getCanonicalName(command));
+		return enabled == null ? true : enabled;
 	}
 	
 	/**
-	 * Get a Region command
+	 * Compile the command values by canonical command name
+	 */
+	private void compileCommands() {
+		int version = CommandUtils.getVersion();
+		HashMap<String, Boolean> policy = new HashMap<String, Boolean>();
+		boolean unresolved = false;
+		for(RegionCommand regionCommand : this.COMMANDS) {
+			String name = CommandUtils.getCanonicalName(regionCommand.getCommand());
+			if(!policy.containsKey(name))
+				policy.put(name, regionCommand.isEnabled());
+			if(!CommandUtils.isValid(regionCommand.getCommand().toLowerCase()))
+				unresolved = true;
+		}
+		this.COMMAND_POLICY = policy;
+		this.COMMAND_VERSION = version;
+		this.COMMAND_UNRESOLVED = unresolved;
+	}
+	
+	/**
+	 * Get a Region command. Aliases and namespaced names of the same command find the same entry
 	 * @param command The command
 	 * @return The RegionCommand for the command if exists, null otherwise
 	 */
 	public RegionCommand getRegionCommand(String command) {
-		for(RegionCommand regionCommand : this.COMMANDS) {
-			if(regionCommand.getCommand().equalsIgnoreCase(command))
-				return regionCommand;
-		}
-		return null;
+		this.loadBody();
+		int index = CommandUtils.indexOf(this.COMMANDS, command);
+		return index >= 0 ? this.COMMANDS.get(index) : null;
 	}
 	
 	/**
@@ -436,13 +941,9 @@ public class Region {
 	 * @param command The Command
 	 */
 	public void enableCommand(String command) {
-		RegionCommand regionCommand = getRegionCommand(command);
-		if(regionCommand != null) {
-			regionCommand.setEnabled(true);
-			this.COMMANDS.set(this.COMMANDS.indexOf(regionCommand), regionCommand);
-		}
-		else
-			this.COMMANDS.add(new RegionCommand(command, true));
+		this.loadBody();
+		CommandUtils.setCommand(this.COMMANDS, command, true);
+		this.COMMAND_POLICY = null;
 	}
 	
 	/**
@@ -450,13 +951,9 @@ public class Region {
 	 * @param command The Command
 	 */
 	public void disableCommand(String command) {
-		RegionCommand regionCommand = getRegionCommand(command);
-		if(regionCommand != null) {
-			regionCommand.setEnabled(false);
-			this.COMMANDS.set(this.COMMANDS.indexOf(regionCommand), regionCommand);
-		}
-		else
-			this.COMMANDS.add(new RegionCommand(command, false));
+		this.loadBody();
+		CommandUtils.setCommand(this.COMMANDS, command, false);
+		this.COMMAND_POLICY = null;
 	}
 	
 	/**
@@ -465,11 +962,8 @@ public class Region {
 	 * @return The VehiclePlace value
 	 */
 	public boolean getVehiclePlace(EnumRegionVehicle vehicle) {
-		for(RegionVehicle v : this.VEHICLES) {
-			if(v.getName().equalsIgnoreCase(vehicle.getName()))
-				return v.getPlace();
-		}
-		return true;
+		this.checkBits();
+		return (this.VEHICLE_PLACE_BITS & 1L << vehicle.ordinal()) != 0L;
 	}
 	
 	/**
@@ -477,9 +971,11 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setAllVehiclePlace(boolean value) {
+		this.loadBody();
 		for(RegionVehicle v : this.VEHICLES) {
 			v.setPlace(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -488,10 +984,12 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setVehiclePlace(EnumRegionVehicle vehicle, boolean value) {
+		this.loadBody();
 		for(RegionVehicle v : this.VEHICLES) {
 			if(v.getName().equalsIgnoreCase(vehicle.getName()))
 				v.setPlace(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -500,11 +998,8 @@ public class Region {
 	 * @return The VehicleDestroy value
 	 */
 	public boolean getVehicleDestroy(EnumRegionVehicle vehicle) {
-		for(RegionVehicle v : this.VEHICLES) {
-			if(v.getName().equalsIgnoreCase(vehicle.getName()))
-				return v.getDestroy();
-		}
-		return true;
+		this.checkBits();
+		return (this.VEHICLE_DESTROY_BITS & 1L << vehicle.ordinal()) != 0L;
 	}
 	
 	/**
@@ -512,9 +1007,11 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setAllVehicleDestroy(boolean value) {
+		this.loadBody();
 		for(RegionVehicle v : this.VEHICLES) {
 			v.setDestroy(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -523,10 +1020,12 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setVehicleDestroy(EnumRegionVehicle vehicle, boolean value) {
+		this.loadBody();
 		for(RegionVehicle v : this.VEHICLES) {
 			if(v.getName().equalsIgnoreCase(vehicle.getName()))
 				v.setDestroy(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -535,11 +1034,8 @@ public class Region {
 	 * @return The damage value of the Explosion
 	 */
 	public boolean getExplosionDamage(EnumRegionExplosion explosion) {
-		for(RegionExplosion e : this.EXPLOSIONS) {
-			if(e.getExplosion().equalsIgnoreCase(explosion.getName()))
-				return e.getDamage();
-		}
-		return true;
+		this.checkBits();
+		return (this.EXPLOSION_DAMAGE_BITS & 1L << explosion.ordinal()) != 0L;
 	}
 	
 	/**
@@ -547,9 +1043,11 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setAllExplosionDamage(boolean value) {
+		this.loadBody();
 		for(RegionExplosion e : this.EXPLOSIONS) {
 			e.setDamage(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -558,10 +1056,12 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setExplosionDamage(EnumRegionExplosion explosion, boolean value) {
+		this.loadBody();
 		for(RegionExplosion e : this.EXPLOSIONS) {
 			if(e.getExplosion().equalsIgnoreCase(explosion.getName()))
 				e.setDamage(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -570,11 +1070,8 @@ public class Region {
 	 * @return The destroy value of the Explosion
 	 */
 	public boolean getExplosionDestroy(EnumRegionExplosion explosion) {
-		for(RegionExplosion e : this.EXPLOSIONS) {
-			if(e.getExplosion().equalsIgnoreCase(explosion.getName()))
-				return e.getDestroy();
-		}
-		return true;
+		this.checkBits();
+		return (this.EXPLOSION_DESTROY_BITS & 1L << explosion.ordinal()) != 0L;
 	}
 	
 	/**
@@ -582,9 +1079,11 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setAllExplosionDestroy(boolean value) {
+		this.loadBody();
 		for(RegionExplosion e : this.EXPLOSIONS) {
 			e.setDestroy(value);
 		}
+		this.invalidateBits();
 	}
 	
 	/**
@@ -593,10 +1092,21 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setExplosionDestroy(EnumRegionExplosion explosion, boolean value) {
+		this.loadBody();
 		for(RegionExplosion e : this.EXPLOSIONS) {
 			if(e.getExplosion().equalsIgnoreCase(explosion.getName()))
 				e.setDestroy(value);
 		}
+		this.invalidateBits();
+	}
+	
+	/**
+	 * Get the spawn value of a Mob in the Region
+	 * @param mob The Mob
+	 * @return the spawn value of the Mob
+	 */
+	public boolean getMobSpawn(EntityType mob) {
+		return this.isMobAllowed(MOB_SPAWN, mob);
 	}
 	
 	/**
@@ -605,6 +1115,7 @@ public class Region {
 	 * @return the spawn value of the Mob
 	 */
 	public boolean getMobSpawn(String mob) {
+		this.loadBody();
 		for(RegionMob m : this.MOBS) {
 			if(m.getMob().equalsIgnoreCase(mob))
 				return m.getSpawn();
@@ -619,16 +1130,37 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setMobSpawn(String mob, boolean value) {
+		this.loadBody();
 		RegionMob rm = null;
 		for(RegionMob m : this.MOBS) {
 			if(m.getMob().equalsIgnoreCase(mob)) {
 				m.setSpawn(value);
+				this.MOB_DENIED = null;
 				return;
 			}
 		}
 		rm = new RegionMob(mob);
 		rm.setSpawn(value);
 		this.MOBS.add(rm);
+		this.MOB_DENIED = null;
+	}
+	
+	/**
+	 * Get the pve value of a Mob in the Region
+	 * @param mob The Mob
+	 * @return The pve value of the Mob
+	 */
+	public boolean getMobPve(EntityType mob) {
+		return this.isMobAllowed(MOB_PVE, mob);
+	}
+	
+	/**
+	 * Get the pve value of the all, allhostile and allpassive subflags for a Mob in the Region
+	 * @param mob The Mob
+	 * @return The pve value of the category of the Mob
+	 */
+	public boolean getMobPveCategory(EntityType mob) {
+		return this.isMobCategoryAllowed(MOB_PVE, mob);
 	}
 	
 	/**
@@ -637,6 +1169,7 @@ public class Region {
 	 * @return The pve value of the Mob
 	 */
 	public boolean getMobPve(String mob) {
+		this.loadBody();
 		for(RegionMob m : this.MOBS) {
 			if(m.getMob().equalsIgnoreCase(mob))
 				return m.getPve();
@@ -650,16 +1183,28 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setMobPve(String mob, boolean value) {
+		this.loadBody();
 		RegionMob rm = null;
 		for(RegionMob m : this.MOBS) {
 			if(m.getMob().equalsIgnoreCase(mob)) {
 				m.setPve(value);
+				this.MOB_DENIED = null;
 				return;
 			}
 		}
 		rm = new RegionMob(mob);
 		rm.setPve(value);
 		this.MOBS.add(rm);
+		this.MOB_DENIED = null;
+	}
+	
+	/**
+	 * Get the damage value of a Mob in the Region
+	 * @param mob The Mob
+	 * @return The damage value of the Mob
+	 */
+	public boolean getMobDamage(EntityType mob) {
+		return this.isMobAllowed(MOB_DAMAGE, mob);
 	}
 	
 	/**
@@ -668,6 +1213,7 @@ public class Region {
 	 * @return The damage value of the Mob
 	 */
 	public boolean getMobDamage(String mob) {
+		this.loadBody();
 		for(RegionMob m : this.MOBS) {
 			if(m.getMob().equalsIgnoreCase(mob))
 				return m.getDamage();
@@ -681,16 +1227,28 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setMobDamage(String mob, boolean value) {
+		this.loadBody();
 		RegionMob rm = null;
 		for(RegionMob m : this.MOBS) {
 			if(m.getMob().equalsIgnoreCase(mob)) {
 				m.setDamage(value);
+				this.MOB_DENIED = null;
 				return;
 			}
 		}
 		rm = new RegionMob(mob);
 		rm.setDamage(value);
 		this.MOBS.add(rm);
+		this.MOB_DENIED = null;
+	}
+	
+	/**
+	 * Get the drop value of a Mob in the Region
+	 * @param mob The Mob
+	 * @return The drop value of the Mob
+	 */
+	public boolean getMobDrop(EntityType mob) {
+		return this.isMobAllowed(MOB_DROP, mob);
 	}
 	
 	/**
@@ -699,6 +1257,7 @@ public class Region {
 	 * @return The drop value of the Mob
 	 */
 	public boolean getMobDrop(String mob) {
+		this.loadBody();
 		for(RegionMob m : this.MOBS) {
 			if(m.getMob().equalsIgnoreCase(mob))
 				return m.getDrop();
@@ -712,16 +1271,19 @@ public class Region {
 	 * @param value The value
 	 */
 	public void setMobDrop(String mob, boolean value) {
+		this.loadBody();
 		RegionMob rm = null;
 		for(RegionMob m : this.MOBS) {
 			if(m.getMob().equalsIgnoreCase(mob)) {
 				m.setDrop(value);
+				this.MOB_DENIED = null;
 				return;
 			}
 		}
 		rm = new RegionMob(mob);
 		rm.setDrop(value);
 		this.MOBS.add(rm);
+		this.MOB_DENIED = null;
 	}
 	
 	/**
@@ -729,7 +1291,9 @@ public class Region {
 	 * @param interact The Interact
 	 */
 	public void setInteracts(ArrayList<RegionInteract> interact) {
+		this.loadBody();
 		this.INTERACTS = interact;
+		this.invalidateBits();
 	}
 	
 	/**
@@ -737,6 +1301,7 @@ public class Region {
 	 * @return The Region Interacts
 	 */
 	public ArrayList<RegionInteract> getInteracts() {
+		this.loadBody();
 		return this.INTERACTS;
 	}
 
@@ -745,6 +1310,7 @@ public class Region {
 	 * @return The Region Vehicles
 	 */
 	public ArrayList<RegionVehicle> getVehicles() {
+		this.loadBody();
 		return this.VEHICLES;
 	}
 
@@ -753,7 +1319,9 @@ public class Region {
 	 * @param vehicles The Vehicles
 	 */
 	public void setVehicles(ArrayList<RegionVehicle> vehicles) {
+		this.loadBody();
 		this.VEHICLES = vehicles;
+		this.invalidateBits();
 	}
 
 	/**
@@ -761,6 +1329,7 @@ public class Region {
 	 * @return The Region Explosions
 	 */
 	public ArrayList<RegionExplosion> getExplosions() {
+		this.loadBody();
 		return this.EXPLOSIONS;
 	}
 
@@ -769,7 +1338,9 @@ public class Region {
 	 * @param explosion The Explosions
 	 */
 	public void setExplosions(ArrayList<RegionExplosion> explosion) {
+		this.loadBody();
 		this.EXPLOSIONS = explosion;
+		this.invalidateBits();
 	}
 
 	/**
@@ -777,6 +1348,7 @@ public class Region {
 	 * @return The Region Mobs
 	 */
 	public ArrayList<RegionMob> getMobs() {
+		this.loadBody();
 		return this.MOBS;
 	}
 	
@@ -785,7 +1357,9 @@ public class Region {
 	 * @param mobs The Mobs
 	 */
 	public void setMobs(ArrayList<RegionMob> mobs) {
+		this.loadBody();
 		this.MOBS = mobs;
+		this.MOB_DENIED = null;
 	}
 	
 	/**
@@ -0,0 +1,169 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.region.components;
+
+import java.util.UUID;
+
+import org.spongepowered.api.world.World;
+
+/**
+ * Region Bounds Class.
+ * Compiled box of a LocalRegion, used for containment tests.
+ * Bounds are immutable, a new one is built when the Region points change.
+ * Only the resolved world is set later, when the world is loaded
+ * @author Jimi
+ *
+ */
+public class RegionBounds {
+	/**
+	 * Minimum block coordinates
+	 */
+	private final int MIN_X;
+	private final int MIN_Y;
+	private final int MIN_Z;
+	/**
+	 * Maximum block coordinates
+	 */
+	private final int MAX_X;
+	private final int MAX_Y;
+	private final int MAX_Z;
+	/**
+	 * World name
+	 */
+	private final String WORLD;
+	/**
+	 * Dimension id
+	 */
+	private final String DIMENSION;
+	/**
+	 * Unique id of the world, null until the world is resolved
+	 */
+	private volatile UUID WORLD_ID;
+	/**
+	 * Whether the resolved world has the dimension of the bounds
+	 */
+	private volatile boolean DIMENSION_MATCH;
+
+	/**
+	 * Region Bounds Constructor
+	 * @param firstPoint The first point
+	 * @param secondPoint The second point
+	 */
+	public RegionBounds(RegionLocation firstPoint, RegionLocation secondPoint) {
+		this.MIN_X = Math.min(firstPoint.getX(), secondPoint.getX());
+		this.MIN_Y = Math.min(firstPoint.getY(), secondPoint.getY());
+		this.MIN_Z = Math.min(firstPoint.getZ(), secondPoint.getZ());
+		this.MAX_X = Math.max(firstPoint.getX(), secondPoint.getX());
+		this.MAX_Y = Math.max(firstPoint.getY(), secondPoint.getY());
+		this.MAX_Z = Math.max(firstPoint.getZ(), secondPoint.getZ());
+		this.WORLD = firstPoint.getWorld();
+		this.DIMENSION = firstPoint.getDimension();
+	}
+
+	/**
+	 * Check if a block is inside the bounds
+	 * @param world The world
+	 * @param x The block X coordinate
+	 * @param y The block Y coordinate
+	 * @param z The block Z coordinate
+	 * @return true if the block is inside the bounds, false otherwise
+	 */
+	public boolean contains(World world, int x, int y, int z) {
+		return x >= this.MIN_X && x <= this.MAX_X && y >= this.MIN_Y && y <= this.MAX_Y && z >= this.MIN_Z && z <= this.MAX_Z
+				&& this.isIn(world);
+	}
+
+	/**
+	 * Check if the bounds are in a world
+	 * @param world The world
+	 * @return true if the bounds world and dimension match the given world, false otherwise
+	 */
+	public boolean isIn(World world) {
+		UUID worldId = this.WORLD_ID;
+		if(worldId != null)
+			return this.DIMENSION_MATCH && worldId.equals(world.getUniqueId());
+		// The world wasn't loaded when the bounds were indexed
+		if(this.WORLD == null || !this.WORLD.equalsIgnoreCase(world.getName()))
+			return false;
+		this.resolve(world);
+		return this.DIMENSION_MATCH;
+	}
+
+	/**
+	 * Resolve the world of the bounds, so containment checks only compare its unique id
+	 * @param world The loaded world with the name of the bounds world
+	 */
+	public void resolve(World world) {
+		this.DIMENSION_MATCH = this.DIMENSION != null && this.DIMENSION.equalsIgnoreCase(world.getDimension().getType().getId());
+		this.WORLD_ID = world.getUniqueId();
+	}
+
+	/**
+	 * Get the minimum X coordinate
+	 * @return The minimum block X coordinate
+	 */
+	public int getMinX() {
+		return this.MIN_X;
+	}
+
+	/**
+	 * Get the minimum Y coordinate
+	 * @return The minimum block Y coordinate
+	 */
+	public int getMinY() {
+		return this.MIN_Y;
+	}
+
+	/**
+	 * Get the minimum Z coordinate
+	 * @return The minimum block Z coordinate
+	 */
+	public int getMinZ() {
+		return this.MIN_Z;
+	}
+
+	/**
+	 * Get the maximum X coordinate
+	 * @return The maximum block X coordinate
+	 */
+	public int getMaxX() {
+		return this.MAX_X;
+	}
+
+	/**
+	 * Get the maximum Y coordinate
+	 * @return The maximum block Y coordinate
+	 */
+	public int getMaxY() {
+		return this.MAX_Y;
+	}
+
+	/**
+	 * Get the maximum Z coordinate
+	 * @return The maximum block Z coordinate
+	 */
+	public int getMaxZ() {
+		return this.MAX_Z;
+	}
+
+	/**
+	 * Get the world name
+	 * @return The name of the Region world
+	 */
+	public String getWorld() {
+		return this.WORLD;
+	}
+
+	/**
+	 * Get the dimension id
+	 * @return The id of the Region dimension
+	 */
+	public String getDimension() {
+		return this.DIMENSION;
+	}
+}
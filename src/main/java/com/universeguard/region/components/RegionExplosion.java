@@ -24,6 +24,18 @@ public class RegionExplosion {
 		this.DAMAGE = explosion.getDamage();
 		this.DESTROY = explosion.getDestroy();
 	}
+	
+	public RegionExplosion(String explosion, boolean damage, boolean destroy) {
+		this.EXPLOSION = explosion;
+		this.DAMAGE = damage;
+		this.DESTROY = destroy;
+	}
+	
+	public RegionExplosion(RegionExplosion explosion) {
+		this.EXPLOSION = explosion.getExplosion();
+		this.DAMAGE = explosion.getDamage();
+		this.DESTROY = explosion.getDestroy();
+	}
 
 	public String getExplosion() {
 		return this.EXPLOSION;
@@ -23,6 +23,16 @@ public class RegionFlag {
 		this.value = flag.getValue();
 	}
 	
+	public RegionFlag(String name, boolean value) {
+		this.name = name;
+		this.value = value;
+	}
+	
+	public RegionFlag(RegionFlag flag) {
+		this.name = flag.getName();
+		this.value = flag.getValue();
+	}
+	
 	public void setName(String name) {
 		this.name = name;
 	}
@@ -23,6 +23,16 @@ public class RegionInteract {
 		this.USE = interact.getValue();
 	}
 	
+	public RegionInteract(String block, boolean use) {
+		this.BLOCK = block;
+		this.USE = use;
+	}
+	
+	public RegionInteract(RegionInteract interact) {
+		this.BLOCK = interact.getBlock();
+		this.USE = interact.isEnabled();
+	}
+	
 
 	public void setBlock(String name) {
 		this.BLOCK = name;
@@ -26,6 +26,14 @@ public class RegionMob {
 		this.DAMAGE = true;
 		this.DROP = true;
 	}
+	
+	public RegionMob(RegionMob mob) {
+		this.MOB = mob.getMob();
+		this.SPAWN = mob.getSpawn();
+		this.PVE = mob.getPve();
+		this.DAMAGE = mob.getDamage();
+		this.DROP = mob.getDrop();
+	}
 
 	public String getMob() {
 		return MOB;
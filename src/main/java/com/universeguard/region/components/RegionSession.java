@@ -0,0 +1,86 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.region.components;
+
+import java.util.UUID;
+
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import com.universeguard.region.Region;
+
+/**
+ * Region Session Class.
+ * Keeps the Region a player has last been resolved into,
+ * the block it has been resolved at and how far the player
+ * can move from that block without changing Region
+ * @author Jimi
+ *
+ */
+public class RegionSession {
+	/**
+	 * The Region the player is in
+	 */
+	private Region REGION;
+	/**
+	 * The world the Region has been resolved in
+	 */
+	private UUID WORLD;
+	/**
+	 * The block the Region has been resolved at
+	 */
+	private int X;
+	private int Y;
+	private int Z;
+	/**
+	 * Version of the Region index the Region has been resolved with
+	 */
+	private long VERSION = -1;
+	/**
+	 * Distance (on the longest axis) from the block a move must be shorter than to keep the same Region
+	 */
+	private int SAFE_DISTANCE;
+
+	/**
+	 * Check if the session Region is still valid for a location
+	 * @param location The location
+	 * @param version The current version of the Region index
+	 * @return true if the location is within the safe distance of the block the Region has been resolved at
+	 * and the index version is the same, false otherwise
+	 */
+	public boolean isWithin(Location<World> location, long version) {
+		return this.REGION != null && this.VERSION == version
+				&& Math.max(Math.abs(location.getBlockX() - this.X), Math.max(Math.abs(location.getBlockY() - this.Y), Math.abs(location.getBlockZ() - this.Z))) < this.SAFE_DISTANCE
+				&& location.getExtent().getUniqueId().equals(this.WORLD);
+	}
+
+	/**
+	 * Update the session
+	 * @param location The location the Region has been resolved at
+	 * @param region The Region
+	 * @param version The current version of the Region index
+	 * @param safeDistance The distance a move must be shorter than to keep the same Region
+	 */
+	public void update(Location<World> location, Region region, long version, int safeDistance) {
+		this.REGION = region;
+		this.WORLD = location.getExtent().getUniqueId();
+		this.X = location.getBlockX();
+		this.Y = location.getBlockY();
+		this.Z = location.getBlockZ();
+		this.VERSION = version;
+		this.SAFE_DISTANCE = safeDistance;
+	}
+
+	/**
+	 * Get the Region the player is in
+	 * @return The Region
+	 */
+	public Region getRegion() {
+		return this.REGION;
+	}
+}
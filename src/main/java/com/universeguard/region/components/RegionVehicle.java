@@ -24,6 +24,18 @@ public class RegionVehicle {
 		this.PLACE = vehicle.getPlace();
 		this.DESTROY = vehicle.getDestroy();
 	}
+	
+	public RegionVehicle(String vehicle, boolean place, boolean destroy) {
+		this.VEHICLE = vehicle;
+		this.PLACE = place;
+		this.DESTROY = destroy;
+	}
+	
+	public RegionVehicle(RegionVehicle vehicle) {
+		this.VEHICLE = vehicle.getName();
+		this.PLACE = vehicle.getPlace();
+		this.DESTROY = vehicle.getDestroy();
+	}
 
 	public String getName() {
 		return VEHICLE;
@@ -13,23 +13,29 @@ package com.universeguard.region.enums;
  *
  */
 public enum EnumRegionExplosion {
-	TNT("tnt", true, true),
-	CREEPER("creeper", true, true),
-	ENDER_CRYSTAL("endercrystal", true, true),
-	FIREBALL("fireball", true, true),
-	ENDERDRAGON("enderdragon", true, true),
-	OTHER_EXPLOSIONS("otherexplosions", true, true);
+	TNT(0, "tnt", true, true),
+	CREEPER(1, "creeper", true, true),
+	ENDER_CRYSTAL(2, "endercrystal", true, true),
+	FIREBALL(3, "fireball", true, true),
+	ENDERDRAGON(4, "enderdragon", true, true),
+	OTHER_EXPLOSIONS(5, "otherexplosions", true, true);
 
+	private int ID;
 	private String NAME;
 	private boolean DAMAGE;
 	private boolean DESTROY;
 	
-	private EnumRegionExplosion(String name, boolean place, boolean destroy) {
+	private EnumRegionExplosion(int id, String name, boolean place, boolean destroy) {
+		this.ID = id;
 		this.NAME = name;
 		this.DAMAGE = place;
 		this.DESTROY = destroy;
 	}
 
+	public int getId() {
+		return this.ID;
+	}
+	
 	public String getName() {
 		return NAME;
 	}
@@ -13,54 +13,60 @@ package com.universeguard.region.enums;
  *
  */
 public enum EnumRegionFlag {
-	PLACE("place", true),
-	DESTROY("destroy", true),
-	PVP("pvp", true),
-	EXP_DROP("expdrop", true),
-	ITEM_DROP("itemdrop", true),
-	ITEM_PICKUP("itempickup", true),
-	ENDERPEARL("enderpearl", true),
-	SLEEP("sleep", true),
-	LIGHTER("lighter", true),
-	CHESTS("chests", false),
-	TRAPPED_CHESTS("trappedchests", false),
-	WATER_FLOW("waterflow", true),
-	LAVA_FLOW("lavaflow", true),
-	OTHER_LIQUIDS_FLOW("otherliquidsflow", true),
-	LEAF_DECAY("leafdecay", true),
-	FIRE_SPREAD("firespread", true),
-	POTION_SPLASH("potionsplash", true),
-	FALL_DAMAGE("falldamage", true),
-	CAN_TP("cantp", true),
-	CAN_SPAWN("canspawn", true),
-	HUNGER("hunger", true),
-	ENDER_CHESTS("enderchests", true),
-	WALL_DAMAGE("walldamage", true),
-	DROWN("drown", true),
-	INVINCIBLE("invincible", false),
-	CACTUS_DAMAGE("cactusdamage", true),
-	FIRE_DAMAGE("firedamage", true),
-	ENDERMAN_GRIEF("endermangrief", true),
-	ENDER_DRAGON_BLOCK_DAMAGE("enderdragonblockdamage", true),
-	HIDE_LOCATIONS("hidelocation", false),
-	HIDE_FLAGS("hideflags", false),
-	HIDE_MEMBERS("hidemembers", false),
-	HIDE_REGION("hideregion", false),
-	ICE_MELT("icemelt", true),
-	EXIT("exit", true),
-	ENTER("enter", true),
-	VINES_GROWTH("vinesgrowth", true),
-	SEND_CHAT("sendchat", true),
-    TRAMPLE("trample", true);
+	PLACE(0, "place", true),
+	DESTROY(1, "destroy", true),
+	PVP(2, "pvp", true),
+	EXP_DROP(3, "expdrop", true),
+	ITEM_DROP(4, "itemdrop", true),
+	ITEM_PICKUP(5, "itempickup", true),
+	ENDERPEARL(6, "enderpearl", true),
+	SLEEP(7, "sleep", true),
+	LIGHTER(8, "lighter", true),
+	CHESTS(9, "chests", false),
+	TRAPPED_CHESTS(10, "trappedchests", false),
+	WATER_FLOW(11, "waterflow", true),
+	LAVA_FLOW(12, "lavaflow", true),
+	OTHER_LIQUIDS_FLOW(13, "otherliquidsflow", true),
+	LEAF_DECAY(14, "leafdecay", true),
+	FIRE_SPREAD(15, "firespread", true),
+	POTION_SPLASH(16, "potionsplash", true),
+	FALL_DAMAGE(17, "falldamage", true),
+	CAN_TP(18, "cantp", true),
+	CAN_SPAWN(19, "canspawn", true),
+	HUNGER(20, "hunger", true),
+	ENDER_CHESTS(21, "enderchests", true),
+	WALL_DAMAGE(22, "walldamage", true),
+	DROWN(23, "drown", true),
+	INVINCIBLE(24, "invincible", false),
+	CACTUS_DAMAGE(25, "cactusdamage", true),
+	FIRE_DAMAGE(26, "firedamage", true),
+	ENDERMAN_GRIEF(27, "endermangrief", true),
+	ENDER_DRAGON_BLOCK_DAMAGE(28, "enderdragonblockdamage", true),
+	HIDE_LOCATIONS(29, "hidelocation", false),
+	HIDE_FLAGS(30, "hideflags", false),
+	HIDE_MEMBERS(31, "hidemembers", false),
+	HIDE_REGION(32, "hideregion", false),
+	ICE_MELT(33, "icemelt", true),
+	EXIT(34, "exit", true),
+	ENTER(35, "enter", true),
+	VINES_GROWTH(36, "vinesgrowth", true),
+	SEND_CHAT(37, "sendchat", true),
+    TRAMPLE(38, "trample", true);
 	
+	private int ID;
 	private String NAME;
 	private boolean VALUE;
 	
-	private EnumRegionFlag(String name, boolean value) {
+	private EnumRegionFlag(int id, String name, boolean value) {
+		this.ID = id;
 		this.NAME = name;
 		this.VALUE = value;
 	}
 	
+	public int getId() {
+		return this.ID;
+	}
+	
 	public String getName() {
 		return this.NAME;
 	}
@@ -13,28 +13,34 @@ package com.universeguard.region.enums;
  *
  */
 public enum EnumRegionInteract {
-	CRAFTING_TABLE("craftingtable", true),
-	ENCHANTING_TABLE("enchantingtable", true),
-	ITEM_FRAME("itemframe", true),
-	ARMOR_STAND("armorstand", true),
-	ANVIL("anvil", true),
-	HOPPER("hopper", true),
-	LEVER("lever", true),
-	BUTTON("button", true),
-	FURNACE("furnace", true),
-	DOOR("door", true),
-	FENCE_GATE("fencegate", true),
-	TRAPDOOR("trapdoor", true),
-	SIGN("sign", true);
+	CRAFTING_TABLE(0, "craftingtable", true),
+	ENCHANTING_TABLE(1, "enchantingtable", true),
+	ITEM_FRAME(2, "itemframe", true),
+	ARMOR_STAND(3, "armorstand", true),
+	ANVIL(4, "anvil", true),
+	HOPPER(5, "hopper", true),
+	LEVER(6, "lever", true),
+	BUTTON(7, "button", true),
+	FURNACE(8, "furnace", true),
+	DOOR(9, "door", true),
+	FENCE_GATE(10, "fencegate", true),
+	TRAPDOOR(11, "trapdoor", true),
+	SIGN(12, "sign", true);
 	
+	private int ID;
 	private String NAME;
 	private boolean VALUE;
 	
-	private EnumRegionInteract(String name, boolean value) {
+	private EnumRegionInteract(int id, String name, boolean value) {
+		this.ID = id;
 		this.NAME = name;
 		this.VALUE = value;
 	}
 	
+	public int getId() {
+		return this.ID;
+	}
+	
 	public String getName() {
 		return this.NAME;
 	}
@@ -13,19 +13,25 @@ package com.universeguard.region.enums;
  *
  */
 public enum EnumRegionVehicle {
-		MINECART("minecart", true, true),
-		BOAT("boat", true, true);
+		MINECART(0, "minecart", true, true),
+		BOAT(1, "boat", true, true);
 
+		private int ID;
 		private String NAME;
 		private boolean PLACE;
 		private boolean DESTROY;
 		
-		private EnumRegionVehicle(String name, boolean place, boolean destroy) {
+		private EnumRegionVehicle(int id, String name, boolean place, boolean destroy) {
+			this.ID = id;
 			this.NAME = name;
 			this.PLACE = place;
 			this.DESTROY = destroy;
 		}
 
+		public int getId() {
+			return this.ID;
+		}
+		
 		public String getName() {
 			return NAME;
 		}
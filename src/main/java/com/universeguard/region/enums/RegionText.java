@@ -30,9 +30,15 @@ public enum RegionText {
 	REGION_SELECTOR_ADDED("Region selector added to your inventory!"),
 	REGION_SAVE_EXCEPTION("Exception saving region. See log for details"),
 	REGION_SAVE_INDEX_EXCEPTION("Exception saving regions index. See log for details"),
-	REGION_WRITER_CLOSE_EXCEPTION("Exception closing region file writer. See log for details"),
-	REGION_WRITER_INDEX_CLOSE_EXCEPTION("Exception closing regions index file writer. See log for details"),
 	REGION_LOAD_EXCEPTION("Exception loading region. See log for details"),
+	REGION_CORRUPT("Skipped corrupt region file. See log for details"),
+	REGION_RECORD_CORRUPT("Moved corrupt region record to regions.corrupt"),
+	REGION_BODY_EXCEPTION("Error while loading a region from the storage, it will be loaded again when used. See log for details"),
+	REGIONS_LOADED("Regions loaded"),
+	REGIONS_INDEXED("Regions indexed"),
+	REGIONS_MIGRATED("Regions migrated"),
+	COMMANDS_REGISTERED("Commands registered"),
+	EVENTS_REGISTERED("Events registered"),
 	REGION_READER_CLOSE_EXCEPTION("Exception closing region file reader. See log for details"),
 	REGION_ADD_MEMBER_EXCEPTION("Exception adding a member to a region. See log for details"),
 	REGION_REMOVE_MEMBER_EXCEPTION("Exception removing a member from a region. See log for details"),
@@ -65,6 +71,19 @@ public enum RegionText {
 	REGION_NOT_REMOVED("Exception removing region. See log for details"),
 	REGION_NOT_FOUND("Region not found!"),
 	REGION_RELOAD("Regions reloaded!"),
+	REGION_EXPORT("Regions exported to JSON files!"),
+	STORAGE_IMPORTING("Importing regions from JSON files into the journal..."),
+	STATS("Region checks statistics"),
+	MOVE_CHECKS("Movement checks"),
+	SKIPPED_MOVE_CHECKS("Movement checks skipped"),
+	EFFECT_PLAYERS("players checked"),
+	EFFECT_APPLIED("updated"),
+	EFFECT_BUDGET("of the tick budget used"),
+	FLAG_LISTENERS("Flag listeners registered"),
+	BODY_CACHE("Region bodies in memory"),
+	BODY_CACHE_HITS("hits"),
+	BODY_CACHE_MISSES("loaded"),
+	BODY_CACHE_EVICTIONS("dropped"),
 	PENDING_REGION("You already have a pending region!"),
 	PENDING_REGION_UPDATED("Pending region updated!"),
 	REGION_GAMEMODE_UPDATED("Region gamemode updated!"),
@@ -129,6 +148,8 @@ public enum RegionText {
     REGION_HELP_REMOVEFAREWELL("Remove the farewell message of a Region"),
     REGION_HELP_REMOVEGREETING("Remove the greeting message of a Region"),
     REGION_HELP_HELP("Shows this help or the flags help"),
+	REGION_HELP_STATS("Show how many region checks have been done and skipped"),
+	REGION_HELP_EXPORT("Write all regions to JSON files"),
 	REGION_FLAG_HELP_PLACE("Sets if non-members can place blocks in the region"),
 	REGION_FLAG_HELP_DESTROY("Sets if non-members can break blocks in the region"),
 	REGION_FLAG_HELP_PVP("Sets if players can pvp in the region"),
@@ -180,7 +201,8 @@ public enum RegionText {
 	NO_PERMISSION_ITEM("You do not have permission to use this item!"),
 	NO_PERMISSION_REGION("You don't have permission to do that!"),
 	NO_PERMISSION_COMMAND("You do not have permission to use this command!"),
-	TEXT_WRONG_SELECTOR_ITEM("Incorrect item id set for Region Selector. Will use: ");
+	TEXT_WRONG_SELECTOR_ITEM("Incorrect item id set for Region Selector. Will use: "),
+	TEXT_WRONG_INTERACT_BLOCK("Incorrect block id set for interact ");
 	
 	private String VALUE;
 	private RegionText(String value) {
@@ -0,0 +1,73 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.region.index;
+
+/**
+ * Chunk Region Stack Class.
+ * Keeps the LocalRegions touching a chunk column sorted by priority,
+ * highest first
+ * @author Jimi
+ *
+ */
+public class ChunkRegionStack {
+	/**
+	 * The entries touching the chunk, highest priority first
+	 */
+	private RegionIndexEntry[] ENTRIES;
+	/**
+	 * If the first entry covers the whole chunk
+	 */
+	private boolean COVERED;
+	/**
+	 * Flags denied by the Regions of the chunk
+	 */
+	private FlagSummary SUMMARY;
+
+	/**
+	 * Chunk Region Stack Constructor
+	 * @param entries The entries touching the chunk, highest priority first
+	 * @param covered If the first entry covers the whole chunk
+	 */
+	public ChunkRegionStack(RegionIndexEntry[] entries, boolean covered) {
+		this.ENTRIES = entries;
+		this.COVERED = covered;
+		this.SUMMARY = new FlagSummary();
+	}
+
+	/**
+	 * Get the flags denied by the Regions of the chunk
+	 * @return The flag summary
+	 */
+	public FlagSummary getSummary() {
+		return this.SUMMARY;
+	}
+
+	/**
+	 * Get the entries touching the chunk
+	 * @return The entries, highest priority first
+	 */
+	public RegionIndexEntry[] getEntries() {
+		return this.ENTRIES;
+	}
+
+	/**
+	 * Check if the chunk is fully covered by the first entry
+	 * @return true if the first entry wins everywhere in the chunk, false otherwise
+	 */
+	public boolean isCovered() {
+		return this.COVERED;
+	}
+
+	/**
+	 * Check if there are no entries touching the chunk
+	 * @return true if there are no entries, false otherwise
+	 */
+	public boolean isEmpty() {
+		return this.ENTRIES.length == 0;
+	}
+}
@@ -0,0 +1,60 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.region.index;
+
+/**
+ * Flag Summary Class.
+ * Keeps which flags are denied by at least one Region of a world or a chunk column,
+ * along with the index and flags versions it has been computed with
+ * @author Jimi
+ *
+ */
+public class FlagSummary {
+	/**
+	 * Denied flags by ordinal
+	 */
+	private long DENIED;
+	/**
+	 * Version of the Region index the summary has been computed with
+	 */
+	private long INDEX_VERSION = -1;
+	/**
+	 * Version of the Region flags the summary has been computed with
+	 */
+	private long FLAGS_VERSION = -1;
+
+	/**
+	 * Check if the summary is up to date
+	 * @param indexVersion The current version of the Region index
+	 * @param flagsVersion The current version of the Region flags
+	 * @return true if the summary has been computed with the same versions, false otherwise
+	 */
+	public boolean isValid(long indexVersion, long flagsVersion) {
+		return this.INDEX_VERSION == indexVersion && this.FLAGS_VERSION == flagsVersion;
+	}
+
+	/**
+	 * Update the summary
+	 * @param denied The denied flags by ordinal
+	 * @param indexVersion The current version of the Region index
+	 * @param flagsVersion The current version of the Region flags
+	 */
+	public void set(long denied, long indexVersion, long flagsVersion) {
+		this.DENIED = denied;
+		this.INDEX_VERSION = indexVersion;
+		this.FLAGS_VERSION = flagsVersion;
+	}
+
+	/**
+	 * Get the denied flags
+	 * @return The denied flags by ordinal
+	 */
+	public long getDenied() {
+		return this.DENIED;
+	}
+}
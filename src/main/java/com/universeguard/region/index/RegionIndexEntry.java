@@ -0,0 +1,183 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.region.index;
+
+import com.universeguard.region.LocalRegion;
+
+/**
+ * Region Index Entry Class.
+ * Keeps the chunk columns a LocalRegion has been indexed into,
+ * so it can be removed even if its points changed after indexing
+ * @author Jimi
+ *
+ */
+public class RegionIndexEntry {
+	/**
+	 * The indexed Region
+	 */
+	private LocalRegion REGION;
+	/**
+	 * The world the Region has been indexed into
+	 */
+	private String WORLD;
+	/**
+	 * Minimum block coordinates
+	 */
+	private int MIN_X;
+	private int MIN_Y;
+	private int MIN_Z;
+	/**
+	 * Maximum block coordinates
+	 */
+	private int MAX_X;
+	private int MAX_Y;
+	private int MAX_Z;
+	/**
+	 * Insertion order, used to resolve Regions with the same priority
+	 * the same way the regions list does (last saved wins)
+	 */
+	private long SEQUENCE;
+
+	/**
+	 * Region Index Entry Constructor
+	 * @param region The Region
+	 * @param world The world key
+	 * @param minX The minimum X coordinate
+	 * @param minY The minimum Y coordinate
+	 * @param minZ The minimum Z coordinate
+	 * @param maxX The maximum X coordinate
+	 * @param maxY The maximum Y coordinate
+	 * @param maxZ The maximum Z coordinate
+	 * @param sequence The insertion order
+	 */
+	public RegionIndexEntry(LocalRegion region, String world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, long sequence) {
+		this.REGION = region;
+		this.WORLD = world;
+		this.MIN_X = minX;
+		this.MIN_Y = minY;
+		this.MIN_Z = minZ;
+		this.MAX_X = maxX;
+		this.MAX_Y = maxY;
+		this.MAX_Z = maxZ;
+		this.SEQUENCE = sequence;
+	}
+
+	/**
+	 * Get the indexed Region
+	 * @return The Region
+	 */
+	public LocalRegion getRegion() {
+		return this.REGION;
+	}
+
+	/**
+	 * Get the world key
+	 * @return The world key
+	 */
+	public String getWorld() {
+		return this.WORLD;
+	}
+
+	/**
+	 * Get the minimum chunk X coordinate
+	 * @return The minimum chunk X coordinate
+	 */
+	public int getMinChunkX() {
+		return this.MIN_X >> 4;
+	}
+
+	/**
+	 * Get the minimum chunk Z coordinate
+	 * @return The minimum chunk Z coordinate
+	 */
+	public int getMinChunkZ() {
+		return this.MIN_Z >> 4;
+	}
+
+	/**
+	 * Get the maximum chunk X coordinate
+	 * @return The maximum chunk X coordinate
+	 */
+	public int getMaxChunkX() {
+		return this.MAX_X >> 4;
+	}
+
+	/**
+	 * Get the maximum chunk Z coordinate
+	 * @return The maximum chunk Z coordinate
+	 */
+	public int getMaxChunkZ() {
+		return this.MAX_Z >> 4;
+	}
+
+	/**
+	 * Get the number of chunk columns covered by the entry
+	 * @return The number of chunk columns
+	 */
+	public long getChunkCount() {
+		return (long) (this.getMaxChunkX() - this.getMinChunkX() + 1) * (long) (this.getMaxChunkZ() - this.getMinChunkZ() + 1);
+	}
+
+	/**
+	 * Check if the entry bounds touch a chunk column
+	 * @param chunkX The chunk X coordinate
+	 * @param chunkZ The chunk Z coordinate
+	 * @return true if the entry touches the chunk column, false otherwise
+	 */
+	public boolean touchesChunk(int chunkX, int chunkZ) {
+		return chunkX >= this.getMinChunkX() && chunkX <= this.getMaxChunkX() && chunkZ >= this.getMinChunkZ() && chunkZ <= this.getMaxChunkZ();
+	}
+
+	/**
+	 * Check if the entry bounds cover a whole chunk column
+	 * @param chunkX The chunk X coordinate
+	 * @param chunkZ The chunk Z coordinate
+	 * @param minY The lowest Y coordinate of the world
+	 * @param maxY The highest Y coordinate of the world
+	 * @return true if every block of the chunk column is inside the entry bounds, false otherwise
+	 */
+	public boolean coversChunk(int chunkX, int chunkZ, int minY, int maxY) {
+		return this.MIN_X <= chunkX << 4 && this.MAX_X >= (chunkX << 4) + 15 && this.MIN_Z <= chunkZ << 4 && this.MAX_Z >= (chunkZ << 4) + 15
+				&& this.MIN_Y <= minY && this.MAX_Y >= maxY;
+	}
+
+	/**
+	 * Check if the entry bounds intersect a box
+	 * @param minX The minimum X coordinate of the box
+	 * @param minY The minimum Y coordinate of the box
+	 * @param minZ The minimum Z coordinate of the box
+	 * @param maxX The maximum X coordinate of the box
+	 * @param maxY The maximum Y coordinate of the box
+	 * @param maxZ The maximum Z coordinate of the box
+	 * @return true if the entry bounds and the box share at least a block, false otherwise
+	 */
+	public boolean intersects(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+		return this.MIN_X <= maxX && this.MAX_X >= minX && this.MIN_Y <= maxY && this.MAX_Y >= minY && this.MIN_Z <= maxZ && this.MAX_Z >= minZ;
+	}
+
+	/**
+	 * Get how far a block can move before it may enter or leave the entry bounds
+	 * @param x The block X coordinate
+	 * @param y The block Y coordinate
+	 * @param z The block Z coordinate
+	 * @return The number of blocks (on the longest axis) a move must be shorter than to stay on the same side of the bounds
+	 */
+	public int getSafeDistance(int x, int y, int z) {
+		if(x >= this.MIN_X && x <= this.MAX_X && y >= this.MIN_Y && y <= this.MAX_Y && z >= this.MIN_Z && z <= this.MAX_Z)
+			return Math.min(Math.min(Math.min(x - this.MIN_X, this.MAX_X - x), Math.min(y - this.MIN_Y, this.MAX_Y - y)), Math.min(z - this.MIN_Z, this.MAX_Z - z)) + 1;
+		return Math.max(Math.max(Math.max(this.MIN_X - x, x - this.MAX_X), Math.max(this.MIN_Y - y, y - this.MAX_Y)), Math.max(this.MIN_Z - z, z - this.MAX_Z));
+	}
+
+	/**
+	 * Get the insertion order
+	 * @return The insertion order
+	 */
+	public long getSequence() {
+		return this.SEQUENCE;
+	}
+}
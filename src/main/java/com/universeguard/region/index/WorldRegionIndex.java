@@ -0,0 +1,250 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.region.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.universeguard.region.GlobalRegion;
+
+/**
+ * World Region Index Class.
+ * Buckets the LocalRegions of a world by the chunk columns they cover
+ * @author Jimi
+ *
+ */
+public class WorldRegionIndex {
+
+	/**
+	 * Regions covering more chunks than this are kept in a separate list
+	 * instead of being copied in every chunk bucket
+	 */
+	public static final long MAX_INDEXED_CHUNKS = 4096;
+	/**
+	 * Resolved chunk columns kept for each world. Chunks are dropped when they unload,
+	 * the limit covers lookups of chunks that are never loaded
+	 */
+	public static final int MAX_CACHED_STACKS = 16384;
+
+	/**
+	 * Regions by chunk column
+	 */
+	private HashMap<Long, ArrayList<RegionIndexEntry>> CHUNKS;
+	/**
+	 * Resolved Regions by chunk column, from the least recently used
+	 */
+	private LinkedHashMap<Long, ChunkRegionStack> STACKS;
+	/**
+	 * Regions too big to be bucketed
+	 */
+	private ArrayList<RegionIndexEntry> LARGE_REGIONS;
+	/**
+	 * All the Regions of the world
+	 */
+	private ArrayList<RegionIndexEntry> ENTRIES;
+	/**
+	 * The GlobalRegion of the world
+	 */
+	private GlobalRegion GLOBAL_REGION;
+	/**
+	 * Flags denied by the Regions of the world
+	 */
+	private FlagSummary SUMMARY;
+
+	/**
+	 * World Region Index Constructor
+	 */
+	public WorldRegionIndex() {
+		this.CHUNKS = new HashMap<Long, ArrayList<RegionIndexEntry>>();
+		this.STACKS = new LinkedHashMap<Long, ChunkRegionStack>(16, 0.75F, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, ChunkRegionStack> eldest) {
+				return this.size() > MAX_CACHED_STACKS;
+			}
+		};
+		this.LARGE_REGIONS = new ArrayList<RegionIndexEntry>();
+		this.ENTRIES = new ArrayList<RegionIndexEntry>();
+		this.SUMMARY = new FlagSummary();
+	}
+
+	/**
+	 * Add an entry to the index
+	 * @param entry The entry
+	 */
+	public void add(RegionIndexEntry entry) {
+		this.invalidate(entry);
+		this.ENTRIES.add(entry);
+		if(entry.getChunkCount() > MAX_INDEXED_CHUNKS) {
+			this.LARGE_REGIONS.add(entry);
+			return;
+		}
+		for(int x = entry.getMinChunkX(); x <= entry.getMaxChunkX(); x++) {
+			for(int z = entry.getMinChunkZ(); z <= entry.getMaxChunkZ(); z++) {
+				Long key = getChunkKey(x, z);
+				ArrayList<RegionIndexEntry> bucket = this.CHUNKS.get(key);
+				if(bucket == null) {
+					bucket = new ArrayList<RegionIndexEntry>(2);
+					this.CHUNKS.put(key, bucket);
+				}
+				bucket.add(entry);
+			}
+		}
+	}
+
+	/**
+	 * Remove an entry from the index
+	 * @param entry The entry
+	 */
+	public void remove(RegionIndexEntry entry) {
+		this.invalidate(entry);
+		this.ENTRIES.remove(entry);
+		if(entry.getChunkCount() > MAX_INDEXED_CHUNKS) {
+			this.LARGE_REGIONS.remove(entry);
+			return;
+		}
+		for(int x = entry.getMinChunkX(); x <= entry.getMaxChunkX(); x++) {
+			for(int z = entry.getMinChunkZ(); z <= entry.getMaxChunkZ(); z++) {
+				Long key = getChunkKey(x, z);
+				ArrayList<RegionIndexEntry> bucket = this.CHUNKS.get(key);
+				if(bucket != null) {
+					bucket.remove(entry);
+					if(bucket.isEmpty())
+						this.CHUNKS.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the entries bucketed in a chunk column
+	 * @param chunkX The chunk X coordinate
+	 * @param chunkZ The chunk Z coordinate
+	 * @return The entries in that chunk column
+	 */
+	public List<RegionIndexEntry> getChunk(int chunkX, int chunkZ) {
+		ArrayList<RegionIndexEntry> bucket = this.CHUNKS.get(getChunkKey(chunkX, chunkZ));
+		return bucket != null ? bucket : Collections.<RegionIndexEntry>emptyList();
+	}
+
+	/**
+	 * Get the resolved Regions of a chunk column
+	 * @param chunkX The chunk X coordinate
+	 * @param chunkZ The chunk Z coordinate
+	 * @return The resolved Regions if cached, null otherwise
+	 */
+	public ChunkRegionStack getStack(int chunkX, int chunkZ) {
+		return this.STACKS.get(getChunkKey(chunkX, chunkZ));
+	}
+
+	/**
+	 * Cache the resolved Regions of a chunk column
+	 * @param chunkX The chunk X coordinate
+	 * @param chunkZ The chunk Z coordinate
+	 * @param stack The resolved Regions
+	 */
+	public void setStack(int chunkX, int chunkZ, ChunkRegionStack stack) {
+		this.STACKS.put(getChunkKey(chunkX, chunkZ), stack);
+	}
+
+	/**
+	 * Drop the resolved Regions of a chunk column
+	 * @param chunkX The chunk X coordinate
+	 * @param chunkZ The chunk Z coordinate
+	 */
+	public void removeStack(int chunkX, int chunkZ) {
+		this.STACKS.remove(getChunkKey(chunkX, chunkZ));
+	}
+
+	/**
+	 * Drop the resolved Regions of every chunk column touched by an entry
+	 * @param entry The entry
+	 */
+	private void invalidate(RegionIndexEntry entry) {
+		if(this.STACKS.isEmpty())
+			return;
+		if(entry.getChunkCount() > this.STACKS.size()) {
+			Iterator<Long> keys = this.STACKS.keySet().iterator();
+			while(keys.hasNext()) {
+				long key = keys.next();
+				if(entry.touchesChunk((int) (key >> 32), (int) key))
+					keys.remove();
+			}
+		}
+		else {
+			for(int x = entry.getMinChunkX(); x <= entry.getMaxChunkX(); x++) {
+				for(int z = entry.getMinChunkZ(); z <= entry.getMaxChunkZ(); z++)
+					this.STACKS.remove(getChunkKey(x, z));
+			}
+		}
+	}
+
+	/**
+	 * Get the entries too big to be bucketed
+	 * @return The large entries
+	 */
+	public List<RegionIndexEntry> getLargeRegions() {
+		return this.LARGE_REGIONS;
+	}
+
+	/**
+	 * Get all the entries of the world
+	 * @return The entries in the index
+	 */
+	public List<RegionIndexEntry> getEntries() {
+		return this.ENTRIES;
+	}
+
+	/**
+	 * Set the GlobalRegion of the world
+	 * @param region The GlobalRegion
+	 */
+	public void setGlobalRegion(GlobalRegion region) {
+		this.GLOBAL_REGION = region;
+	}
+
+	/**
+	 * Get the GlobalRegion of the world
+	 * @return The GlobalRegion if indexed, null otherwise
+	 */
+	public GlobalRegion getGlobalRegion() {
+		return this.GLOBAL_REGION;
+	}
+
+	/**
+	 * Get the flags denied by the Regions of the world
+	 * @return The flag summary
+	 */
+	public FlagSummary getSummary() {
+		return this.SUMMARY;
+	}
+
+	/**
+	 * Check if the index has no Regions
+	 * @return true if there are no Regions in the index, false otherwise
+	 */
+	public boolean isEmpty() {
+		return this.CHUNKS.isEmpty() && this.LARGE_REGIONS.isEmpty() && this.GLOBAL_REGION == null;
+	}
+
+	/**
+	 * Get the key of a chunk column
+	 * @param chunkX The chunk X coordinate
+	 * @param chunkZ The chunk Z coordinate
+	 * @return The chunk key
+	 */
+	public static long getChunkKey(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+}
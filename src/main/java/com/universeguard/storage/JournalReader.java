@@ -0,0 +1,146 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Reader for the records of the journal and snapshot files.
+ * Records are applied in order to the latest record of every Region by key.
+ * Records that can't be read are skipped, only a broken last line of the journal
+ * is considered a record cut by a crash
+ * @author Jimi
+ *
+ */
+public class JournalReader {
+
+	// Latest record of every Region by key
+	private LinkedHashMap<String, String> RECORDS;
+	// Lines of the records that have been skipped, by file
+	private ArrayList<String> SKIPPED = new ArrayList<String>();
+	// Content of the records that have been skipped
+	private ArrayList<String> SKIPPED_RECORDS = new ArrayList<String>();
+	// Whether the last line of the journal has been cut by a crash
+	private boolean TRUNCATED = false;
+
+	/**
+	 * Journal Reader Constructor
+	 * @param records The latest record of every Region by key, updated while reading
+	 */
+	public JournalReader(LinkedHashMap<String, String> records) {
+		this.RECORDS = records;
+	}
+
+	/**
+	 * Read the records of a file and apply them
+	 * @param name The name of the file, used to report the skipped records
+	 * @param reader The reader of the file
+	 * @param journal true if the file is the journal, so a broken last line is a record cut by a crash
+	 * @return The number of lines with a record, including the skipped ones
+	 * @throws IOException If the file can't be read
+	 */
+	public int read(String name, BufferedReader reader, boolean journal) throws IOException {
+		JsonParser parser = new JsonParser();
+		int count = 0;
+		int number = 0;
+		// A broken line is skipped only once there is another record after it
+		int broken = 0;
+		String brokenLine = null;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			number++;
+			if (line.isEmpty())
+				continue;
+			count++;
+			if (broken > 0) {
+				this.skip(name, broken, brokenLine);
+				broken = 0;
+			}
+			JsonObject record;
+			try {
+				record = parser.parse(line).getAsJsonObject();
+			} catch (JsonParseException | IllegalStateException e) {
+				broken = number;
+				brokenLine = line;
+				continue;
+			}
+			String key = getKey(record);
+			if (key == null) {
+				this.skip(name, number, line);
+				continue;
+			}
+			if (record.has("REGION")) {
+				this.RECORDS.remove(key);
+				this.RECORDS.put(key, line);
+			} else
+				this.RECORDS.remove(key);
+		}
+		if (broken > 0) {
+			if (journal)
+				this.TRUNCATED = true;
+			else
+				this.skip(name, broken, brokenLine);
+		}
+		return count;
+	}
+
+	/**
+	 * Skip a record that can't be read
+	 * @param name The name of the file
+	 * @param number The line number of the record
+	 * @param line The record
+	 */
+	private void skip(String name, int number, String line) {
+		this.SKIPPED.add(name + ":" + number);
+		this.SKIPPED_RECORDS.add(line);
+	}
+
+	/**
+	 * Get the records that have been skipped
+	 * @return The file name and the line number of every skipped record
+	 */
+	public ArrayList<String> getSkipped() {
+		return this.SKIPPED;
+	}
+
+	/**
+	 * Get the content of the records that have been skipped
+	 * @return The skipped records, in the order they have been read
+	 */
+	public ArrayList<String> getSkippedRecords() {
+		return this.SKIPPED_RECORDS;
+	}
+
+	/**
+	 * Check if the last line of the journal has been cut by a crash
+	 * @return true if the journal ends with a broken record, false otherwise
+	 */
+	public boolean isTruncated() {
+		return this.TRUNCATED;
+	}
+
+	/**
+	 * Get the key of a record
+	 * @param record The record
+	 * @return The key of the record, null if it has no valid key
+	 */
+	private static String getKey(JsonObject record) {
+		JsonElement key = record.get("FILE");
+		if (key == null || !key.isJsonPrimitive() || !key.getAsJsonPrimitive().isString())
+			return null;
+		return key.getAsString();
+	}
+}
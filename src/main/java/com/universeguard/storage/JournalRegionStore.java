@@ -0,0 +1,329 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import org.spongepowered.api.text.format.TextColors;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.universeguard.UniverseGuard;
+import com.universeguard.region.GlobalRegion;
+import com.universeguard.region.LocalRegion;
+import com.universeguard.region.Region;
+import com.universeguard.region.enums.RegionText;
+import com.universeguard.utils.LogUtils;
+import com.universeguard.utils.RegionStorageUtils;
+import com.universeguard.utils.RegionUtils;
+
+/**
+ * Region storage engine appending every save or removal to a journal file, one record per line.
+ * When the journal grows too much it's compacted into a snapshot file.
+ * The latest record of every Region is kept in memory to compact the journal,
+ * so the bounded memory mode doesn't save the memory used by the Region bodies
+ * @author Jimi
+ *
+ */
+public class JournalRegionStore implements RegionStore {
+
+	// Gson used to write records on a single line
+	private static final Gson GSON = RegionTypeAdapterFactory.builder().create();
+	// Latest record of every saved Region by key. Written by the writer thread after loading
+	private LinkedHashMap<String, String> RECORDS = new LinkedHashMap<String, String>();
+	// Number of records in the journal file
+	private int JOURNAL_SIZE = 0;
+	// Whether records that couldn't be read are still only in the journal, so compacting would lose them
+	private boolean UNREAD = false;
+
+	/**
+	 * Load all Regions from the snapshot and the journal.
+	 * If neither exists, Regions are imported from the JSON files
+	 * @return The list of all Regions
+	 */
+	@Override
+	public ArrayList<Region> load() {
+		RECORDS.clear();
+		JOURNAL_SIZE = 0;
+		UNREAD = false;
+		File snapshot = getSnapshotFile();
+		File journal = getJournalFile();
+		if (!snapshot.exists() && !journal.exists())
+			return importRegions();
+		JournalReader reader = new JournalReader(RECORDS);
+		replay(snapshot, reader, false);
+		JOURNAL_SIZE = replay(journal, reader, true);
+		for (String skipped : reader.getSkipped())
+			LogUtils.print(TextColors.RED, RegionText.REGION_RECORD_CORRUPT.getValue() + ": " + skipped);
+		if (!reader.getSkippedRecords().isEmpty()) {
+			try {
+				saveCorrupt(reader.getSkippedRecords());
+			} catch (IOException e) {
+				LogUtils.log(e);
+				LogUtils.print(TextColors.RED, RegionText.REGION_SAVE_EXCEPTION.getValue());
+				UNREAD = true;
+			}
+		}
+		if (reader.isTruncated() || !reader.getSkipped().isEmpty()) {
+			try {
+				// Rewrite the valid records, so the broken ones aren't read again and new ones aren't appended after them
+				if (!UNREAD)
+					compact();
+				else if (reader.isTruncated())
+					endJournal();
+			} catch (IOException e) {
+				LogUtils.log(e);
+				LogUtils.print(TextColors.RED, RegionText.REGION_SAVE_EXCEPTION.getValue());
+			}
+		}
+		ArrayList<Region> regions = new ArrayList<Region>();
+		for (Entry<String, String> record : RECORDS.entrySet()) {
+			try {
+				Region region = toRegion(record.getKey(), record.getValue());
+				if (region != null)
+					regions.add(region);
+			} catch (JsonParseException | IllegalStateException e) {
+				// The record is kept, so it's not lost when the journal is compacted
+				LogUtils.log(e);
+				LogUtils.print(TextColors.RED, RegionText.REGION_CORRUPT.getValue() + ": " + record.getKey());
+			}
+		}
+		return regions;
+	}
+
+	/**
+	 * Import the Regions from the JSON files and write them as a snapshot
+	 * @return The imported Regions
+	 */
+	private ArrayList<Region> importRegions() {
+		ArrayList<Region> regions = RegionUtils.getJsonRegions();
+		if (regions.isEmpty())
+			return regions;
+		LogUtils.print(RegionText.STORAGE_IMPORTING.getValue());
+		for (Region region : regions) {
+			String key = RegionStorageUtils.getKey(RegionStorageUtils.getFile(region));
+			RECORDS.put(key, toRecord(key, GSON.toJsonTree(region)));
+		}
+		try {
+			compact();
+		} catch (IOException e) {
+			LogUtils.log(e);
+			LogUtils.print(TextColors.RED, RegionText.REGION_SAVE_EXCEPTION.getValue());
+		}
+		return regions;
+	}
+
+	/**
+	 * Read the records of a file in order
+	 * @param file The file
+	 * @param reader The reader applying the records
+	 * @param journal true if the file is the journal, false if it's the snapshot
+	 * @return The number of records read
+	 */
+	private int replay(File file, JournalReader reader, boolean journal) {
+		if (!file.exists())
+			return 0;
+		int count = 0;
+		BufferedReader bufferedReader = null;
+		try {
+			bufferedReader = new BufferedReader(new FileReader(file));
+			count = reader.read(file.getName(), bufferedReader, journal);
+		} catch (IOException e) {
+			LogUtils.log(e);
+			LogUtils.print(TextColors.RED, RegionText.REGION_LOAD_EXCEPTION.getValue());
+		} finally {
+			if (bufferedReader != null) {
+				try {
+					bufferedReader.close();
+				} catch (IOException e) {
+					LogUtils.log(e);
+					LogUtils.print(TextColors.RED, RegionText.REGION_READER_CLOSE_EXCEPTION.getValue());
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Load a Region from its latest record
+	 */
+	@Override
+	public Region load(File file) throws IOException {
+		String record;
+		synchronized (RECORDS) {
+			record = RECORDS.get(RegionStorageUtils.getKey(file));
+		}
+		if (record == null)
+			return null;
+		return toRegion(RegionStorageUtils.getKey(file), record);
+	}
+
+	/**
+	 * Read the Region of a record
+	 * @param key The record key
+	 * @param record The record
+	 * @return The Region of the record
+	 */
+	private Region toRegion(String key, String record) {
+		JsonElement region = new JsonParser().parse(record).getAsJsonObject().get("REGION");
+		return RegionStorageUtils.isLocal(key)
+				? GSON.fromJson(region, LocalRegion.class)
+				: GSON.fromJson(region, GlobalRegion.class);
+	}
+
+	@Override
+	public boolean usesIndex() {
+		return false;
+	}
+
+	/**
+	 * Append saves and removals to the journal, compacting it if needed
+	 */
+	@Override
+	public void write(LinkedHashMap<File, JsonElement> snapshot, JsonElement index) throws IOException {
+		if (snapshot.isEmpty())
+			return;
+		File journal = getJournalFile();
+		File directory = journal.getAbsoluteFile().getParentFile();
+		if (!directory.exists())
+			directory.mkdirs();
+		FileOutputStream stream = new FileOutputStream(journal, true);
+		try {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(stream));
+			for (Entry<File, JsonElement> entry : snapshot.entrySet()) {
+				String key = RegionStorageUtils.getKey(entry.getKey());
+				String record = toRecord(key, entry.getValue());
+				writer.write(record);
+				writer.write('\n');
+				synchronized (RECORDS) {
+					if (entry.getValue() != null)
+						RECORDS.put(key, record);
+					else
+						RECORDS.remove(key);
+				}
+				JOURNAL_SIZE++;
+			}
+			writer.flush();
+			stream.getFD().sync();
+		} finally {
+			stream.close();
+		}
+		if (!UNREAD && JOURNAL_SIZE >= UniverseGuard.JOURNAL_COMPACT_THRESHOLD && JOURNAL_SIZE > RECORDS.size())
+			compact();
+	}
+
+	/**
+	 * Append the records that couldn't be read to the corrupt records file, so they can be fixed by hand
+	 * @param records The records
+	 * @throws IOException If the file can't be written
+	 */
+	private void saveCorrupt(ArrayList<String> records) throws IOException {
+		FileOutputStream stream = new FileOutputStream(getCorruptFile(), true);
+		try {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(stream));
+			for (String record : records) {
+				writer.write(record);
+				writer.write('\n');
+			}
+			writer.flush();
+			stream.getFD().sync();
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * End the broken last line of the journal, so new records start on a line of their own
+	 * @throws IOException If the journal can't be written
+	 */
+	private void endJournal() throws IOException {
+		FileOutputStream stream = new FileOutputStream(getJournalFile(), true);
+		try {
+			stream.write('\n');
+			stream.getFD().sync();
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Write the latest record of every Region to the snapshot and empty the journal
+	 * @throws IOException If the snapshot can't be written
+	 */
+	private void compact() throws IOException {
+		StringBuilder content = new StringBuilder();
+		synchronized (RECORDS) {
+			for (String record : RECORDS.values())
+				content.append(record).append('\n');
+		}
+		RegionStorageUtils.write(getSnapshotFile(), content.toString());
+		// A crash before this point only leaves records already in the snapshot
+		FileOutputStream stream = new FileOutputStream(getJournalFile());
+		try {
+			stream.getFD().sync();
+		} finally {
+			stream.close();
+		}
+		JOURNAL_SIZE = 0;
+	}
+
+	/**
+	 * Build a journal record
+	 * @param key The record key
+	 * @param region The Region, null if the Region has been removed
+	 * @return The record as a single line of JSON
+	 */
+	private String toRecord(String key, JsonElement region) {
+		JsonObject record = new JsonObject();
+		record.addProperty("FILE", key);
+		if (region != null)
+			record.add("REGION", region);
+		return GSON.toJson(record);
+	}
+
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * Get the journal file
+	 * @return The journal file
+	 */
+	public static File getJournalFile() {
+		return new File(RegionUtils.getConfigFolder() + "/regions.journal");
+	}
+
+	/**
+	 * Get the file the records that couldn't be read are moved to
+	 * @return The corrupt records file
+	 */
+	public static File getCorruptFile() {
+		return new File(RegionUtils.getConfigFolder() + "/regions.corrupt");
+	}
+
+	/**
+	 * Get the snapshot file
+	 * @return The snapshot file
+	 */
+	public static File getSnapshotFile() {
+		return new File(RegionUtils.getConfigFolder() + "/regions.snapshot");
+	}
+}
@@ -0,0 +1,99 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import org.spongepowered.api.text.format.TextColors;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.universeguard.region.Region;
+import com.universeguard.region.enums.RegionText;
+import com.universeguard.region.enums.RegionType;
+import com.universeguard.utils.LogUtils;
+import com.universeguard.utils.RegionStorageUtils;
+import com.universeguard.utils.RegionUtils;
+
+/**
+ * Region storage engine saving a JSON file for each Region
+ * and an index file with the ID of every Region name
+ * @author Jimi
+ *
+ */
+public class JsonRegionStore implements RegionStore {
+
+	// Gson used to write Region files
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
+	// Gson used to write Region files in the compact format
+	private static final Gson COMPACT_GSON = new GsonBuilder().serializeNulls().create();
+
+	@Override
+	public ArrayList<Region> load() {
+		return RegionUtils.getJsonRegions();
+	}
+
+	@Override
+	public Region load(File file) throws IOException {
+		if (!file.exists())
+			return null;
+		return RegionUtils.readRegion(file, RegionStorageUtils.isLocal(RegionStorageUtils.getKey(file)) ? RegionType.LOCAL : RegionType.GLOBAL);
+	}
+
+	@Override
+	public boolean usesIndex() {
+		return true;
+	}
+
+	@Override
+	public void write(LinkedHashMap<File, JsonElement> regions, JsonElement index) throws IOException {
+		// The other files are still written, the first failure is thrown at the end
+		IOException failure = null;
+		for(Entry<File, JsonElement> entry : regions.entrySet()) {
+			try {
+				if(entry.getValue() != null)
+					RegionStorageUtils.write(entry.getKey(), getGson().toJson(entry.getValue()));
+				else
+					Files.deleteIfExists(entry.getKey().toPath());
+			} catch (IOException e) {
+				if(failure == null)
+					failure = e;
+				else
+					LogUtils.log(e);
+			}
+		}
+		if(index != null) {
+			try {
+				RegionStorageUtils.write(new File(RegionUtils.getConfigFolder() + "/" + "index.json"), getGson().toJson(index));
+			} catch (IOException e) {
+				LogUtils.log(e);
+				LogUtils.print(TextColors.RED, RegionText.REGION_SAVE_INDEX_EXCEPTION.getValue());
+			}
+		}
+		if(failure != null)
+			throw failure;
+	}
+
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * Get the Gson used to write the files
+	 * @return The Gson for the format set in the configuration
+	 */
+	private static Gson getGson() {
+		return RegionTypeAdapterFactory.isCompact() ? COMPACT_GSON : GSON;
+	}
+}
@@ -0,0 +1,581 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+import org.spongepowered.api.entity.living.player.gamemode.GameModes;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.universeguard.region.GlobalRegion;
+import com.universeguard.region.LocalRegion;
+import com.universeguard.region.Region;
+import com.universeguard.region.components.RegionCommand;
+import com.universeguard.region.components.RegionExplosion;
+import com.universeguard.region.components.RegionFlag;
+import com.universeguard.region.components.RegionInteract;
+import com.universeguard.region.components.RegionLocation;
+import com.universeguard.region.components.RegionMember;
+import com.universeguard.region.components.RegionMob;
+import com.universeguard.region.components.RegionVehicle;
+import com.universeguard.region.enums.EnumRegionExplosion;
+import com.universeguard.region.enums.EnumRegionFlag;
+import com.universeguard.region.enums.EnumRegionInteract;
+import com.universeguard.region.enums.EnumRegionVehicle;
+import com.universeguard.region.enums.RegionType;
+
+/**
+ * Region Type Adapter.
+ * In the compact format flags, interacts, vehicles and explosions are written as
+ * [count, bits...] with the bit of each value at its id, mobs and commands as
+ * objects by name, and fields with their default value are left out.
+ * Values missing from a compact file (like flags added after it has been written)
+ * get their default value. The id of a value is stored in the files, so it must
+ * never change or be reused, and must be lower than 64
+ * @author Jimi
+ *
+ */
+public class RegionAdapter<T extends Region> extends TypeAdapter<T> {
+
+	// Mob capabilities bits in the compact format, set if the capability is denied
+	private static final int MOB_SPAWN = 1;
+	private static final int MOB_PVE = 2;
+	private static final int MOB_DAMAGE = 4;
+	private static final int MOB_DROP = 8;
+
+	// Number of ids of the values in the compact format
+	private static final int FLAG_IDS = getIds(EnumRegionFlag.values(), EnumRegionFlag::getId);
+	private static final int INTERACT_IDS = getIds(EnumRegionInteract.values(), EnumRegionInteract::getId);
+	private static final int VEHICLE_IDS = getIds(EnumRegionVehicle.values(), EnumRegionVehicle::getId);
+	private static final int EXPLOSION_IDS = getIds(EnumRegionExplosion.values(), EnumRegionExplosion::getId);
+
+	// The Region class handled by the adapter
+	private Class<T> TYPE;
+
+	/**
+	 * Region Adapter Constructor
+	 * @param type The Region class
+	 */
+	public RegionAdapter(Class<T> type) {
+		this.TYPE = type;
+	}
+
+	@Override
+	public void write(JsonWriter out, T region) throws IOException {
+		boolean compact = RegionTypeAdapterFactory.isCompact();
+		out.beginObject();
+		if (region instanceof LocalRegion)
+			this.writeLocal(out, (LocalRegion) region, compact);
+		out.name("VERSION").value((Number) Float.valueOf(region.getVersion()));
+		out.name("ID").value(region.getId() != null ? region.getId().toString() : null);
+		out.name("TYPE").value(region.getType() != null ? region.getType().name() : null);
+		out.name("NAME").value(region.getName());
+		if (!compact || (region.getGameMode() != null && !region.getGameMode().equals(GameModes.NOT_SET.getId())))
+			out.name("GAMEMODE").value(region.getGameMode());
+		if (compact) {
+			this.writeCompactFlags(out, region);
+			this.writeCompactMobs(out, region.getMobs());
+			this.writeCompactCommands(out, region.getCommands());
+		} else {
+			writeList(out, "FLAGS", region.getFlags(), RegionTypeAdapterFactory.FLAG);
+			writeList(out, "INTERACTS", region.getInteracts(), RegionTypeAdapterFactory.INTERACT);
+			writeList(out, "VEHICLES", region.getVehicles(), RegionTypeAdapterFactory.VEHICLE);
+			writeList(out, "EXPLOSIONS", region.getExplosions(), RegionTypeAdapterFactory.EXPLOSION);
+			writeList(out, "MOBS", region.getMobs(), RegionTypeAdapterFactory.MOB);
+			writeList(out, "COMMANDS", region.getCommands(), RegionTypeAdapterFactory.COMMAND);
+		}
+		out.endObject();
+	}
+
+	/**
+	 * Write the LocalRegion fields
+	 * @param out The writer
+	 * @param region The LocalRegion
+	 * @param compact true to use the compact format
+	 * @throws IOException If the Region can't be written
+	 */
+	private void writeLocal(JsonWriter out, LocalRegion region, boolean compact) throws IOException {
+		writeLocation(out, "FIRST_POINT", region.getFirstPoint());
+		writeLocation(out, "SECOND_POINT", region.getSecondPoint());
+		if (!compact || region.getPriority() != 0)
+			out.name("PRIORITY").value(region.getPriority());
+		if (!compact || !isSameLocation(region.getTeleportLocation(), region.getFirstPoint()))
+			writeLocation(out, "TELEPORT_LOCATION", region.getTeleportLocation());
+		if (!compact || !isSameLocation(region.getSpawnLocation(), region.getSecondPoint()))
+			writeLocation(out, "SPAWN_LOCATION", region.getSpawnLocation());
+		if (!compact || (region.getMembers() != null && !region.getMembers().isEmpty()))
+			writeList(out, "MEMBERS", region.getMembers(), RegionTypeAdapterFactory.MEMBER);
+		if (!compact || (region.getFarewellMessage() != null && !region.getFarewellMessage().isEmpty()))
+			out.name("FAREWELL_MESSAGE").value(region.getFarewellMessage());
+		if (!compact || (region.getGreetingMessage() != null && !region.getGreetingMessage().isEmpty()))
+			out.name("GREETING_MESSAGE").value(region.getGreetingMessage());
+	}
+
+	/**
+	 * Write flags, interacts, vehicles and explosions as bitsets
+	 * @param out The writer
+	 * @param region The Region
+	 * @throws IOException If the Region can't be written
+	 */
+	private void writeCompactFlags(JsonWriter out, Region region) throws IOException {
+		long flags = 0L;
+		for (EnumRegionFlag flag : EnumRegionFlag.values()) {
+			if (region.getFlag(flag))
+				flags |= 1L << flag.getId();
+		}
+		out.name("FLAGS").beginArray().value(FLAG_IDS).value(flags).endArray();
+		long interacts = 0L;
+		for (EnumRegionInteract interact : EnumRegionInteract.values()) {
+			if (region.getInteract(interact))
+				interacts |= 1L << interact.getId();
+		}
+		out.name("INTERACTS").beginArray().value(INTERACT_IDS).value(interacts).endArray();
+		long place = 0L;
+		long destroy = 0L;
+		for (EnumRegionVehicle vehicle : EnumRegionVehicle.values()) {
+			if (region.getVehiclePlace(vehicle))
+				place |= 1L << vehicle.getId();
+			if (region.getVehicleDestroy(vehicle))
+				destroy |= 1L << vehicle.getId();
+		}
+		out.name("VEHICLES").beginArray().value(VEHICLE_IDS).value(place).value(destroy).endArray();
+		long damage = 0L;
+		destroy = 0L;
+		for (EnumRegionExplosion explosion : EnumRegionExplosion.values()) {
+			if (region.getExplosionDamage(explosion))
+				damage |= 1L << explosion.getId();
+			if (region.getExplosionDestroy(explosion))
+				destroy |= 1L << explosion.getId();
+		}
+		out.name("EXPLOSIONS").beginArray().value(EXPLOSION_IDS).value(damage).value(destroy).endArray();
+	}
+
+	/**
+	 * Write the mobs with a denied capability as {mob: denied capabilities}
+	 * @param out The writer
+	 * @param mobs The mobs
+	 * @throws IOException If the mobs can't be written
+	 */
+	private void writeCompactMobs(JsonWriter out, ArrayList<RegionMob> mobs) throws IOException {
+		if (mobs == null)
+			return;
+		HashSet<String> written = new HashSet<String>();
+		boolean started = false;
+		for (RegionMob mob : mobs) {
+			int denied = (mob.getSpawn() ? 0 : MOB_SPAWN) | (mob.getPve() ? 0 : MOB_PVE) | (mob.getDamage() ? 0 : MOB_DAMAGE) | (mob.getDrop() ? 0 : MOB_DROP);
+			// Mobs are looked up by name, so only the first one counts
+			if (mob.getMob() == null || !written.add(mob.getMob().toLowerCase()) || denied == 0)
+				continue;
+			if (!started) {
+				out.name("MOBS").beginObject();
+				started = true;
+			}
+			out.name(mob.getMob()).value(denied);
+		}
+		if (started)
+			out.endObject();
+	}
+
+	/**
+	 * Write the commands as {command: enabled}
+	 * @param out The writer
+	 * @param commands The commands
+	 * @throws IOException If the commands can't be written
+	 */
+	private void writeCompactCommands(JsonWriter out, ArrayList<RegionCommand> commands) throws IOException {
+		if (commands == null || commands.isEmpty())
+			return;
+		HashSet<String> written = new HashSet<String>();
+		out.name("COMMANDS").beginObject();
+		for (RegionCommand command : commands) {
+			if (command.getCommand() != null && written.add(command.getCommand()))
+				out.name(command.getCommand()).value(command.isEnabled());
+		}
+		out.endObject();
+	}
+
+	/**
+	 * Write a list of components
+	 * @param out The writer
+	 * @param name The field name
+	 * @param list The list
+	 * @param adapter The component adapter
+	 * @throws IOException If the list can't be written
+	 */
+	private static <E> void writeList(JsonWriter out, String name, ArrayList<E> list, TypeAdapter<E> adapter) throws IOException {
+		out.name(name);
+		if (list == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginArray();
+		for (E element : list) {
+			if (element == null)
+				out.nullValue();
+			else
+				adapter.write(out, element);
+		}
+		out.endArray();
+	}
+
+	/**
+	 * Write a location
+	 * @param out The writer
+	 * @param name The field name
+	 * @param location The location
+	 * @throws IOException If the location can't be written
+	 */
+	private static void writeLocation(JsonWriter out, String name, RegionLocation location) throws IOException {
+		out.name(name);
+		if (location == null)
+			out.nullValue();
+		else
+			RegionTypeAdapterFactory.LOCATION.write(out, location);
+	}
+
+	/**
+	 * Check if two locations point to the same block
+	 * @param first The first location
+	 * @param second The second location
+	 * @return true if the locations are the same, false otherwise
+	 */
+	private static boolean isSameLocation(RegionLocation first, RegionLocation second) {
+		if (first == null || second == null)
+			return first == second;
+		return first.getX() == second.getX() && first.getY() == second.getY() && first.getZ() == second.getZ()
+				&& equals(first.getDimension(), second.getDimension()) && equals(first.getWorld(), second.getWorld());
+	}
+
+	/**
+	 * Check if two strings are equal
+	 * @param first The first string
+	 * @param second The second string
+	 * @return true if both are null or equal, false otherwise
+	 */
+	private static boolean equals(String first, String second) {
+		return first == null ? second == null : first.equals(second);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T read(JsonReader in) throws IOException {
+		if (this.TYPE == Region.class) {
+			// The Region class is known only after reading the type
+			JsonElement element = new JsonParser().parse(in);
+			JsonElement type = element.isJsonObject() ? ((JsonObject) element).get("TYPE") : null;
+			if (type != null && !type.isJsonNull() && type.getAsString().equals(RegionType.GLOBAL.name()))
+				return (T) new RegionAdapter<GlobalRegion>(GlobalRegion.class).fromJsonTree(element);
+			return (T) new RegionAdapter<LocalRegion>(LocalRegion.class).fromJsonTree(element);
+		}
+		float version = 0;
+		UUID id = null;
+		RegionType type = null;
+		String name = null;
+		String gamemode = null;
+		ArrayList<RegionFlag> flags = null;
+		ArrayList<RegionInteract> interacts = null;
+		ArrayList<RegionVehicle> vehicles = null;
+		ArrayList<RegionExplosion> explosions = null;
+		ArrayList<RegionMob> mobs = null;
+		ArrayList<RegionCommand> commands = null;
+		RegionLocation firstPoint = null;
+		RegionLocation secondPoint = null;
+		int priority = 0;
+		RegionLocation teleportLocation = null;
+		RegionLocation spawnLocation = null;
+		boolean teleportRead = false;
+		boolean spawnRead = false;
+		ArrayList<RegionMember> members = null;
+		String farewell = null;
+		String greeting = null;
+		in.beginObject();
+		while (in.hasNext()) {
+			String field = in.nextName();
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				// Null locations are kept, so the getters use the Region points
+				if (field.equals("TELEPORT_LOCATION"))
+					teleportRead = true;
+				else if (field.equals("SPAWN_LOCATION"))
+					spawnRead = true;
+				continue;
+			}
+			switch (field) {
+			case "VERSION":
+				version = (float) in.nextDouble();
+				break;
+			case "ID":
+				id = RegionTypeAdapterFactory.nextUUID(in);
+				break;
+			case "TYPE":
+				type = getType(in.nextString());
+				break;
+			case "NAME":
+				name = in.nextString();
+				break;
+			case "GAMEMODE":
+				gamemode = in.nextString();
+				break;
+			case "FLAGS":
+				flags = readFlags(in);
+				break;
+			case "INTERACTS":
+				interacts = readInteracts(in);
+				break;
+			case "VEHICLES":
+				vehicles = readVehicles(in);
+				break;
+			case "EXPLOSIONS":
+				explosions = readExplosions(in);
+				break;
+			case "MOBS":
+				mobs = readMobs(in);
+				break;
+			case "COMMANDS":
+				commands = readCommands(in);
+				break;
+			case "FIRST_POINT":
+				firstPoint = RegionTypeAdapterFactory.LOCATION.read(in);
+				break;
+			case "SECOND_POINT":
+				secondPoint = RegionTypeAdapterFactory.LOCATION.read(in);
+				break;
+			case "PRIORITY":
+				priority = in.nextInt();
+				break;
+			case "TELEPORT_LOCATION":
+				teleportLocation = RegionTypeAdapterFactory.LOCATION.read(in);
+				teleportRead = true;
+				break;
+			case "SPAWN_LOCATION":
+				spawnLocation = RegionTypeAdapterFactory.LOCATION.read(in);
+				spawnRead = true;
+				break;
+			case "MEMBERS":
+				members = readList(in, RegionTypeAdapterFactory.MEMBER);
+				break;
+			case "FAREWELL_MESSAGE":
+				farewell = in.nextString();
+				break;
+			case "GREETING_MESSAGE":
+				greeting = in.nextString();
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+		in.endObject();
+		// The read lists are handed to the Region as they are, without building the default ones
+		Region region;
+		if (this.TYPE == GlobalRegion.class)
+			region = new GlobalRegion(id, name, gamemode, flags, interacts, vehicles, explosions, mobs, commands);
+		else
+			region = new LocalRegion(id, name, gamemode, firstPoint, secondPoint, priority, teleportRead ? teleportLocation : firstPoint,
+					spawnRead ? spawnLocation : secondPoint, members, farewell, greeting, flags, interacts, vehicles, explosions, mobs, commands);
+		region.setVersion(version);
+		if (type != null && type != region.getType())
+			region.setType(type);
+		return (T) region;
+	}
+
+	/**
+	 * Read the flags, as a list or as a bitset
+	 * @param in The reader
+	 * @return The flags
+	 * @throws IOException If the flags can't be read
+	 */
+	private static ArrayList<RegionFlag> readFlags(JsonReader in) throws IOException {
+		long[] bits = readBits(in, 1);
+		if (bits == null)
+			return readList(in, RegionTypeAdapterFactory.FLAG);
+		ArrayList<RegionFlag> flags = new ArrayList<RegionFlag>();
+		for (EnumRegionFlag flag : EnumRegionFlag.values())
+			flags.add(new RegionFlag(flag.getName(), flag.getId() < bits[0] ? (bits[1] & 1L << flag.getId()) != 0 : flag.getValue()));
+		return flags;
+	}
+
+	/**
+	 * Read the interacts, as a list or as a bitset
+	 * @param in The reader
+	 * @return The interacts
+	 * @throws IOException If the interacts can't be read
+	 */
+	private static ArrayList<RegionInteract> readInteracts(JsonReader in) throws IOException {
+		long[] bits = readBits(in, 1);
+		if (bits == null)
+			return readList(in, RegionTypeAdapterFactory.INTERACT);
+		ArrayList<RegionInteract> interacts = new ArrayList<RegionInteract>();
+		for (EnumRegionInteract interact : EnumRegionInteract.values())
+			interacts.add(new RegionInteract(interact.getName(), interact.getId() < bits[0] ? (bits[1] & 1L << interact.getId()) != 0 : interact.getValue()));
+		return interacts;
+	}
+
+	/**
+	 * Read the vehicles, as a list or as bitsets
+	 * @param in The reader
+	 * @return The vehicles
+	 * @throws IOException If the vehicles can't be read
+	 */
+	private static ArrayList<RegionVehicle> readVehicles(JsonReader in) throws IOException {
+		long[] bits = readBits(in, 2);
+		if (bits == null)
+			return readList(in, RegionTypeAdapterFactory.VEHICLE);
+		ArrayList<RegionVehicle> vehicles = new ArrayList<RegionVehicle>();
+		for (EnumRegionVehicle vehicle : EnumRegionVehicle.values()) {
+			boolean known = vehicle.getId() < bits[0];
+			vehicles.add(new RegionVehicle(vehicle.getName(),
+					known ? (bits[1] & 1L << vehicle.getId()) != 0 : vehicle.getPlace(),
+					known ? (bits[2] & 1L << vehicle.getId()) != 0 : vehicle.getDestroy()));
+		}
+		return vehicles;
+	}
+
+	/**
+	 * Read the explosions, as a list or as bitsets
+	 * @param in The reader
+	 * @return The explosions
+	 * @throws IOException If the explosions can't be read
+	 */
+	private static ArrayList<RegionExplosion> readExplosions(JsonReader in) throws IOException {
+		long[] bits = readBits(in, 2);
+		if (bits == null)
+			return readList(in, RegionTypeAdapterFactory.EXPLOSION);
+		ArrayList<RegionExplosion> explosions = new ArrayList<RegionExplosion>();
+		for (EnumRegionExplosion explosion : EnumRegionExplosion.values()) {
+			boolean known = explosion.getId() < bits[0];
+			explosions.add(new RegionExplosion(explosion.getName(),
+					known ? (bits[1] & 1L << explosion.getId()) != 0 : explosion.getDamage(),
+					known ? (bits[2] & 1L << explosion.getId()) != 0 : explosion.getDestroy()));
+		}
+		return explosions;
+	}
+
+	/**
+	 * Read the mobs, as a list or as {mob: denied capabilities}
+	 * @param in The reader
+	 * @return The mobs
+	 * @throws IOException If the mobs can't be read
+	 */
+	private static ArrayList<RegionMob> readMobs(JsonReader in) throws IOException {
+		if (in.peek() != JsonToken.BEGIN_OBJECT)
+			return readList(in, RegionTypeAdapterFactory.MOB);
+		ArrayList<RegionMob> mobs = new ArrayList<RegionMob>();
+		in.beginObject();
+		while (in.hasNext()) {
+			RegionMob mob = new RegionMob(in.nextName());
+			int denied = in.nextInt();
+			mob.setSpawn((denied & MOB_SPAWN) == 0);
+			mob.setPve((denied & MOB_PVE) == 0);
+			mob.setDamage((denied & MOB_DAMAGE) == 0);
+			mob.setDrop((denied & MOB_DROP) == 0);
+			mobs.add(mob);
+		}
+		in.endObject();
+		return mobs;
+	}
+
+	/**
+	 * Read the commands, as a list or as {command: enabled}
+	 * @param in The reader
+	 * @return The commands
+	 * @throws IOException If the commands can't be read
+	 */
+	private static ArrayList<RegionCommand> readCommands(JsonReader in) throws IOException {
+		if (in.peek() != JsonToken.BEGIN_OBJECT)
+			return readList(in, RegionTypeAdapterFactory.COMMAND);
+		ArrayList<RegionCommand> commands = new ArrayList<RegionCommand>();
+		in.beginObject();
+		while (in.hasNext())
+			commands.add(new RegionCommand(in.nextName(), in.nextBoolean()));
+		in.endObject();
+		return commands;
+	}
+
+	/**
+	 * Read a compact bitset field. If the field is a list of objects,
+	 * the array is left open so the list can be read
+	 * @param in The reader
+	 * @param sets The number of bitsets
+	 * @return The count followed by the bitsets, null if the field is a list
+	 * @throws IOException If the field can't be read
+	 */
+	private static long[] readBits(JsonReader in, int sets) throws IOException {
+		in.beginArray();
+		if (in.peek() != JsonToken.NUMBER)
+			return null;
+		long[] bits = new long[sets + 1];
+		for (int i = 0; i <= sets && in.hasNext(); i++)
+			bits[i] = in.nextLong();
+		while (in.hasNext())
+			in.skipValue();
+		in.endArray();
+		return bits;
+	}
+
+	/**
+	 * Read a list of components. The array may have already been opened by readBits
+	 * @param in The reader
+	 * @param adapter The component adapter
+	 * @return The list
+	 * @throws IOException If the list can't be read
+	 */
+	private static <E> ArrayList<E> readList(JsonReader in, TypeAdapter<E> adapter) throws IOException {
+		ArrayList<E> list = new ArrayList<E>();
+		if (in.peek() == JsonToken.BEGIN_ARRAY)
+			in.beginArray();
+		while (in.hasNext()) {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				list.add(null);
+			} else
+				list.add(adapter.read(in));
+		}
+		in.endArray();
+		return list;
+	}
+
+	/**
+	 * Get the number of ids used by the values of an enum
+	 * @param values The values
+	 * @param id The id of a value
+	 * @return The highest id plus one
+	 */
+	private static <E> int getIds(E[] values, ToIntFunction<E> id) {
+		int ids = 0;
+		for (E value : values) {
+			int bit = id.applyAsInt(value);
+			if (bit < 0 || bit >= Long.SIZE)
+				throw new IllegalStateException("Compact id out of range: " + value);
+			ids = Math.max(ids, bit + 1);
+		}
+		return ids;
+	}
+
+	/**
+	 * Get a RegionType from its name
+	 * @param type The name of the RegionType
+	 * @return The RegionType, null if there's no RegionType with that name
+	 */
+	private static RegionType getType(String type) {
+		try {
+			return RegionType.valueOf(type);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
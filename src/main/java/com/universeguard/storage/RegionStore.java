@@ -0,0 +1,60 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import com.google.gson.JsonElement;
+import com.universeguard.region.Region;
+
+/**
+ * Interface for the Region storage engines.
+ * Regions are identified by the JSON file they would have (like "regions/id.json"),
+ * so every engine maps one to one to the JSON files
+ * @author Jimi
+ *
+ */
+public interface RegionStore {
+
+	/**
+	 * Load all the Regions. Called from the main thread while nothing is being written
+	 * @return The list of all Regions
+	 */
+	ArrayList<Region> load();
+
+	/**
+	 * Load a single Region, used to load Region bodies on demand.
+	 * Called from the main thread, even while a batch is being written
+	 * @param file The Region file
+	 * @return The Region, null if it's not stored
+	 * @throws IOException If the Region can't be read
+	 */
+	Region load(File file) throws IOException;
+
+	/**
+	 * Check if the engine needs the name to ID index
+	 * @return true if the index has to be passed to write, false otherwise
+	 */
+	boolean usesIndex();
+
+	/**
+	 * Write a batch of changes. Called from the writer thread
+	 * @param regions The Regions to save by file, null values are Regions to remove
+	 * @param index The name to ID index, null if it didn't change or the engine doesn't use it
+	 * @throws IOException If the changes can't be written
+	 */
+	void write(LinkedHashMap<File, JsonElement> regions, JsonElement index) throws IOException;
+
+	/**
+	 * Release the resources used by the engine
+	 */
+	void close();
+}
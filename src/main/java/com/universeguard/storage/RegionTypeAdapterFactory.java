@@ -0,0 +1,520 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.storage;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.universeguard.UniverseGuard;
+import com.universeguard.region.GlobalRegion;
+import com.universeguard.region.LocalRegion;
+import com.universeguard.region.Region;
+import com.universeguard.region.components.RegionCommand;
+import com.universeguard.region.components.RegionExplosion;
+import com.universeguard.region.components.RegionFlag;
+import com.universeguard.region.components.RegionInteract;
+import com.universeguard.region.components.RegionLocation;
+import com.universeguard.region.components.RegionMember;
+import com.universeguard.region.components.RegionMob;
+import com.universeguard.region.components.RegionVehicle;
+import com.universeguard.region.enums.RegionRole;
+
+/**
+ * Type Adapter Factory for Regions and their components.
+ * Adapters read and write JSON directly instead of using reflection.
+ * They read both the classic and the compact format, and write the compact one
+ * if it's enabled in the configuration
+ * @author Jimi
+ *
+ */
+public class RegionTypeAdapterFactory implements TypeAdapterFactory {
+
+	static final TypeAdapter<RegionFlag> FLAG = new FlagAdapter();
+	static final TypeAdapter<RegionInteract> INTERACT = new InteractAdapter();
+	static final TypeAdapter<RegionVehicle> VEHICLE = new VehicleAdapter();
+	static final TypeAdapter<RegionExplosion> EXPLOSION = new ExplosionAdapter();
+	static final TypeAdapter<RegionMob> MOB = new MobAdapter();
+	static final TypeAdapter<RegionCommand> COMMAND = new CommandAdapter();
+	static final TypeAdapter<RegionMember> MEMBER = new MemberAdapter();
+	static final TypeAdapter<RegionLocation> LOCATION = new LocationAdapter();
+
+	/**
+	 * Get a GsonBuilder with the Region adapters registered
+	 * @return The GsonBuilder
+	 */
+	public static GsonBuilder builder() {
+		return new GsonBuilder().registerTypeAdapterFactory(new RegionTypeAdapterFactory());
+	}
+
+	/**
+	 * Check if Regions should be written in the compact format
+	 * @return true if the compact format is enabled, false otherwise
+	 */
+	static boolean isCompact() {
+		return UniverseGuard.COMPACT_REGIONS;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+		Class<? super T> raw = type.getRawType();
+		if (raw == LocalRegion.class)
+			return (TypeAdapter<T>) new RegionAdapter<LocalRegion>(LocalRegion.class).nullSafe();
+		if (raw == GlobalRegion.class)
+			return (TypeAdapter<T>) new RegionAdapter<GlobalRegion>(GlobalRegion.class).nullSafe();
+		if (raw == Region.class)
+			return (TypeAdapter<T>) new RegionAdapter<Region>(Region.class).nullSafe();
+		if (raw == RegionFlag.class)
+			return (TypeAdapter<T>) FLAG.nullSafe();
+		if (raw == RegionInteract.class)
+			return (TypeAdapter<T>) INTERACT.nullSafe();
+		if (raw == RegionVehicle.class)
+			return (TypeAdapter<T>) VEHICLE.nullSafe();
+		if (raw == RegionExplosion.class)
+			return (TypeAdapter<T>) EXPLOSION.nullSafe();
+		if (raw == RegionMob.class)
+			return (TypeAdapter<T>) MOB.nullSafe();
+		if (raw == RegionCommand.class)
+			return (TypeAdapter<T>) COMMAND.nullSafe();
+		if (raw == RegionMember.class)
+			return (TypeAdapter<T>) MEMBER.nullSafe();
+		if (raw == RegionLocation.class)
+			return (TypeAdapter<T>) LOCATION.nullSafe();
+		return null;
+	}
+
+	/**
+	 * Read a string that can be null
+	 * @param in The reader
+	 * @return The string, null if the value is null
+	 * @throws IOException If the value can't be read
+	 */
+	static String nextString(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		return in.nextString();
+	}
+
+	/**
+	 * Read an UUID that can be null
+	 * @param in The reader
+	 * @return The UUID, null if the value is null
+	 * @throws IOException If the value can't be read
+	 */
+	static UUID nextUUID(JsonReader in) throws IOException {
+		String value = nextString(in);
+		try {
+			return value != null ? UUID.fromString(value) : null;
+		} catch (IllegalArgumentException e) {
+			throw new JsonSyntaxException(e);
+		}
+	}
+
+	/**
+	 * Read a boolean that can be null
+	 * @param in The reader
+	 * @return The boolean, false if the value is null
+	 * @throws IOException If the value can't be read
+	 */
+	static boolean nextBoolean(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return false;
+		}
+		return in.nextBoolean();
+	}
+
+	/**
+	 * Flag Adapter. Written as {"name": name, "value": value}
+	 */
+	private static class FlagAdapter extends TypeAdapter<RegionFlag> {
+		@Override
+		public void write(JsonWriter out, RegionFlag flag) throws IOException {
+			out.beginObject();
+			out.name("name").value(flag.getName());
+			out.name("value").value(flag.getValue());
+			out.endObject();
+		}
+
+		@Override
+		public RegionFlag read(JsonReader in) throws IOException {
+			String name = null;
+			boolean value = false;
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "name":
+					name = nextString(in);
+					break;
+				case "value":
+					value = nextBoolean(in);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return new RegionFlag(name, value);
+		}
+	}
+
+	/**
+	 * Interact Adapter. Written as {"BLOCK": block, "USE": use}
+	 */
+	private static class InteractAdapter extends TypeAdapter<RegionInteract> {
+		@Override
+		public void write(JsonWriter out, RegionInteract interact) throws IOException {
+			out.beginObject();
+			out.name("BLOCK").value(interact.getBlock());
+			out.name("USE").value(interact.isEnabled());
+			out.endObject();
+		}
+
+		@Override
+		public RegionInteract read(JsonReader in) throws IOException {
+			String block = null;
+			boolean use = false;
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "BLOCK":
+					block = nextString(in);
+					break;
+				case "USE":
+					use = nextBoolean(in);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return new RegionInteract(block, use);
+		}
+	}
+
+	/**
+	 * Vehicle Adapter. Written as {"VEHICLE": vehicle, "PLACE": place, "DESTROY": destroy}
+	 */
+	private static class VehicleAdapter extends TypeAdapter<RegionVehicle> {
+		@Override
+		public void write(JsonWriter out, RegionVehicle vehicle) throws IOException {
+			out.beginObject();
+			out.name("VEHICLE").value(vehicle.getName());
+			out.name("PLACE").value(vehicle.getPlace());
+			out.name("DESTROY").value(vehicle.getDestroy());
+			out.endObject();
+		}
+
+		@Override
+		public RegionVehicle read(JsonReader in) throws IOException {
+			String vehicle = null;
+			boolean place = false;
+			boolean destroy = false;
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "VEHICLE":
+					vehicle = nextString(in);
+					break;
+				case "PLACE":
+					place = nextBoolean(in);
+					break;
+				case "DESTROY":
+					destroy = nextBoolean(in);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return new RegionVehicle(vehicle, place, destroy);
+		}
+	}
+
+	/**
+	 * Explosion Adapter. Written as {"EXPLOSION": explosion, "DAMAGE": damage, "DESTROY": destroy}
+	 */
+	private static class ExplosionAdapter extends TypeAdapter<RegionExplosion> {
+		@Override
+		public void write(JsonWriter out, RegionExplosion explosion) throws IOException {
+			out.beginObject();
+			out.name("EXPLOSION").value(explosion.getExplosion());
+			out.name("DAMAGE").value(explosion.getDamage());
+			out.name("DESTROY").value(explosion.getDestroy());
+			out.endObject();
+		}
+
+		@Override
+		public RegionExplosion read(JsonReader in) throws IOException {
+			String explosion = null;
+			boolean damage = false;
+			boolean destroy = false;
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "EXPLOSION":
+					explosion = nextString(in);
+					break;
+				case "DAMAGE":
+					damage = nextBoolean(in);
+					break;
+				case "DESTROY":
+					destroy = nextBoolean(in);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return new RegionExplosion(explosion, damage, destroy);
+		}
+	}
+
+	/**
+	 * Mob Adapter. Written as {"MOB": mob, "SPAWN": spawn, "PVE": pve, "DAMAGE": damage, "DROP": drop}
+	 */
+	private static class MobAdapter extends TypeAdapter<RegionMob> {
+		@Override
+		public void write(JsonWriter out, RegionMob mob) throws IOException {
+			out.beginObject();
+			out.name("MOB").value(mob.getMob());
+			out.name("SPAWN").value(mob.getSpawn());
+			out.name("PVE").value(mob.getPve());
+			out.name("DAMAGE").value(mob.getDamage());
+			out.name("DROP").value(mob.getDrop());
+			out.endObject();
+		}
+
+		@Override
+		public RegionMob read(JsonReader in) throws IOException {
+			RegionMob mob = new RegionMob("");
+			mob.setSpawn(false);
+			mob.setPve(false);
+			mob.setDamage(false);
+			mob.setDrop(false);
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "MOB":
+					String name = nextString(in);
+					if (name != null)
+						mob.setMob(name);
+					break;
+				case "SPAWN":
+					mob.setSpawn(nextBoolean(in));
+					break;
+				case "PVE":
+					mob.setPve(nextBoolean(in));
+					break;
+				case "DAMAGE":
+					mob.setDamage(nextBoolean(in));
+					break;
+				case "DROP":
+					mob.setDrop(nextBoolean(in));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return mob;
+		}
+	}
+
+	/**
+	 * Command Adapter. Written as {"COMMAND": command, "ENABLED": enabled}
+	 */
+	private static class CommandAdapter extends TypeAdapter<RegionCommand> {
+		@Override
+		public void write(JsonWriter out, RegionCommand command) throws IOException {
+			out.beginObject();
+			out.name("COMMAND").value(command.getCommand());
+			out.name("ENABLED").value(command.isEnabled());
+			out.endObject();
+		}
+
+		@Override
+		public RegionCommand read(JsonReader in) throws IOException {
+			String command = null;
+			boolean enabled = false;
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "COMMAND":
+					command = nextString(in);
+					break;
+				case "ENABLED":
+					enabled = nextBoolean(in);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return new RegionCommand(command, enabled);
+		}
+	}
+
+	/**
+	 * Member Adapter. Written as {"UUID": uuid, "USERNAME": username, "ROLE": role},
+	 * or as [uuid, username, role] in the compact format
+	 */
+	private static class MemberAdapter extends TypeAdapter<RegionMember> {
+		@Override
+		public void write(JsonWriter out, RegionMember member) throws IOException {
+			String uuid = member.getUUID() != null ? member.getUUID().toString() : null;
+			String role = member.getRole() != null ? member.getRole().name() : null;
+			if (isCompact()) {
+				out.beginArray();
+				out.value(uuid);
+				out.value(member.getUsername());
+				out.value(role);
+				out.endArray();
+				return;
+			}
+			out.beginObject();
+			out.name("UUID").value(uuid);
+			out.name("USERNAME").value(member.getUsername());
+			out.name("ROLE").value(role);
+			out.endObject();
+		}
+
+		@Override
+		public RegionMember read(JsonReader in) throws IOException {
+			UUID uuid = null;
+			String username = null;
+			String role = null;
+			if (in.peek() == JsonToken.BEGIN_ARRAY) {
+				in.beginArray();
+				uuid = nextUUID(in);
+				username = nextString(in);
+				role = nextString(in);
+				while (in.hasNext())
+					in.skipValue();
+				in.endArray();
+			} else {
+				in.beginObject();
+				while (in.hasNext()) {
+					switch (in.nextName()) {
+					case "UUID":
+						uuid = nextUUID(in);
+						break;
+					case "USERNAME":
+						username = nextString(in);
+						break;
+					case "ROLE":
+						role = nextString(in);
+						break;
+					default:
+						in.skipValue();
+					}
+				}
+				in.endObject();
+			}
+			return new RegionMember(uuid, username, getRole(role));
+		}
+
+		/**
+		 * Get a Role from its name
+		 * @param role The name of the Role
+		 * @return The Role, null if there's no Role with that name
+		 */
+		private static RegionRole getRole(String role) {
+			if (role == null)
+				return null;
+			try {
+				return RegionRole.valueOf(role);
+			} catch (IllegalArgumentException e) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Location Adapter. Written as {"x": x, "y": y, "z": z, "dimension": dimension, "world": world},
+	 * or as [x, y, z, dimension, world] in the compact format
+	 */
+	private static class LocationAdapter extends TypeAdapter<RegionLocation> {
+		@Override
+		public void write(JsonWriter out, RegionLocation location) throws IOException {
+			if (isCompact()) {
+				out.beginArray();
+				out.value(location.getX());
+				out.value(location.getY());
+				out.value(location.getZ());
+				out.value(location.getDimension());
+				out.value(location.getWorld());
+				out.endArray();
+				return;
+			}
+			out.beginObject();
+			out.name("x").value(location.getX());
+			out.name("y").value(location.getY());
+			out.name("z").value(location.getZ());
+			out.name("dimension").value(location.getDimension());
+			out.name("world").value(location.getWorld());
+			out.endObject();
+		}
+
+		@Override
+		public RegionLocation read(JsonReader in) throws IOException {
+			int x = 0;
+			int y = 0;
+			int z = 0;
+			String dimension = null;
+			String world = null;
+			if (in.peek() == JsonToken.BEGIN_ARRAY) {
+				in.beginArray();
+				x = in.nextInt();
+				y = in.nextInt();
+				z = in.nextInt();
+				dimension = nextString(in);
+				world = nextString(in);
+				while (in.hasNext())
+					in.skipValue();
+				in.endArray();
+			} else {
+				in.beginObject();
+				while (in.hasNext()) {
+					switch (in.nextName()) {
+					case "x":
+						x = in.nextInt();
+						break;
+					case "y":
+						y = in.nextInt();
+						break;
+					case "z":
+						z = in.nextInt();
+						break;
+					case "dimension":
+						dimension = nextString(in);
+						break;
+					case "world":
+						world = nextString(in);
+						break;
+					default:
+						in.skipValue();
+					}
+				}
+				in.endObject();
+			}
+			return new RegionLocation(x, y, z, dimension, world);
+		}
+	}
+}
@@ -0,0 +1,411 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.service.sql.SqlService;
+import org.spongepowered.api.text.format.TextColors;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.universeguard.UniverseGuard;
+import com.universeguard.region.GlobalRegion;
+import com.universeguard.region.LocalRegion;
+import com.universeguard.region.Region;
+import com.universeguard.region.enums.RegionText;
+import com.universeguard.utils.LogUtils;
+import com.universeguard.utils.RegionStorageUtils;
+import com.universeguard.utils.RegionUtils;
+
+/**
+ * Region storage engine saving Regions in an embedded H2 database,
+ * provided by the Sponge SqlService.
+ * Flags, members and mobs have a row each, so editing one of them
+ * only updates that row
+ * @author Jimi
+ *
+ */
+public class SqlRegionStore implements RegionStore {
+
+	// Gson used to write rows
+	private static final Gson GSON = RegionTypeAdapterFactory.builder().create();
+	// Tables with a row for each element of a Region list: table, list field, element key field
+	private static final String[][] LISTS = {
+		{ "REGION_FLAGS", "FLAGS", "name" },
+		{ "REGION_MEMBERS", "MEMBERS", "UUID" },
+		{ "REGION_MOBS", "MOBS", "MOB" }
+	};
+	// The database
+	private DataSource DATA_SOURCE;
+	// Rows written for every Region by key. Owned by the writer thread after loading
+	private HashMap<String, RegionRows> ROWS = new HashMap<String, RegionRows>();
+
+	@Override
+	public ArrayList<Region> load() {
+		ROWS.clear();
+		boolean exists = getDatabaseFile().exists();
+		LinkedHashMap<String, JsonObject> regions = new LinkedHashMap<String, JsonObject>();
+		try (Connection connection = getConnection()) {
+			createTables(connection);
+			if (!exists)
+				return importRegions();
+			JsonParser parser = new JsonParser();
+			try (Statement statement = connection.createStatement();
+					ResultSet result = statement.executeQuery("SELECT FILE, BODY FROM REGIONS")) {
+				while (result.next()) {
+					RegionRows rows = new RegionRows();
+					rows.BODY = result.getString(2);
+					ROWS.put(result.getString(1), rows);
+					regions.put(result.getString(1), parser.parse(rows.BODY).getAsJsonObject());
+				}
+			}
+			for (int i = 0; i < LISTS.length; i++) {
+				try (Statement statement = connection.createStatement();
+						ResultSet result = statement.executeQuery("SELECT FILE, DATA, POS FROM " + LISTS[i][0] + " ORDER BY FILE, POS")) {
+					while (result.next()) {
+						RegionRows rows = ROWS.get(result.getString(1));
+						JsonObject region = regions.get(result.getString(1));
+						if (rows == null || region == null)
+							continue;
+						JsonElement element = parser.parse(result.getString(2));
+						// Rows written before positions were stored have no data, so they are written again on the next save
+						result.getInt(3);
+						rows.LISTS[i].put(element.getAsJsonObject().get(LISTS[i][2]).getAsString(), result.wasNull() ? null : result.getString(2));
+						if (!region.has(LISTS[i][1]))
+							region.add(LISTS[i][1], new JsonArray());
+						region.getAsJsonArray(LISTS[i][1]).add(element);
+					}
+				}
+			}
+		} catch (SQLException e) {
+			LogUtils.log(e);
+			LogUtils.print(TextColors.RED, RegionText.REGION_LOAD_EXCEPTION.getValue());
+		}
+		ArrayList<Region> loaded = new ArrayList<Region>();
+		for (Entry<String, JsonObject> entry : regions.entrySet()) {
+			// Missing lists get their default value
+			Region region = RegionStorageUtils.isLocal(entry.getKey())
+					? GSON.fromJson(entry.getValue(), LocalRegion.class)
+					: GSON.fromJson(entry.getValue(), GlobalRegion.class);
+			if (region != null)
+				loaded.add(region);
+		}
+		return loaded;
+	}
+
+	/**
+	 * Load a Region from its rows
+	 */
+	@Override
+	public Region load(File file) throws IOException {
+		String key = RegionStorageUtils.getKey(file);
+		JsonObject region;
+		try (Connection connection = getConnection()) {
+			JsonParser parser = new JsonParser();
+			try (PreparedStatement statement = connection.prepareStatement("SELECT BODY FROM REGIONS WHERE FILE = ?")) {
+				statement.setString(1, key);
+				try (ResultSet result = statement.executeQuery()) {
+					if (!result.next())
+						return null;
+					region = parser.parse(result.getString(1)).getAsJsonObject();
+				}
+			}
+			for (int i = 0; i < LISTS.length; i++) {
+				try (PreparedStatement statement = connection.prepareStatement("SELECT DATA FROM " + LISTS[i][0] + " WHERE FILE = ? ORDER BY POS")) {
+					statement.setString(1, key);
+					try (ResultSet result = statement.executeQuery()) {
+						while (result.next()) {
+							if (!region.has(LISTS[i][1]))
+								region.add(LISTS[i][1], new JsonArray());
+							region.getAsJsonArray(LISTS[i][1]).add(parser.parse(result.getString(1)));
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			throw new IOException(e);
+		}
+		return RegionStorageUtils.isLocal(key) ? GSON.fromJson(region, LocalRegion.class) : GSON.fromJson(region, GlobalRegion.class);
+	}
+
+	/**
+	 * Import the Regions from the JSON files into the new database
+	 * @return The imported Regions
+	 */
+	private ArrayList<Region> importRegions() {
+		ArrayList<Region> regions = RegionUtils.getJsonRegions();
+		if (regions.isEmpty())
+			return regions;
+		LogUtils.print(RegionText.STORAGE_IMPORTING.getValue());
+		LinkedHashMap<File, JsonElement> snapshot = new LinkedHashMap<File, JsonElement>();
+		for (Region region : regions)
+			snapshot.put(RegionStorageUtils.getFile(region), GSON.toJsonTree(region));
+		try {
+			this.write(snapshot, null);
+		} catch (IOException e) {
+			LogUtils.log(e);
+			LogUtils.print(TextColors.RED, RegionText.REGION_SAVE_EXCEPTION.getValue());
+		}
+		return regions;
+	}
+
+	@Override
+	public boolean usesIndex() {
+		return false;
+	}
+
+	/**
+	 * Write the changed rows of every Region in a single transaction
+	 */
+	@Override
+	public void write(LinkedHashMap<File, JsonElement> regions, JsonElement index) throws IOException {
+		if (regions.isEmpty())
+			return;
+		HashMap<String, RegionRows> written = new HashMap<String, RegionRows>();
+		try (Connection connection = getConnection()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement mergeRegion = connection.prepareStatement("MERGE INTO REGIONS (FILE, ID, NAME, BODY) KEY (FILE) VALUES (?, ?, ?, ?)");
+					PreparedStatement deleteRegion = connection.prepareStatement("DELETE FROM REGIONS WHERE FILE = ?")) {
+				PreparedStatement[] mergeRows = new PreparedStatement[LISTS.length];
+				PreparedStatement[] deleteRows = new PreparedStatement[LISTS.length];
+				PreparedStatement[] clearRows = new PreparedStatement[LISTS.length];
+				try {
+					for (int i = 0; i < LISTS.length; i++) {
+						mergeRows[i] = connection.prepareStatement("MERGE INTO " + LISTS[i][0] + " (FILE, NAME, POS, DATA) KEY (FILE, NAME) VALUES (?, ?, ?, ?)");
+						deleteRows[i] = connection.prepareStatement("DELETE FROM " + LISTS[i][0] + " WHERE FILE = ? AND NAME = ?");
+						clearRows[i] = connection.prepareStatement("DELETE FROM " + LISTS[i][0] + " WHERE FILE = ?");
+					}
+					for (Entry<File, JsonElement> entry : regions.entrySet()) {
+						String key = RegionStorageUtils.getKey(entry.getKey());
+						if (entry.getValue() == null || !entry.getValue().isJsonObject()) {
+							deleteRegion.setString(1, key);
+							deleteRegion.addBatch();
+							for (int i = 0; i < LISTS.length; i++) {
+								clearRows[i].setString(1, key);
+								clearRows[i].addBatch();
+							}
+							written.put(key, null);
+							continue;
+						}
+						RegionRows old = ROWS.get(key);
+						RegionRows rows = new RegionRows(entry.getValue().getAsJsonObject());
+						if (old == null || !old.BODY.equals(rows.BODY)) {
+							JsonObject region = entry.getValue().getAsJsonObject();
+							mergeRegion.setString(1, key);
+							mergeRegion.setString(2, region.has("ID") && !region.get("ID").isJsonNull() ? region.get("ID").getAsString() : null);
+							mergeRegion.setString(3, region.has("NAME") && !region.get("NAME").isJsonNull() ? region.get("NAME").getAsString() : null);
+							mergeRegion.setString(4, rows.BODY);
+							mergeRegion.addBatch();
+						}
+						for (int i = 0; i < LISTS.length; i++) {
+							HashMap<String, Integer> oldPositions = old != null ? getPositions(old.LISTS[i]) : null;
+							int position = 0;
+							for (Entry<String, String> row : rows.LISTS[i].entrySet()) {
+								if (old == null || !row.getValue().equals(old.LISTS[i].get(row.getKey()))
+										|| oldPositions.get(row.getKey()) != position) {
+									mergeRows[i].setString(1, key);
+									mergeRows[i].setString(2, row.getKey());
+									mergeRows[i].setInt(3, position);
+									mergeRows[i].setString(4, row.getValue());
+									mergeRows[i].addBatch();
+								}
+								position++;
+							}
+							if (old != null) {
+								for (String name : old.LISTS[i].keySet()) {
+									if (!rows.LISTS[i].containsKey(name)) {
+										deleteRows[i].setString(1, key);
+										deleteRows[i].setString(2, name);
+										deleteRows[i].addBatch();
+									}
+								}
+							}
+						}
+						written.put(key, rows);
+					}
+					deleteRegion.executeBatch();
+					mergeRegion.executeBatch();
+					for (int i = 0; i < LISTS.length; i++) {
+						clearRows[i].executeBatch();
+						deleteRows[i].executeBatch();
+						mergeRows[i].executeBatch();
+					}
+				} finally {
+					for (int i = 0; i < LISTS.length; i++) {
+						if (mergeRows[i] != null)
+							mergeRows[i].close();
+						if (deleteRows[i] != null)
+							deleteRows[i].close();
+						if (clearRows[i] != null)
+							clearRows[i].close();
+					}
+				}
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+		} catch (SQLException e) {
+			throw new IOException(e);
+		}
+		// Only remember the rows once they are committed
+		for (Entry<String, RegionRows> entry : written.entrySet()) {
+			if (entry.getValue() != null)
+				ROWS.put(entry.getKey(), entry.getValue());
+			else
+				ROWS.remove(entry.getKey());
+		}
+	}
+
+	/**
+	 * Get the position of the rows of a list
+	 * @param rows The rows, in order
+	 * @return The position of every row by name
+	 */
+	private static HashMap<String, Integer> getPositions(LinkedHashMap<String, String> rows) {
+		HashMap<String, Integer> positions = new HashMap<String, Integer>();
+		for (String name : rows.keySet())
+			positions.put(name, positions.size());
+		return positions;
+	}
+
+	@Override
+	public synchronized void close() {
+		DATA_SOURCE = null;
+	}
+
+	/**
+	 * Create the tables if they don't exist
+	 * @param connection The connection
+	 * @throws SQLException If the tables can't be created
+	 */
+	private void createTables(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE IF NOT EXISTS REGIONS (FILE VARCHAR(255) PRIMARY KEY, ID VARCHAR(36), NAME VARCHAR(255), BODY CLOB)");
+			statement.execute("CREATE INDEX IF NOT EXISTS REGIONS_NAME ON REGIONS (NAME)");
+			for (String[] list : LISTS) {
+				statement.execute("CREATE TABLE IF NOT EXISTS " + list[0] + " (FILE VARCHAR(255), NAME VARCHAR(255), POS INT, DATA VARCHAR(4096), PRIMARY KEY (FILE, NAME))");
+				// Databases created before the position of the rows was stored
+				statement.execute("ALTER TABLE " + list[0] + " ADD COLUMN IF NOT EXISTS POS INT");
+				statement.execute("CREATE INDEX IF NOT EXISTS " + list[0] + "_NAME ON " + list[0] + " (NAME)");
+			}
+		}
+	}
+
+	/**
+	 * Get a connection to the database
+	 * @return The connection
+	 * @throws SQLException If the database can't be opened
+	 */
+	private synchronized Connection getConnection() throws SQLException {
+		if (DATA_SOURCE == null) {
+			Optional<SqlService> service = Sponge.getServiceManager().provide(SqlService.class);
+			if (!service.isPresent())
+				throw new SQLException("No SqlService available");
+			String path = getDatabaseFile().getAbsolutePath();
+			DATA_SOURCE = service.get().getDataSource(UniverseGuard.INSTANCE, "jdbc:h2:" + path.substring(0, path.length() - ".mv.db".length()));
+		}
+		return DATA_SOURCE.getConnection();
+	}
+
+	/**
+	 * Get the database file
+	 * @return The database file
+	 */
+	public static File getDatabaseFile() {
+		return new File(RegionUtils.getConfigFolder() + "/regions.mv.db");
+	}
+
+	/**
+	 * Rows of a Region: the Region without its lists and a row for each list element
+	 */
+	private static class RegionRows {
+		private String BODY;
+		@SuppressWarnings("unchecked")
+		private LinkedHashMap<String, String>[] LISTS = new LinkedHashMap[SqlRegionStore.LISTS.length];
+
+		/**
+		 * Empty rows, filled while loading
+		 */
+		private RegionRows() {
+			for (int i = 0; i < LISTS.length; i++)
+				LISTS[i] = new LinkedHashMap<String, String>();
+		}
+
+		/**
+		 * Split a Region into rows
+		 * @param region The Region
+		 */
+		private RegionRows(JsonObject region) {
+			this();
+			JsonObject body = new JsonObject();
+			for (Entry<String, JsonElement> field : region.entrySet()) {
+				int list = getList(field.getKey());
+				// Compact lists are not made of objects and are stored in the body
+				if (list < 0 || !isSplittable(field.getValue(), SqlRegionStore.LISTS[list][2])) {
+					body.add(field.getKey(), field.getValue());
+					continue;
+				}
+				for (JsonElement element : field.getValue().getAsJsonArray()) {
+					JsonElement name = element.isJsonObject() ? element.getAsJsonObject().get(SqlRegionStore.LISTS[list][2]) : null;
+					// Duplicates are dropped like the Region does when looking them up
+					if (name != null && !name.isJsonNull() && !LISTS[list].containsKey(name.getAsString()))
+						LISTS[list].put(name.getAsString(), GSON.toJson(element));
+				}
+			}
+			this.BODY = GSON.toJson(body);
+		}
+
+		/**
+		 * Check if a Region field can be split into rows
+		 * @param value The field value
+		 * @param key The field of the list elements used as key
+		 * @return true if the value is a list of objects with a key, false otherwise
+		 */
+		private static boolean isSplittable(JsonElement value, String key) {
+			if (!value.isJsonArray())
+				return false;
+			for (JsonElement element : value.getAsJsonArray()) {
+				if (!element.isJsonObject() || !element.getAsJsonObject().has(key))
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Get the list a Region field is stored in
+		 * @param field The field
+		 * @return The index of the list, -1 if the field is stored in the body
+		 */
+		private static int getList(String field) {
+			for (int i = 0; i < SqlRegionStore.LISTS.length; i++) {
+				if (SqlRegionStore.LISTS[i][1].equals(field))
+					return i;
+			}
+			return -1;
+		}
+	}
+}
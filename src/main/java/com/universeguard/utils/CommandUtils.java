@@ -7,12 +7,20 @@
  */
 package com.universeguard.utils;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
 import org.spongepowered.api.Sponge;
+import org.spongepowered.api.command.CommandMapping;
 import org.spongepowered.api.command.args.CommandElement;
 import org.spongepowered.api.command.spec.CommandExecutor;
 import org.spongepowered.api.command.spec.CommandSpec;
 import org.spongepowered.api.text.Text;
 
+import com.universeguard.region.components.RegionCommand;
+
 /**
  * 
  * Utility class for Commands
@@ -21,6 +29,13 @@ import org.spongepowered.api.text.Text;
  */
 public class CommandUtils {
 
+	// Canonical command names by lowercase alias
+	private static HashMap<String, String> CANONICAL_NAMES = new HashMap<String, String>();
+	// Number of command aliases registered when the canonical names were cached
+	private static int ALIAS_COUNT = -1;
+	// Changes every time the cached canonical names are dropped
+	private static int VERSION = 0;
+	
 	/**
 	 * Build a CommandSpec
 	 * @param description Command description
@@ -85,4 +100,119 @@ public class CommandUtils {
 		return Sponge.getCommandManager().get(name).isPresent();
 	}
 	
+	/**
+	 * Get the canonical name of a command, that is the primary alias
+	 * of the command it resolves to. Aliases and namespaced names of the
+	 * same command share the same canonical name
+	 * @param name The command name or alias
+	 * @return The canonical name of the command
+	 */
+	public static String getCanonicalName(String name) {
+		checkMappings();
+		String alias = name.toLowerCase();
+		String canonicalName = CANONICAL_NAMES.get(alias);
+		if(canonicalName == null) {
+			Optional<? extends CommandMapping> mapping = Sponge.getCommandManager().get(alias);
+			if(!mapping.isPresent()) {
+				// Unknown commands are not cached, they could be registered later
+				return alias.contains(":") ? alias.substring(alias.indexOf(":") + 1) : alias;
+			}
+			canonicalName = mapping.get().getPrimaryAlias().toLowerCase();
+			CANONICAL_NAMES.put(alias, canonicalName);
+		}
+		return canonicalName;
+	}
+	
+	/**
+	 * Get the position of a command in a list of Region commands. Commands are matched by
+	 * canonical name, so aliases and namespaced names find the same entry
+	 * @param commands The Region commands
+	 * @param command The command name or alias
+	 * @return The position of the first entry for the command, -1 if there is none
+	 */
+	public static int indexOf(List<RegionCommand> commands, String command) {
+		return indexOf(commands, command, CommandUtils::getCanonicalName);
+	}
+	
+	/**
+	 * Get the position of a command in a list of Region commands
+	 * @param commands The Region commands
+	 * @param command The command name or alias
+	 * @param canonical The function resolving canonical names
+	 * @return The position of the first entry for the command, -1 if there is none
+	 */
+	static int indexOf(List<RegionCommand> commands, String command, Function<String, String> canonical) {
+		String name = canonical.apply(command);
+		for(int i = 0; i < commands.size(); i++) {
+			if(canonical.apply(commands.get(i).getCommand()).equals(name))
+				return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Set the value of a command in a list of Region commands. The first entry for the command
+	 * is updated and the other entries with the same canonical name are removed, as they would be ignored
+	 * @param commands The Region commands
+	 * @param command The command name or alias
+	 * @param enabled The value of the command
+	 */
+	public static void setCommand(List<RegionCommand> commands, String command, boolean enabled) {
+		setCommand(commands, command, enabled, CommandUtils::getCanonicalName);
+	}
+	
+	/**
+	 * Set the value of a command in a list of Region commands
+	 * @param commands The Region commands
+	 * @param command The command name or alias
+	 * @param enabled The value of the command
+	 * @param canonical The function resolving canonical names
+	 */
+	static void setCommand(List<RegionCommand> commands, String command, boolean enabled, Function<String, String> canonical) {
+		String name = canonical.apply(command);
+		RegionCommand first = null;
+		for(int i = 0; i < commands.size();) {
+			if(!canonical.apply(commands.get(i).getCommand()).equals(name))
+				i++;
+			else if(first == null)
+				first = commands.get(i++);
+			else
+				commands.remove(i);
+		}
+		if(first != null)
+			first.setEnabled(enabled);
+		else
+			commands.add(new RegionCommand(command, enabled));
+	}
+	
+	/**
+	 * Clear the cached canonical command names
+	 */
+	public static void clearCanonicalNames() {
+		CANONICAL_NAMES.clear();
+		VERSION++;
+	}
+	
+	/**
+	 * Drop the cached canonical names if commands have been registered
+	 * or removed since they were cached
+	 */
+	private static void checkMappings() {
+		int count = Sponge.getCommandManager().size();
+		if(count != ALIAS_COUNT) {
+			ALIAS_COUNT = count;
+			clearCanonicalNames();
+		}
+	}
+	
+	/**
+	 * Get the version of the canonical command names. Command values compiled
+	 * with an older version must be compiled again
+	 * @return The version of the canonical command names
+	 */
+	public static int getVersion() {
+		checkMappings();
+		return VERSION;
+	}
+	
 }
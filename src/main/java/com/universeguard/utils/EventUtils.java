@@ -7,10 +7,15 @@
  */
 package com.universeguard.utils;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
 import org.spongepowered.api.Game;
 import org.spongepowered.api.event.EventManager;
 
 import com.universeguard.UniverseGuard;
+import com.universeguard.region.Region;
+import com.universeguard.region.enums.EnumRegionFlag;
 
 /**
  * 
@@ -21,6 +26,14 @@ import com.universeguard.UniverseGuard;
 public class EventUtils {
 	
 	private static EventManager EVENT_MANAGER;
+	// Listeners registered only while a Region denies their flag
+	private static ArrayList<EnumRegionFlag> FLAGS = new ArrayList<EnumRegionFlag>();
+	private static ArrayList<Object> FLAG_EVENTS = new ArrayList<Object>();
+	// Flag listeners currently registered
+	private static IdentityHashMap<Object, Boolean> REGISTERED = new IdentityHashMap<Object, Boolean>();
+	// Region index and flags versions the flag listeners have been updated with
+	private static long INDEX_VERSION = -1;
+	private static long FLAGS_VERSION = -1;
 	
 	/**
 	 * Init the Event Manager
@@ -37,4 +50,62 @@ public class EventUtils {
 	public static void registerEvent(Object event) {
 		EVENT_MANAGER.registerListeners(UniverseGuard.INSTANCE, event);
 	}
+	
+	/**
+	 * Register an event that is needed only if a Region denies a flag.
+	 * The event is registered and unregistered by updateFlagEvents
+	 * @param flag The flag
+	 * @param event The event
+	 */
+	public static void registerFlagEvent(EnumRegionFlag flag, Object event) {
+		FLAGS.add(flag);
+		FLAG_EVENTS.add(event);
+		INDEX_VERSION = -1;
+	}
+	
+	/**
+	 * Register the flag events whose flag is denied by at least one Region
+	 * and unregister the others. Does nothing if no Region changed since the last update
+	 */
+	public static void updateFlagEvents() {
+		if(EVENT_MANAGER == null || UniverseGuard.ALL_REGIONS == null)
+			return;
+		long indexVersion = RegionIndexUtils.getVersion();
+		long flagsVersion = Region.getFlagsVersion();
+		if(indexVersion == INDEX_VERSION && flagsVersion == FLAGS_VERSION)
+			return;
+		long denied = 0L;
+		for(Region region : UniverseGuard.ALL_REGIONS)
+			denied |= region.getDeniedFlags();
+		for(int i = 0; i < FLAG_EVENTS.size(); i++) {
+			Object event = FLAG_EVENTS.get(i);
+			boolean needed = (denied & 1L << FLAGS.get(i).ordinal()) != 0L;
+			if(needed && !REGISTERED.containsKey(event)) {
+				EVENT_MANAGER.registerListeners(UniverseGuard.INSTANCE, event);
+				REGISTERED.put(event, Boolean.TRUE);
+			}
+			else if(!needed && REGISTERED.containsKey(event)) {
+				EVENT_MANAGER.unregisterListeners(event);
+				REGISTERED.remove(event);
+			}
+		}
+		INDEX_VERSION = indexVersion;
+		FLAGS_VERSION = flagsVersion;
+	}
+	
+	/**
+	 * Get the number of flag events currently registered
+	 * @return The number of registered flag events
+	 */
+	public static int getRegisteredFlagEvents() {
+		return REGISTERED.size();
+	}
+	
+	/**
+	 * Get the number of flag events
+	 * @return The number of flag events
+	 */
+	public static int getFlagEvents() {
+		return FLAG_EVENTS.size();
+	}
 }
@@ -7,11 +7,13 @@
  */
 package com.universeguard.utils;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
-import org.spongepowered.api.CatalogType;
 import org.spongepowered.api.Game;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.block.BlockType;
@@ -32,6 +34,32 @@ import ninja.leaping.configurate.commented.CommentedConfigurationNode;
 
 public class FlagUtils {
 
+	// Flags, Interacts, Vehicles and Explosions by lowercase name
+	private static final HashMap<String, EnumRegionFlag> FLAG_NAMES = new HashMap<String, EnumRegionFlag>();
+	private static final HashMap<String, EnumRegionInteract> INTERACT_NAMES = new HashMap<String, EnumRegionInteract>();
+	private static final HashMap<String, EnumRegionVehicle> VEHICLE_NAMES = new HashMap<String, EnumRegionVehicle>();
+	private static final HashMap<String, EnumRegionExplosion> EXPLOSION_NAMES = new HashMap<String, EnumRegionExplosion>();
+	
+	// Classification tables, built from the registry when the configuration is loaded
+	private static IdentityHashMap<BlockType, EnumRegionInteract> BLOCK_INTERACTS = new IdentityHashMap<BlockType, EnumRegionInteract>();
+	private static IdentityHashMap<EntityType, EnumRegionInteract> ENTITY_INTERACTS = new IdentityHashMap<EntityType, EnumRegionInteract>();
+	private static IdentityHashMap<EntityType, EnumRegionVehicle> VEHICLES = new IdentityHashMap<EntityType, EnumRegionVehicle>();
+	private static IdentityHashMap<EntityType, EnumRegionExplosion> EXPLOSIONS = new IdentityHashMap<EntityType, EnumRegionExplosion>();
+	private static Set<EntityType> BLOCK_ENTITIES = Collections.newSetFromMap(new IdentityHashMap<EntityType, Boolean>());
+	private static Set<BlockType> INTERACT_BLOCKS = Collections.newSetFromMap(new IdentityHashMap<BlockType, Boolean>());
+	private static Set<BlockType> CROPS = Collections.newSetFromMap(new IdentityHashMap<BlockType, Boolean>());
+	
+	static {
+		for(EnumRegionFlag flag : EnumRegionFlag.values())
+			FLAG_NAMES.put(flag.getName().toLowerCase(), flag);
+		for(EnumRegionInteract interact : EnumRegionInteract.values())
+			INTERACT_NAMES.put(interact.getName().toLowerCase(), interact);
+		for(EnumRegionVehicle vehicle : EnumRegionVehicle.values())
+			VEHICLE_NAMES.put(vehicle.getName().toLowerCase(), vehicle);
+		for(EnumRegionExplosion explosion : EnumRegionExplosion.values())
+			EXPLOSION_NAMES.put(explosion.getName().toLowerCase(), explosion);
+	}
+	
 	/**
 	 * Set the flags
 	 * @param configNode
@@ -65,12 +93,31 @@ public class FlagUtils {
 			configNode.getNode("timers", "hunger").setValue(UniverseGuard.HUNGER_TIMER).setComment("The update frequency (in seconds) of the hunger flag timer");
 		if(configNode.getNode("timers", "gamemode").isVirtual())
 			configNode.getNode("timers", "gamemode").setValue(UniverseGuard.GAMEMODE_TIMER).setComment("The update frequency (in seconds) of the gamemode flag timer");
-		if(configNode.getNode("timers", "enter_flag").isVirtual())
-			configNode.getNode("timers", "enter_flag").setValue(UniverseGuard.ENTER_FLAG_TIMER).setComment("The update frequency (in milliseconds) of the enter flag timer");
+		if(configNode.getNode("timers", "effects_budget").isVirtual())
+			configNode.getNode("timers", "effects_budget").setValue(UniverseGuard.EFFECTS_BUDGET).setComment("The time (in microseconds) the hunger and gamemode flags can use each tick. Players left are updated in the next ticks");
+		if(configNode.getNode("timers", "save_delay").isVirtual())
+			configNode.getNode("timers", "save_delay").setValue(UniverseGuard.SAVE_DELAY).setComment("The time (in milliseconds) Region changes are collected before being written to disk. 0 writes them on the next save");
+		if(configNode.getNode("storage", "engine").isVirtual())
+			configNode.getNode("storage", "engine").setValue(UniverseGuard.STORAGE_ENGINE).setComment("How regions are stored. \"json\" saves a file for each region, \"journal\" appends changes to a single file, \"database\" uses an embedded H2 database. Switching to \"journal\" or \"database\" imports the JSON files, use /rg export to go back");
+		if(configNode.getNode("storage", "compact_threshold").isVirtual())
+			configNode.getNode("storage", "compact_threshold").setValue(UniverseGuard.JOURNAL_COMPACT_THRESHOLD).setComment("The number of changes the journal can hold before being compacted");
+		if(configNode.getNode("storage", "migration_batch").isVirtual())
+			configNode.getNode("storage", "migration_batch").setValue(UniverseGuard.MIGRATION_BATCH).setComment("The number of Regions upgraded from an older version saved each tick. 0 saves them all on the first tick");
+		if(configNode.getNode("storage", "lazy_bodies").isVirtual())
+			configNode.getNode("storage", "lazy_bodies").setValue(UniverseGuard.LAZY_BODIES).setComment("Sets if the flags, members and messages of Local Regions are loaded from the storage only when used, to save memory on servers with many regions");
+		if(configNode.getNode("storage", "body_cache_size").isVirtual())
+			configNode.getNode("storage", "body_cache_size").setValue(UniverseGuard.BODY_CACHE_SIZE).setComment("The number of Local Regions that keep their flags, members and messages in memory when lazy_bodies is enabled. The least recently used ones are dropped");
+		if(configNode.getNode("storage", "compact").isVirtual())
+			configNode.getNode("storage", "compact").setValue(UniverseGuard.COMPACT_REGIONS).setComment("Sets if Regions are saved in a smaller format, with flags as bits and default values left out. Both formats can always be loaded");
 		if(configNode.getNode("players", "unique_regions").isVirtual())
 			configNode.getNode("players", "unique_regions").setValue(UniverseGuard.UNIQUE_REGIONS).setComment("Sets if players can be in more Regions");
 		if(configNode.getNode("selector", "item").isVirtual())
 			configNode.getNode("selector", "item").setValue(UniverseGuard.SELECTOR_ITEM.getId());
+		if(configNode.getNode("interact_blocks").isVirtual()) {
+			for(EnumRegionInteract interact : EnumRegionInteract.values())
+				configNode.getNode("interact_blocks", interact.getName()).setValue(Collections.<String>emptyList());
+			configNode.getNode("interact_blocks").setComment("Additional block ids (like modid:block) handled by each interact");
+		}
 	}
 	
 	/**
@@ -94,7 +141,14 @@ public class FlagUtils {
 		}
 		UniverseGuard.HUNGER_TIMER = configNode.getNode("timers", "hunger").getInt();
 		UniverseGuard.GAMEMODE_TIMER = configNode.getNode("timers", "gamemode").getInt();
-		UniverseGuard.ENTER_FLAG_TIMER = configNode.getNode("timers", "enter_flag").getInt();
+		UniverseGuard.EFFECTS_BUDGET = configNode.getNode("timers", "effects_budget").getInt();
+		UniverseGuard.SAVE_DELAY = configNode.getNode("timers", "save_delay").getInt();
+		UniverseGuard.STORAGE_ENGINE = configNode.getNode("storage", "engine").getString();
+		UniverseGuard.JOURNAL_COMPACT_THRESHOLD = configNode.getNode("storage", "compact_threshold").getInt();
+		UniverseGuard.COMPACT_REGIONS = configNode.getNode("storage", "compact").getBoolean();
+		UniverseGuard.MIGRATION_BATCH = configNode.getNode("storage", "migration_batch").getInt();
+		UniverseGuard.LAZY_BODIES = configNode.getNode("storage", "lazy_bodies").getBoolean();
+		UniverseGuard.BODY_CACHE_SIZE = Math.max(configNode.getNode("storage", "body_cache_size").getInt(), 1);
 		UniverseGuard.UNIQUE_REGIONS = configNode.getNode("players", "unique_regions").getBoolean();
 		if(!configNode.getNode("selector", "item").isVirtual()) {
 			String id = configNode.getNode("selector", "item").getString();
@@ -104,6 +158,77 @@ public class FlagUtils {
 			else
 				LogUtils.print(TextColors.RED, RegionText.TEXT_WRONG_SELECTOR_ITEM.getValue() + UniverseGuard.SELECTOR_ITEM.getId());
 		}
+		buildTables(game, configNode);
+	}
+	
+	/**
+	 * Build the classification tables for blocks and entities
+	 * @param game The Game
+	 * @param configNode The configuration node
+	 */
+	private static void buildTables(Game game, CommentedConfigurationNode configNode) {
+		BLOCK_INTERACTS = new IdentityHashMap<BlockType, EnumRegionInteract>();
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.CRAFTING_TABLE, BlockTypes.CRAFTING_TABLE);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.ANVIL, BlockTypes.ANVIL);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.ENCHANTING_TABLE, BlockTypes.ENCHANTING_TABLE);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.HOPPER, BlockTypes.HOPPER);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.LEVER, BlockTypes.LEVER);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.BUTTON, BlockTypes.STONE_BUTTON, BlockTypes.WOODEN_BUTTON);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.FURNACE, BlockTypes.FURNACE);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.DOOR, BlockTypes.WOODEN_DOOR, BlockTypes.BIRCH_DOOR, BlockTypes.SPRUCE_DOOR,
+				BlockTypes.JUNGLE_DOOR, BlockTypes.ACACIA_DOOR, BlockTypes.DARK_OAK_DOOR, BlockTypes.IRON_DOOR);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.FENCE_GATE, BlockTypes.FENCE_GATE, BlockTypes.BIRCH_FENCE_GATE, BlockTypes.SPRUCE_FENCE_GATE,
+				BlockTypes.JUNGLE_FENCE_GATE, BlockTypes.ACACIA_FENCE_GATE, BlockTypes.DARK_OAK_FENCE_GATE);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.TRAPDOOR, BlockTypes.TRAPDOOR, BlockTypes.IRON_TRAPDOOR);
+		putAll(BLOCK_INTERACTS, EnumRegionInteract.SIGN, BlockTypes.STANDING_SIGN, BlockTypes.WALL_SIGN);
+		for(EnumRegionInteract interact : EnumRegionInteract.values()) {
+			for(CommentedConfigurationNode node : configNode.getNode("interact_blocks", interact.getName()).getChildrenList()) {
+				Optional<BlockType> block = game.getRegistry().getType(BlockType.class, node.getString(""));
+				if(block.isPresent())
+					BLOCK_INTERACTS.put(block.get(), interact);
+				else
+					LogUtils.print(TextColors.RED, RegionText.TEXT_WRONG_INTERACT_BLOCK.getValue() + interact.getName() + ": " + node.getString(""));
+			}
+		}
+		
+		ENTITY_INTERACTS = new IdentityHashMap<EntityType, EnumRegionInteract>();
+		putAll(ENTITY_INTERACTS, EnumRegionInteract.ARMOR_STAND, EntityTypes.ARMOR_STAND);
+		putAll(ENTITY_INTERACTS, EnumRegionInteract.ITEM_FRAME, EntityTypes.ITEM_FRAME);
+		
+		VEHICLES = new IdentityHashMap<EntityType, EnumRegionVehicle>();
+		putAll(VEHICLES, EnumRegionVehicle.MINECART, EntityTypes.CHESTED_MINECART, EntityTypes.COMMANDBLOCK_MINECART,
+				EntityTypes.FURNACE_MINECART, EntityTypes.HOPPER_MINECART, EntityTypes.MOB_SPAWNER_MINECART,
+				EntityTypes.RIDEABLE_MINECART, EntityTypes.TNT_MINECART);
+		putAll(VEHICLES, EnumRegionVehicle.BOAT, EntityTypes.BOAT);
+		
+		EXPLOSIONS = new IdentityHashMap<EntityType, EnumRegionExplosion>();
+		putAll(EXPLOSIONS, EnumRegionExplosion.TNT, EntityTypes.TNT_MINECART, EntityTypes.PRIMED_TNT);
+		putAll(EXPLOSIONS, EnumRegionExplosion.CREEPER, EntityTypes.CREEPER);
+		putAll(EXPLOSIONS, EnumRegionExplosion.ENDER_CRYSTAL, EntityTypes.ENDER_CRYSTAL);
+		putAll(EXPLOSIONS, EnumRegionExplosion.FIREBALL, EntityTypes.FIREBALL);
+		putAll(EXPLOSIONS, EnumRegionExplosion.ENDERDRAGON, EntityTypes.ENDER_DRAGON);
+		
+		BLOCK_ENTITIES = Collections.newSetFromMap(new IdentityHashMap<EntityType, Boolean>());
+		Collections.addAll(BLOCK_ENTITIES, EntityTypes.ENDER_CRYSTAL, EntityTypes.PAINTING, EntityTypes.ITEM_FRAME, EntityTypes.ARMOR_STAND);
+		
+		INTERACT_BLOCKS = Collections.newSetFromMap(new IdentityHashMap<BlockType, Boolean>());
+		Collections.addAll(INTERACT_BLOCKS, BlockTypes.CRAFTING_TABLE, BlockTypes.ENCHANTING_TABLE, BlockTypes.ANVIL);
+		
+		CROPS = Collections.newSetFromMap(new IdentityHashMap<BlockType, Boolean>());
+		Collections.addAll(CROPS, BlockTypes.WHEAT, BlockTypes.BEETROOTS, BlockTypes.MELON_STEM, BlockTypes.PUMPKIN_STEM,
+				BlockTypes.CARROTS, BlockTypes.NETHER_WART, BlockTypes.FARMLAND);
+	}
+	
+	/**
+	 * Map some catalog types to a value
+	 * @param table The table
+	 * @param value The value
+	 * @param types The catalog types
+	 */
+	@SafeVarargs
+	private static <T, V> void putAll(IdentityHashMap<T, V> table, V value, T... types) {
+		for(T type : types)
+			table.put(type, value);
 	}
 	
 	/**
@@ -112,11 +237,7 @@ public class FlagUtils {
 	 * @return The flag with the given name if exists, null othewrise
 	 */
 	public static EnumRegionFlag getFlag(String name) {
-		for(EnumRegionFlag flag : EnumRegionFlag.values()) {
-			if(flag.getName().equalsIgnoreCase(name))
-				return flag;
-		}
-		return null;
+		return name != null ? FLAG_NAMES.get(name.toLowerCase()) : null;
 	}
 	
 	/**
@@ -125,11 +246,7 @@ public class FlagUtils {
 	 * @return The interact with the given name if exists, null othewrise
 	 */
 	public static EnumRegionInteract getInteract(String name) {
-		for(EnumRegionInteract interact : EnumRegionInteract.values()) {
-			if(interact.getName().equalsIgnoreCase(name))
-				return interact;
-		}
-		return null;
+		return name != null ? INTERACT_NAMES.get(name.toLowerCase()) : null;
 	}
 	
 	/**
@@ -138,33 +255,7 @@ public class FlagUtils {
 	 * @return The interact with the given block if exists, null othewrise
 	 */
 	public static EnumRegionInteract getInteract(BlockType block) {
-		if(block.equals(BlockTypes.CRAFTING_TABLE))
-			return getInteract("craftingtable");
-		else if(block.equals(BlockTypes.ANVIL))
-			return getInteract("anvil");
-		else if(block.equals(BlockTypes.ENCHANTING_TABLE))
-			return getInteract("enchantingtable");
-		else if(block.equals(BlockTypes.HOPPER))
-			return getInteract("hopper");
-		else if(block.equals(BlockTypes.LEVER))
-			return getInteract("lever");
-		else if(block.equals(BlockTypes.STONE_BUTTON) || block.equals(BlockTypes.WOODEN_BUTTON))
-			return getInteract("button");
-		else if(block.equals(BlockTypes.FURNACE))
-			return getInteract("furnace");
-		else if(block.equals(BlockTypes.WOODEN_DOOR) || block.equals(BlockTypes.BIRCH_DOOR) || block.equals(BlockTypes.SPRUCE_DOOR) ||
-				block.equals(BlockTypes.JUNGLE_DOOR) || block.equals(BlockTypes.ACACIA_DOOR) || block.equals(BlockTypes.DARK_OAK_DOOR) ||
-				block.equals(BlockTypes.IRON_DOOR))
-			return getInteract("door");
-		else if(block.equals(BlockTypes.FENCE_GATE) || block.equals(BlockTypes.BIRCH_FENCE_GATE) || block.equals(BlockTypes.SPRUCE_FENCE_GATE) ||
-				block.equals(BlockTypes.JUNGLE_FENCE_GATE) || block.equals(BlockTypes.ACACIA_FENCE_GATE) || block.equals(BlockTypes.DARK_OAK_FENCE_GATE))
-			return getInteract("fencegate");
-		else if(block.equals(BlockTypes.TRAPDOOR) || block.equals(BlockTypes.IRON_TRAPDOOR))
-			return getInteract("trapdoor");
-		else if(block.equals(BlockTypes.STANDING_SIGN) || block.equals(BlockTypes.WALL_SIGN))
-			return getInteract("sign");
-		else
-			return null;
+		return BLOCK_INTERACTS.get(block);
 	}
 	
 	/**
@@ -173,15 +264,7 @@ public class FlagUtils {
 	 * @return The vehicle with the given entity if exists, null othewrise
 	 */
 	public static EnumRegionVehicle getVehicle(EntityType entity) {
-		if(entity.equals(EntityTypes.CHESTED_MINECART) || entity.equals(EntityTypes.COMMANDBLOCK_MINECART)
-				|| entity.equals(EntityTypes.FURNACE_MINECART) || entity.equals(EntityTypes.HOPPER_MINECART) 
-				|| entity.equals(EntityTypes.MOB_SPAWNER_MINECART) || entity.equals(EntityTypes.RIDEABLE_MINECART)
-				|| entity.equals(EntityTypes.TNT_MINECART))
-			return EnumRegionVehicle.MINECART;
-		else if(entity.equals(EntityTypes.BOAT))
-			return EnumRegionVehicle.BOAT;
-		else
-			return null;
+		return VEHICLES.get(entity);
 	}
 	
 	/**
@@ -190,12 +273,7 @@ public class FlagUtils {
 	 * @return The interact with the given entity if exists, null othewrise
 	 */
 	public static EnumRegionInteract getInteract(EntityType entity) {
-		if(entity.equals(EntityTypes.ARMOR_STAND))
-			return getInteract("armorstand");
-		else if(entity.equals(EntityTypes.ITEM_FRAME))
-			return getInteract("itemframe");
-		else
-			return null;
+		return ENTITY_INTERACTS.get(entity);
 	}
 	
 	/**
@@ -204,11 +282,7 @@ public class FlagUtils {
 	 * @return The vehicle with the given name if exists, null othewrise
 	 */
 	public static EnumRegionVehicle getVehicle(String name) {
-		for(EnumRegionVehicle vehicle : EnumRegionVehicle.values()) {
-			if(vehicle.getName().equalsIgnoreCase(name))
-				return vehicle;
-		}
-		return null;
+		return name != null ? VEHICLE_NAMES.get(name.toLowerCase()) : null;
 	}
 	
 	/**
@@ -217,11 +291,7 @@ public class FlagUtils {
 	 * @return The explosion with the given name if exists, null othewrise
 	 */
 	public static EnumRegionExplosion getExplosion(String name) {
-		for(EnumRegionExplosion explosion : EnumRegionExplosion.values()) {
-			if(explosion.getName().equalsIgnoreCase(name))
-				return explosion;
-		}
-		return null;
+		return name != null ? EXPLOSION_NAMES.get(name.toLowerCase()) : null;
 	}
 	
 	/**
@@ -230,18 +300,7 @@ public class FlagUtils {
 	 * @return The explosion with the given name if exists, null othewrise
 	 */
 	public static EnumRegionExplosion getExplosion(EntityType type) {
-		if(type.equals(EntityTypes.TNT_MINECART) || type.equals(EntityTypes.PRIMED_TNT))
-			return getExplosion("tnt");
-		else if(type.equals(EntityTypes.CREEPER))
-			return getExplosion("creeper");
-		else if(type.equals(EntityTypes.ENDER_CRYSTAL))
-			return getExplosion("endercrystal");
-		else if(type.equals(EntityTypes.FIREBALL))
-			return getExplosion("fireball");
-		else if(type.equals(EntityTypes.ENDER_DRAGON))
-			return getExplosion("enderdragon");
-		else
-			return null;
+		return EXPLOSIONS.get(type);
 	}
 	
 	/**
@@ -250,10 +309,7 @@ public class FlagUtils {
 	 * @return true if the EntityType is a Block Entity, false otherwise
 	 */
 	public static boolean isBlockEntity(EntityType type) {
-		return type.equals(EntityTypes.ENDER_CRYSTAL) || 
-				type.equals(EntityTypes.PAINTING) || 
-				type.equals(EntityTypes.ITEM_FRAME) || 
-				type.equals(EntityTypes.ARMOR_STAND);
+		return BLOCK_ENTITIES.contains(type);
 	}
 	
 	/**
@@ -262,8 +318,7 @@ public class FlagUtils {
 	 * @return true if the EntityType is an Interact, false otherwise
 	 */
 	public static boolean isInteract(BlockType type) {
-		return type.equals(BlockTypes.CRAFTING_TABLE) || type.equals(BlockTypes.ENCHANTING_TABLE) ||
-				type.equals(BlockTypes.ANVIL);
+		return INTERACT_BLOCKS.contains(type);
 	}
 	
 	/**
@@ -272,10 +327,7 @@ public class FlagUtils {
 	 * @return true if the EntityType is a Vehicle, false otherwise
 	 */
 	public static boolean isVehicle(EntityType type) {
-		return type.equals(EntityTypes.CHESTED_MINECART) || type.equals(EntityTypes.COMMANDBLOCK_MINECART)
-				|| type.equals(EntityTypes.FURNACE_MINECART) || type.equals(EntityTypes.HOPPER_MINECART) 
-				|| type.equals(EntityTypes.MOB_SPAWNER_MINECART) || type.equals(EntityTypes.RIDEABLE_MINECART)
-				|| type.equals(EntityTypes.TNT_MINECART) || type.equals(EntityTypes.BOAT);
+		return VEHICLES.containsKey(type);
 	}
 	
 	/**
@@ -284,9 +336,7 @@ public class FlagUtils {
 	 * @return true if the EntityType is an Explosion, false otherwise
 	 */
 	public static boolean isExplosion(EntityType type) {
-		return type.equals(EntityTypes.TNT_MINECART) || type.equals(EntityTypes.PRIMED_TNT)
-				|| type.equals(EntityTypes.CREEPER) || type.equals(EntityTypes.ENDER_CRYSTAL) ||
-				type.equals(EntityTypes.FIREBALL) || type.equals(EntityTypes.ENDER_DRAGON);
+		return EXPLOSIONS.containsKey(type);
 	}
 	
 	/**
@@ -295,10 +345,7 @@ public class FlagUtils {
 	 * @return true if the BlockType is a Crop, false otherwise
 	 */
 	public static boolean isCrop(BlockType type) {
-		return type.equals(BlockTypes.WHEAT) || type.equals(BlockTypes.BEETROOTS) 
-				|| type.equals(BlockTypes.MELON_STEM) || type.equals(BlockTypes.PUMPKIN_STEM)
-				|| type.equals(BlockTypes.CARROTS) || type.equals(BlockTypes.NETHER_WART) 
-				|| type.equals(BlockTypes.FARMLAND);
+		return CROPS.contains(type);
 	}
 	
 	/**
@@ -307,19 +354,7 @@ public class FlagUtils {
 	 * @return The mob id for a mob with that name if exists, null otherwise
 	 */
 	public static String getMobId(String name) {
-		for(String id : Sponge.getRegistry().getAllOf(EntityType.class).stream()
-	    .map(CatalogType::getId)
-	    .filter(id -> id.contains(name.toLowerCase()))
-	    .collect(Collectors.toList())) {
-			if(name.contains(":")) {
-				if(id.equalsIgnoreCase(name))
-					return id;
-			}
-			else
-				if(id.substring(id.indexOf(":") + 1).equalsIgnoreCase(name))
-					return id;
-		}
-		return null;
+		return MobUtils.resolveMobId(name);
 	}
 	
 	/**
@@ -328,8 +363,6 @@ public class FlagUtils {
 	 * @return The mob id for a mob with that name if exists, null otherwise
 	 */
 	public static List<String> getAllMobIds() {
-		return Sponge.getRegistry().getAllOf(EntityType.class).stream()
-			    .map(CatalogType::getId)
-			    .collect(Collectors.toList());
+		return MobUtils.getMobIds();
 	}
 }
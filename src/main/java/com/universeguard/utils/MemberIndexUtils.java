@@ -0,0 +1,172 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.universeguard.region.LocalRegion;
+import com.universeguard.region.components.RegionMember;
+import com.universeguard.region.enums.RegionRole;
+
+/**
+ *
+ * Utility class for the index of Region members by player
+ *
+ * @author Jimi
+ *
+ */
+public class MemberIndexUtils {
+
+	// Regions and memberships by player
+	private static HashMap<UUID, IdentityHashMap<LocalRegion, RegionMember>> PLAYERS = new HashMap<UUID, IdentityHashMap<LocalRegion, RegionMember>>();
+	// Indexed LocalRegions and their indexed players, so a Region can be removed without its members
+	private static IdentityHashMap<LocalRegion, HashSet<UUID>> REGIONS = new IdentityHashMap<LocalRegion, HashSet<UUID>>();
+
+	/**
+	 * Remove every Region from the index
+	 */
+	public static void clear() {
+		PLAYERS.clear();
+		REGIONS.clear();
+	}
+
+	/**
+	 * Add the members of a LocalRegion to the index
+	 *
+	 * @param region
+	 *            The LocalRegion
+	 */
+	public static void add(LocalRegion region) {
+		remove(region);
+		REGIONS.put(region, new HashSet<UUID>());
+		if (region.getMembers() != null) {
+			// The first membership of a player is the one the Region uses
+			for (RegionMember member : region.getMembers()) {
+				if (member.getUUID() != null && getMember(region, member.getUUID()) == null)
+					addMember(region, member);
+			}
+		}
+	}
+
+	/**
+	 * Remove the members of a LocalRegion from the index
+	 *
+	 * @param region
+	 *            The LocalRegion
+	 */
+	public static void remove(LocalRegion region) {
+		HashSet<UUID> players = REGIONS.remove(region);
+		if (players != null) {
+			for (UUID player : players)
+				removeMember(region, player);
+		}
+	}
+
+	/**
+	 * Add a member to the index if its LocalRegion is indexed
+	 *
+	 * @param region
+	 *            The LocalRegion
+	 * @param member
+	 *            The member
+	 */
+	public static void addMember(LocalRegion region, RegionMember member) {
+		if (!REGIONS.containsKey(region) || member.getUUID() == null)
+			return;
+		IdentityHashMap<LocalRegion, RegionMember> regions = PLAYERS.get(member.getUUID());
+		if (regions == null) {
+			regions = new IdentityHashMap<LocalRegion, RegionMember>();
+			PLAYERS.put(member.getUUID(), regions);
+		}
+		regions.put(region, member);
+		REGIONS.get(region).add(member.getUUID());
+	}
+
+	/**
+	 * Remove a member from the index
+	 *
+	 * @param region
+	 *            The LocalRegion
+	 * @param player
+	 *            The player's UUID
+	 */
+	public static void removeMember(LocalRegion region, UUID player) {
+		HashSet<UUID> players = REGIONS.get(region);
+		if (players != null)
+			players.remove(player);
+		IdentityHashMap<LocalRegion, RegionMember> regions = PLAYERS.get(player);
+		if (regions != null) {
+			regions.remove(region);
+			if (regions.isEmpty())
+				PLAYERS.remove(player);
+		}
+	}
+
+	/**
+	 * Check if a LocalRegion is indexed
+	 *
+	 * @param region
+	 *            The LocalRegion
+	 * @return true if the LocalRegion is indexed, false otherwise
+	 */
+	public static boolean isIndexed(LocalRegion region) {
+		return REGIONS.containsKey(region);
+	}
+
+	/**
+	 * Get the membership of a player in an indexed LocalRegion
+	 *
+	 * @param region
+	 *            The LocalRegion
+	 * @param player
+	 *            The player's UUID
+	 * @return The member if the player is a member of the LocalRegion, null
+	 *         otherwise
+	 */
+	public static RegionMember getMember(LocalRegion region, UUID player) {
+		IdentityHashMap<LocalRegion, RegionMember> regions = PLAYERS.get(player);
+		return regions != null ? regions.get(region) : null;
+	}
+
+	/**
+	 * Check if a player is a member of any Region
+	 *
+	 * @param player
+	 *            The player's UUID
+	 * @return true if the player is a member of a Region, false otherwise
+	 */
+	public static boolean hasRegion(UUID player) {
+		return PLAYERS.containsKey(player);
+	}
+
+	/**
+	 * Get the Regions a player is a member of with a role
+	 *
+	 * @param player
+	 *            The player's UUID
+	 * @param role
+	 *            The role, null for any role
+	 * @return The Regions the player is a member of with the given role
+	 */
+	public static ArrayList<LocalRegion> getRegions(UUID player, RegionRole role) {
+		ArrayList<LocalRegion> regions = new ArrayList<LocalRegion>();
+		IdentityHashMap<LocalRegion, RegionMember> memberships = PLAYERS.get(player);
+		if (memberships != null) {
+			for (Map.Entry<LocalRegion, RegionMember> membership : memberships.entrySet()) {
+				if (role == null || role.equals(membership.getValue().getRole()))
+					regions.add(membership.getKey());
+			}
+		}
+		return regions;
+	}
+}
@@ -0,0 +1,272 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.entity.Entity;
+import org.spongepowered.api.entity.EntityType;
+import org.spongepowered.api.entity.living.Creature;
+import org.spongepowered.api.entity.living.animal.Animal;
+import org.spongepowered.api.entity.living.monster.Monster;
+
+/**
+ * 
+ * Utility class for mobs. Gives every EntityType a small index
+ * used by Regions to store mob flags as bitsets
+ * 
+ * @author Jimi
+ *
+ */
+public class MobUtils {
+
+	// Category bits
+	private static final int HOSTILE = 1;
+	private static final int PASSIVE = 2;
+	
+	// Indexes by EntityType
+	private static IdentityHashMap<EntityType, Integer> INDEXES = new IdentityHashMap<EntityType, Integer>();
+	// Indexes by lowercase id
+	private static HashMap<String, Integer> NAMES = new HashMap<String, Integer>();
+	// Ids by index
+	private static ArrayList<String> IDS = new ArrayList<String>();
+	// Categories by index
+	private static int[] CATEGORIES = new int[128];
+	// Changes every time a new EntityType gets an index
+	private static int VERSION = 0;
+	
+	// Full ids by short name (the id without the namespace)
+	private static HashMap<String, String> SHORT_NAMES = new HashMap<String, String>();
+	// Sorted ids, used for prefix lookups
+	private static String[] SORTED_IDS = new String[0];
+	// Sorted short names and the ids they belong to, used for prefix lookups
+	private static String[] SORTED_SHORT_NAMES = new String[0];
+	private static String[] SORTED_SHORT_IDS = new String[0];
+	// Version the sorted tables have been built with
+	private static int SORTED_VERSION = -1;
+	
+	/**
+	 * Give an index to every registered EntityType
+	 */
+	public static void init() {
+		for(EntityType type : Sponge.getRegistry().getAllOf(EntityType.class))
+			getMobIndex(type);
+	}
+	
+	/**
+	 * Get the index of an EntityType, giving it a new one if it doesn't have it yet
+	 * @param type The EntityType
+	 * @return The index of the EntityType
+	 */
+	public static int getMobIndex(EntityType type) {
+		Integer index = INDEXES.get(type);
+		return index != null ? index : register(type);
+	}
+	
+	/**
+	 * Get the index of a mob id
+	 * @param id The mob id
+	 * @return The index of the mob if known, -1 otherwise
+	 */
+	public static int getMobIndex(String id) {
+		Integer index = NAMES.get(id.toLowerCase());
+		return index != null ? index : -1;
+	}
+	
+	/**
+	 * Resolve a mob name to its id. Names with a namespace must match an id exactly,
+	 * names without one are matched against the id without its namespace
+	 * @param name The name of the mob
+	 * @return The mob id for a mob with that name if exists, null otherwise
+	 */
+	public static String resolveMobId(String name) {
+		checkInit();
+		String lowerName = name.toLowerCase();
+		if(lowerName.contains(":")) {
+			Integer index = NAMES.get(lowerName);
+			return index != null ? IDS.get(index) : null;
+		}
+		return SHORT_NAMES.get(lowerName);
+	}
+	
+	/**
+	 * Get all the mob ids, sorted
+	 * @return The sorted mob ids
+	 */
+	public static List<String> getMobIds() {
+		checkSorted();
+		return Collections.unmodifiableList(Arrays.asList(SORTED_IDS));
+	}
+	
+	/**
+	 * Get the mob ids matching a prefix, either with or without their namespace
+	 * @param prefix The prefix
+	 * @return The sorted mob ids matching the prefix
+	 */
+	public static List<String> getMobIdsStartingWith(String prefix) {
+		checkSorted();
+		String lowerPrefix = prefix.toLowerCase();
+		ArrayList<String> ids = new ArrayList<String>();
+		for(int i = lowerBound(SORTED_IDS, lowerPrefix); i < SORTED_IDS.length && SORTED_IDS[i].startsWith(lowerPrefix); i++)
+			ids.add(SORTED_IDS[i]);
+		if(!lowerPrefix.contains(":")) {
+			for(int i = lowerBound(SORTED_SHORT_NAMES, lowerPrefix); i < SORTED_SHORT_NAMES.length && SORTED_SHORT_NAMES[i].startsWith(lowerPrefix); i++) {
+				if(!SORTED_SHORT_IDS[i].startsWith(lowerPrefix))
+					ids.add(SORTED_SHORT_IDS[i]);
+			}
+			Collections.sort(ids);
+		}
+		return ids;
+	}
+	
+	/**
+	 * Get the number of indexed mobs
+	 * @return The number of indexed mobs
+	 */
+	public static int getMobCount() {
+		return IDS.size();
+	}
+	
+	/**
+	 * Get the id of a mob from its index
+	 * @param index The index
+	 * @return The mob id
+	 */
+	public static String getMobId(int index) {
+		return IDS.get(index);
+	}
+	
+	/**
+	 * Check if a mob is covered by the allhostile subflag
+	 * @param index The mob index
+	 * @return true if the mob is hostile, false otherwise
+	 */
+	public static boolean isHostile(int index) {
+		return (CATEGORIES[index] & HOSTILE) != 0;
+	}
+	
+	/**
+	 * Check if a mob is covered by the allpassive subflag
+	 * @param index The mob index
+	 * @return true if the mob is passive, false otherwise
+	 */
+	public static boolean isPassive(int index) {
+		return (CATEGORIES[index] & PASSIVE) != 0;
+	}
+	
+	/**
+	 * Get the current version of the indexes
+	 * @return The version of the indexes
+	 */
+	public static int getVersion() {
+		return VERSION;
+	}
+	
+	/**
+	 * Index the registered mobs if it hasn't been done yet
+	 */
+	private static void checkInit() {
+		if(IDS.isEmpty())
+			init();
+	}
+	
+	/**
+	 * Build the sorted tables if new mobs have been indexed since the last time
+	 */
+	private static void checkSorted() {
+		checkInit();
+		if(SORTED_VERSION == VERSION)
+			return;
+		String[] sortedIds = IDS.toArray(new String[IDS.size()]);
+		Arrays.sort(sortedIds);
+		final String[] shortNames = new String[sortedIds.length];
+		Integer[] order = new Integer[sortedIds.length];
+		for(int i = 0; i < sortedIds.length; i++) {
+			shortNames[i] = getShortName(sortedIds[i]);
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer first, Integer second) {
+				return shortNames[first].compareTo(shortNames[second]);
+			}
+		});
+		String[] sortedShortNames = new String[order.length];
+		String[] sortedShortIds = new String[order.length];
+		for(int i = 0; i < order.length; i++) {
+			sortedShortNames[i] = shortNames[order[i]];
+			sortedShortIds[i] = sortedIds[order[i]];
+		}
+		SORTED_IDS = sortedIds;
+		SORTED_SHORT_NAMES = sortedShortNames;
+		SORTED_SHORT_IDS = sortedShortIds;
+		SORTED_VERSION = VERSION;
+	}
+	
+	/**
+	 * Get the position of the first element not lower than a key
+	 * @param sorted The sorted array
+	 * @param key The key
+	 * @return The position of the first element not lower than the key
+	 */
+	private static int lowerBound(String[] sorted, String key) {
+		int index = Arrays.binarySearch(sorted, key);
+		if(index < 0)
+			return -index - 1;
+		while(index > 0 && sorted[index - 1].equals(key))
+			index--;
+		return index;
+	}
+	
+	/**
+	 * Get the id of a mob without its namespace
+	 * @param id The mob id
+	 * @return The id without the namespace
+	 */
+	private static String getShortName(String id) {
+		return id.substring(id.indexOf(":") + 1);
+	}
+	
+	/**
+	 * Give an index to an EntityType
+	 * @param type The EntityType
+	 * @return The new index
+	 */
+	private static int register(EntityType type) {
+		String id = type.getId().toLowerCase();
+		Integer existing = NAMES.get(id);
+		if(existing != null) {
+			INDEXES.put(type, existing);
+			return existing;
+		}
+		int index = IDS.size();
+		if(index == CATEGORIES.length)
+			CATEGORIES = Arrays.copyOf(CATEGORIES, index * 2);
+		Class<? extends Entity> entityClass = type.getEntityClass();
+		int category = 0;
+		if(Monster.class.isAssignableFrom(entityClass))
+			category |= HOSTILE;
+		if(Creature.class.isAssignableFrom(entityClass) || Animal.class.isAssignableFrom(entityClass))
+			category |= PASSIVE;
+		CATEGORIES[index] = category;
+		IDS.add(id);
+		NAMES.put(id, index);
+		if(!SHORT_NAMES.containsKey(getShortName(id)))
+			SHORT_NAMES.put(getShortName(id), id);
+		INDEXES.put(type, index);
+		VERSION++;
+		return index;
+	}
+}
@@ -7,8 +7,12 @@
  */
 package com.universeguard.utils;
 
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.spongepowered.api.entity.living.player.Player;
 
+import com.universeguard.UniverseGuard;
 import com.universeguard.region.enums.RegionPermission;
 
 import ninja.leaping.configurate.commented.CommentedConfigurationNode;
@@ -21,6 +25,11 @@ import ninja.leaping.configurate.commented.CommentedConfigurationNode;
  */
 public class PermissionUtils {
 	
+	// Resolved permissions by player
+	private static ConcurrentHashMap<UUID, PermissionCache> CACHE = new ConcurrentHashMap<UUID, PermissionCache>();
+	// Bit used for the "all permissions" check
+	private static final int ALL_PERMISSIONS = RegionPermission.values().length;
+	
 	/**
 	 * Set permissions
 	 * @param configNode
@@ -30,6 +39,8 @@ public class PermissionUtils {
 			if(configNode.getNode("permissions", permission.getName()).isVirtual())
 				configNode.getNode("permissions", permission.getName()).setValue(permission.getValue()).setComment(permission.getComment());
 		}
+		if(configNode.getNode("timers", "permission_cache").isVirtual())
+			configNode.getNode("timers", "permission_cache").setValue(UniverseGuard.PERMISSION_CACHE_TIMER).setComment("How long (in milliseconds) the permissions of a player are cached for region checks");
 	}
 	
 	/**
@@ -40,6 +51,8 @@ public class PermissionUtils {
 		for(RegionPermission permission : RegionPermission.values()) {
 			permission.setValue(configNode.getNode("permissions", permission.getName()).getString());
 		}
+		UniverseGuard.PERMISSION_CACHE_TIMER = configNode.getNode("timers", "permission_cache").getInt();
+		clearCache();
 	}
 	
 	/**
@@ -49,7 +62,7 @@ public class PermissionUtils {
 	 * @return true if the player has all or the specified permission, false otherwise
 	 */
 	public static boolean hasPermission(Player player, RegionPermission permission) {
-		return hasAllPermissions(player) || player.hasPermission(permission.getValue());
+		return hasAllPermissions(player) || getCache(player).get(permission.ordinal(), player, permission.getValue());
 	}
 	
 	/**
@@ -58,6 +71,77 @@ public class PermissionUtils {
 	 * @return true if the player has all permissions, false otherwise
 	 */
 	public static boolean hasAllPermissions(Player player) {
-		return player.hasPermission("*") || player.hasPermission(RegionPermission.ALL.getValue()) || player.hasPermission("universeguard.*");
+		PermissionCache cache = getCache(player);
+		if(!cache.isResolved(ALL_PERMISSIONS))
+			cache.set(ALL_PERMISSIONS, player.hasPermission("*") || player.hasPermission(RegionPermission.ALL.getValue()) || player.hasPermission("universeguard.*"));
+		return cache.isGranted(ALL_PERMISSIONS);
+	}
+	
+	/**
+	 * Drop the cached permissions of a player
+	 * @param player The player
+	 */
+	public static void invalidate(Player player) {
+		CACHE.remove(player.getUniqueId());
+	}
+	
+	/**
+	 * Drop the cached permissions of every player
+	 */
+	public static void clearCache() {
+		CACHE.clear();
+	}
+	
+	/**
+	 * Get the cached permissions of a player, starting a new cache if it expired
+	 * @param player The player
+	 * @return The cached permissions of the player
+	 */
+	private static PermissionCache getCache(Player player) {
+		long now = System.currentTimeMillis();
+		PermissionCache cache = CACHE.get(player.getUniqueId());
+		if(cache == null || cache.isExpired(now)) {
+			cache = new PermissionCache(now + Math.max(UniverseGuard.PERMISSION_CACHE_TIMER, 0));
+			CACHE.put(player.getUniqueId(), cache);
+		}
+		return cache;
+	}
+	
+	/**
+	 * Permissions resolved for a player, one bit for each RegionPermission
+	 * plus one for the "all permissions" check
+	 */
+	private static class PermissionCache {
+		private final long EXPIRE;
+		private volatile long RESOLVED;
+		private volatile long GRANTED;
+		
+		private PermissionCache(long expire) {
+			this.EXPIRE = expire;
+		}
+		
+		private boolean isExpired(long now) {
+			return now >= this.EXPIRE;
+		}
+		
+		private boolean isResolved(int bit) {
+			return (this.RESOLVED & (1L << bit)) != 0;
+		}
+		
+		private boolean isGranted(int bit) {
+			return (this.GRANTED & (1L << bit)) != 0;
+		}
+		
+		private synchronized void set(int bit, boolean granted) {
+			if(granted)
+				this.GRANTED |= 1L << bit;
+			this.RESOLVED |= 1L << bit;
+		}
+		
+		private boolean get(int bit, Player player, String permission) {
+			if(!this.isResolved(bit))
+				this.set(bit, player.hasPermission(permission));
+			return this.isGranted(bit);
+		}
 	}
 }
@@ -0,0 +1,192 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.spongepowered.api.text.format.TextColors;
+
+import com.universeguard.UniverseGuard;
+import com.universeguard.region.Region;
+import com.universeguard.region.enums.RegionText;
+
+/**
+ * Utility class for the bodies of Local Regions in the bounded memory mode.
+ * Only the points, the priority, the ID, the flag bitsets and the compiled mob and
+ * command values of a Region are always kept in memory, members are checked through
+ * the members index. Flags, mobs, commands, members and messages are loaded from the
+ * storage engine when used, and the least recently used ones are dropped.
+ * The journal engine keeps the latest record of every Region in memory anyway,
+ * so it saves less memory than the JSON and database engines
+ * @author Jimi
+ *
+ */
+public class RegionBodyUtils {
+
+	// Local Regions with their body loaded, from the least recently used
+	private static LinkedHashMap<Region, Boolean> CACHE = new LinkedHashMap<Region, Boolean>(16, 0.75F, true);
+	// Uses of a loaded body
+	private static long HITS = 0;
+	// Bodies loaded from the storage engine
+	private static long MISSES = 0;
+	// Bodies dropped to make room for others
+	private static long EVICTIONS = 0;
+	// Regions whose body couldn't be loaded, reported only once until it loads again
+	private static HashSet<Region> FAILED = new HashSet<Region>();
+
+	/**
+	 * Drop the bodies of the loaded Regions and start caching them again.
+	 * Regions waiting to be saved keep their body until they are written
+	 * @param regions The loaded Regions
+	 */
+	public static synchronized void unloadAll(ArrayList<Region> regions) {
+		CACHE.clear();
+		if (!UniverseGuard.LAZY_BODIES)
+			return;
+		for (Region region : regions) {
+			if (!region.isLocal() || region.isBodyUnloaded())
+				continue;
+			if (canUnload(region))
+				region.unloadBody();
+			else
+				CACHE.put(region, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Mark the body of a Region as used
+	 * @param region The Region
+	 */
+	public static synchronized void touch(Region region) {
+		if (CACHE.get(region) != null)
+			HITS++;
+	}
+
+	/**
+	 * Add a Region with its body loaded to the cache, like a new or a modified one
+	 * @param region The Region
+	 */
+	public static synchronized void add(Region region) {
+		if (!UniverseGuard.LAZY_BODIES || !region.isLocal() || region.isBodyUnloaded())
+			return;
+		CACHE.put(region, Boolean.TRUE);
+		evict(region);
+	}
+
+	/**
+	 * Remove a Region from the cache
+	 * @param region The Region
+	 */
+	public static synchronized void remove(Region region) {
+		CACHE.remove(region);
+		FAILED.remove(region);
+	}
+
+	/**
+	 * Load the body of a Region from the storage engine.
+	 * If it can't be loaded the body stays unloaded, so a default body is never saved
+	 * over the stored one, and it's loaded again on the next use
+	 * @param region The Region
+	 * @return true if the body is loaded, false if it can't be loaded
+	 */
+	public static synchronized boolean load(Region region) {
+		if (!region.isBodyUnloaded())
+			return true;
+		MISSES++;
+		Region body = null;
+		try {
+			body = RegionStorageUtils.getStore().load(RegionStorageUtils.getFile(region));
+		} catch (IOException | RuntimeException e) {
+			if (!FAILED.contains(region))
+				LogUtils.log(e);
+		}
+		if (body == null) {
+			if (FAILED.add(region))
+				LogUtils.print(TextColors.RED, RegionText.REGION_BODY_EXCEPTION.getValue() + ": " + region.getName());
+			return false;
+		}
+		FAILED.remove(region);
+		region.setBody(body);
+		CACHE.put(region, Boolean.TRUE);
+		evict(region);
+		return true;
+	}
+
+	/**
+	 * Drop the least recently used bodies until the cache fits its size.
+	 * Bodies that aren't in the storage engine yet are skipped
+	 * @param keep The Region that has just been used
+	 */
+	private static void evict(Region keep) {
+		if (CACHE.size() <= UniverseGuard.BODY_CACHE_SIZE || RegionStorageUtils.isWriting() || RegionStorageUtils.hasWriteFailed())
+			return;
+		ArrayList<Region> evicted = new ArrayList<Region>();
+		int size = CACHE.size();
+		Iterator<Region> iterator = CACHE.keySet().iterator();
+		while (size > UniverseGuard.BODY_CACHE_SIZE && iterator.hasNext()) {
+			Region region = iterator.next();
+			if (region != keep && canUnload(region)) {
+				iterator.remove();
+				evicted.add(region);
+				size--;
+			}
+		}
+		// Unloaded after iterating, as unloading may use the Region
+		for (Region region : evicted)
+			region.unloadBody();
+		EVICTIONS += evicted.size();
+	}
+
+	/**
+	 * Check if the body of a Region can be dropped
+	 * @param region The Region
+	 * @return true if the storage engine has the latest body of the Region, false otherwise
+	 */
+	private static boolean canUnload(Region region) {
+		return !RegionStorageUtils.isPending(RegionStorageUtils.getFile(region))
+				&& !RegionMigrationUtils.isPending(region)
+				&& !RegionStorageUtils.isWriting()
+				&& !RegionStorageUtils.hasWriteFailed();
+	}
+
+	/**
+	 * Get the number of Regions with their body loaded
+	 * @return The size of the cache
+	 */
+	public static synchronized int getSize() {
+		return CACHE.size();
+	}
+
+	/**
+	 * Get the number of uses of a loaded body
+	 * @return The number of hits
+	 */
+	public static synchronized long getHits() {
+		return HITS;
+	}
+
+	/**
+	 * Get the number of bodies loaded from the storage engine
+	 * @return The number of misses
+	 */
+	public static synchronized long getMisses() {
+		return MISSES;
+	}
+
+	/**
+	 * Get the number of bodies dropped to make room for others
+	 * @return The number of evictions
+	 */
+	public static synchronized long getEvictions() {
+		return EVICTIONS;
+	}
+}
@@ -0,0 +1,98 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.entity.living.player.Player;
+
+import com.universeguard.UniverseGuard;
+import com.universeguard.event.RegionEffect;
+import com.universeguard.region.Region;
+
+/**
+ * 
+ * Utility class for the periodic Region effects.
+ * Each effect spreads its players over its interval and all of them share a time budget each tick
+ * @author Jimi
+ *
+ */
+public class RegionEffectUtils {
+	
+	// Registered effects
+	private static ArrayList<RegionEffect> EFFECTS = new ArrayList<RegionEffect>();
+	// Ticks run
+	private static long TICKS = 0;
+	
+	/**
+	 * Add an effect
+	 * @param effect The effect
+	 */
+	public static void addEffect(RegionEffect effect) {
+		EFFECTS.add(effect);
+	}
+	
+	/**
+	 * Get the registered effects
+	 * @return The effects
+	 */
+	public static List<RegionEffect> getEffects() {
+		return EFFECTS;
+	}
+	
+	/**
+	 * Get the number of ticks run
+	 * @return The number of ticks
+	 */
+	public static long getTicks() {
+		return TICKS;
+	}
+	
+	/**
+	 * Process the share of players of each effect for this tick, until the time budget runs out.
+	 * Players left are processed the next ticks
+	 */
+	public static void tick() {
+		TICKS++;
+		long deadline = System.nanoTime() + getBudget();
+		for(RegionEffect effect : EFFECTS) {
+			if(effect.canStartRound(TICKS)) {
+				ArrayList<UUID> players = new ArrayList<UUID>();
+				for(Player player : Sponge.getServer().getOnlinePlayers())
+					players.add(player.getUniqueId());
+				effect.startRound(players, TICKS);
+			}
+			long start = System.nanoTime();
+			long now = start;
+			for(int i = 0; i < effect.getQuota() && now < deadline; i++) {
+				UUID id = effect.nextPlayer();
+				if(id == null)
+					break;
+				Optional<Player> player = Sponge.getServer().getPlayer(id);
+				if(player.isPresent()) {
+					Region region = RegionSessionUtils.getCurrentRegion(player.get());
+					effect.addProcessed(region != null && effect.apply(player.get(), region));
+				}
+				now = System.nanoTime();
+			}
+			effect.addTime(now - start);
+		}
+	}
+	
+	/**
+	 * Get the time budget of each tick
+	 * @return The time budget in nanoseconds
+	 */
+	public static long getBudget() {
+		return UniverseGuard.EFFECTS_BUDGET * 1000L;
+	}
+}
@@ -0,0 +1,492 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
+
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import com.universeguard.UniverseGuard;
+import com.universeguard.region.GlobalRegion;
+import com.universeguard.region.LocalRegion;
+import com.universeguard.region.Region;
+import com.universeguard.region.components.RegionBounds;
+import com.universeguard.region.enums.EnumRegionFlag;
+import com.universeguard.region.index.ChunkRegionStack;
+import com.universeguard.region.index.FlagSummary;
+import com.universeguard.region.index.RegionIndexEntry;
+import com.universeguard.region.index.WorldRegionIndex;
+
+/**
+ *
+ * Utility class for the Regions spatial index
+ *
+ * @author Jimi
+ *
+ */
+public class RegionIndexUtils {
+
+	// Indexes by world
+	private static HashMap<String, WorldRegionIndex> WORLDS = new HashMap<String, WorldRegionIndex>();
+	// Indexed LocalRegions
+	private static IdentityHashMap<LocalRegion, RegionIndexEntry> ENTRIES = new IdentityHashMap<LocalRegion, RegionIndexEntry>();
+	// Insertion counter
+	private static long SEQUENCE = 0;
+	// Changes every time the indexed Regions change
+	private static long VERSION = 0;
+	// Highest priority first, last indexed first on ties
+	private static final Comparator<RegionIndexEntry> PRIORITY_ORDER = new Comparator<RegionIndexEntry>() {
+		@Override
+		public int compare(RegionIndexEntry first, RegionIndexEntry second) {
+			int priority = Integer.compare(second.getRegion().getPriority(), first.getRegion().getPriority());
+			return priority != 0 ? priority : Long.compare(second.getSequence(), first.getSequence());
+		}
+	};
+	// Indexing order
+	private static final Comparator<RegionIndexEntry> SEQUENCE_ORDER = new Comparator<RegionIndexEntry>() {
+		@Override
+		public int compare(RegionIndexEntry first, RegionIndexEntry second) {
+			return Long.compare(first.getSequence(), second.getSequence());
+		}
+	};
+
+	/**
+	 * Rebuild the index from the loaded Regions
+	 */
+	public static void rebuild() {
+		WORLDS.clear();
+		ENTRIES.clear();
+		MemberIndexUtils.clear();
+		SEQUENCE = 0;
+		VERSION++;
+		if (UniverseGuard.ALL_REGIONS != null) {
+			for (Region region : UniverseGuard.ALL_REGIONS)
+				add(region);
+		}
+	}
+
+	/**
+	 * Add a Region to the index. If the Region is already indexed it will be
+	 * indexed again with its current bounds
+	 *
+	 * @param region
+	 *            The Region
+	 */
+	public static void add(Region region) {
+		if (region == null)
+			return;
+		remove(region);
+		VERSION++;
+		if (region.isLocal()) {
+			MemberIndexUtils.add((LocalRegion) region);
+			index((LocalRegion) region, SEQUENCE++);
+		}
+		else if (region.getName() != null)
+			getOrCreateWorld(getWorldKey(region.getName())).setGlobalRegion((GlobalRegion) region);
+	}
+
+	/**
+	 * Index a LocalRegion again after its bounds or priority changed. Regions
+	 * not in the index are ignored
+	 *
+	 * @param region
+	 *            The LocalRegion
+	 */
+	public static void refresh(LocalRegion region) {
+		RegionIndexEntry entry = ENTRIES.get(region);
+		if (entry != null) {
+			unindex(region);
+			index(region, entry.getSequence());
+			VERSION++;
+		}
+	}
+
+	/**
+	 * Drop the resolved Regions cached for a chunk
+	 *
+	 * @param world
+	 *            The world name
+	 * @param chunkX
+	 *            The chunk X coordinate
+	 * @param chunkZ
+	 *            The chunk Z coordinate
+	 */
+	public static void unloadChunk(String world, int chunkX, int chunkZ) {
+		WorldRegionIndex index = WORLDS.get(getWorldKey(world));
+		if (index != null)
+			index.removeStack(chunkX, chunkZ);
+	}
+
+	/**
+	 * Resolve the world of the LocalRegions in a world that has just been loaded
+	 *
+	 * @param world
+	 *            The world
+	 */
+	public static void loadWorld(World world) {
+		WorldRegionIndex index = WORLDS.get(getWorldKey(world.getName()));
+		if (index != null) {
+			for (RegionIndexEntry entry : index.getEntries()) {
+				RegionBounds bounds = entry.getRegion().getBounds();
+				if (bounds != null)
+					bounds.resolve(world);
+			}
+		}
+	}
+
+	/**
+	 * Add a LocalRegion to the index
+	 *
+	 * @param region
+	 *            The LocalRegion
+	 * @param sequence
+	 *            The insertion order
+	 */
+	private static void index(LocalRegion region, long sequence) {
+		RegionBounds bounds = region.getBounds();
+		if (bounds == null || bounds.getWorld() == null)
+			return;
+		if (Sponge.isServerAvailable()) {
+			Optional<World> loaded = Sponge.getServer().getWorld(bounds.getWorld());
+			if (loaded.isPresent())
+				bounds.resolve(loaded.get());
+		}
+		String world = getWorldKey(bounds.getWorld());
+		RegionIndexEntry entry = new RegionIndexEntry(region, world, bounds.getMinX(), bounds.getMinY(),
+				bounds.getMinZ(), bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ(), sequence);
+		getOrCreateWorld(world).add(entry);
+		ENTRIES.put(region, entry);
+	}
+
+	/**
+	 * Remove a Region from the index
+	 *
+	 * @param region
+	 *            The Region
+	 */
+	public static void remove(Region region) {
+		if (region == null)
+			return;
+		VERSION++;
+		if (region.isLocal()) {
+			MemberIndexUtils.remove((LocalRegion) region);
+			unindex((LocalRegion) region);
+		} else if (region.getName() != null) {
+			String world = getWorldKey(region.getName());
+			WorldRegionIndex index = WORLDS.get(world);
+			if (index != null && index.getGlobalRegion() == region) {
+				index.setGlobalRegion(null);
+				if (index.isEmpty())
+					WORLDS.remove(world);
+			}
+		}
+	}
+
+	/**
+	 * Remove a LocalRegion from the spatial index
+	 *
+	 * @param region
+	 *            The LocalRegion
+	 */
+	private static void unindex(LocalRegion region) {
+		RegionIndexEntry entry = ENTRIES.remove(region);
+		if (entry != null) {
+			WorldRegionIndex index = WORLDS.get(entry.getWorld());
+			if (index != null) {
+				index.remove(entry);
+				if (index.isEmpty())
+					WORLDS.remove(entry.getWorld());
+			}
+		}
+	}
+
+	/**
+	 * Check if a Region is in the index
+	 *
+	 * @param region
+	 *            The Region
+	 * @return true if the Region is indexed, false otherwise
+	 */
+	public static boolean isIndexed(Region region) {
+		// LocalRegions without bounds are only in the members index
+		if (region.isLocal())
+			return MemberIndexUtils.isIndexed((LocalRegion) region);
+		if (region.getName() == null)
+			return false;
+		WorldRegionIndex index = WORLDS.get(getWorldKey(region.getName()));
+		return index != null && index.getGlobalRegion() == region;
+	}
+
+	/**
+	 * Get the version of the index. It changes every time a Region is added,
+	 * removed or indexed again
+	 *
+	 * @return The version of the index
+	 */
+	public static long getVersion() {
+		return VERSION;
+	}
+
+	/**
+	 * Get the LocalRegion with the highest priority at a location
+	 *
+	 * @param location
+	 *            The location
+	 * @return The LocalRegion at the given location if exists, null otherwise
+	 */
+	public static LocalRegion getLocalRegion(Location<World> location) {
+		WorldRegionIndex index = WORLDS.get(getWorldKey(location.getExtent().getName()));
+		if (index == null)
+			return null;
+		ChunkRegionStack stack = getStack(index, location);
+		if (stack.isEmpty())
+			return null;
+		RegionIndexEntry[] entries = stack.getEntries();
+		if (stack.isCovered())
+			return entries[0].getRegion();
+		for (RegionIndexEntry entry : entries) {
+			if (RegionUtils.isInRegion(entry.getRegion(), location))
+				return entry.getRegion();
+		}
+		return null;
+	}
+
+	/**
+	 * Get all visible LocalRegions at a location
+	 *
+	 * @param location
+	 *            The location
+	 * @return The LocalRegions at the given location, in the order they have been
+	 *         indexed
+	 */
+	public static ArrayList<LocalRegion> getAllLocalRegionsAt(Location<World> location) {
+		ArrayList<LocalRegion> regions = new ArrayList<LocalRegion>();
+		WorldRegionIndex index = WORLDS.get(getWorldKey(location.getExtent().getName()));
+		if (index == null)
+			return regions;
+		ArrayList<RegionIndexEntry> entries = new ArrayList<RegionIndexEntry>();
+		for (RegionIndexEntry entry : getStack(index, location).getEntries()) {
+			if (!entry.getRegion().getFlag(EnumRegionFlag.HIDE_REGION)
+					&& RegionUtils.isInRegion(entry.getRegion(), location))
+				entries.add(entry);
+		}
+		if (entries.size() > 1)
+			Collections.sort(entries, SEQUENCE_ORDER);
+		for (RegionIndexEntry entry : entries)
+			regions.add(entry.getRegion());
+		return regions;
+	}
+
+	/**
+	 * Get how far a player can move from a location without changing the
+	 * LocalRegions it's in. Only the Regions of the location chunk are checked,
+	 * so the distance never crosses the chunk column
+	 *
+	 * @param location
+	 *            The location
+	 * @return The number of blocks (on the longest axis) a move must be shorter
+	 *         than to keep the same LocalRegions
+	 */
+	public static int getSafeDistance(Location<World> location) {
+		int x = location.getBlockX();
+		int y = location.getBlockY();
+		int z = location.getBlockZ();
+		int chunkX = x >> 4;
+		int chunkZ = z >> 4;
+		int distance = Math.min(Math.min(x - (chunkX << 4), (chunkX << 4) + 15 - x),
+				Math.min(z - (chunkZ << 4), (chunkZ << 4) + 15 - z)) + 1;
+		WorldRegionIndex index = WORLDS.get(getWorldKey(location.getExtent().getName()));
+		if (index != null) {
+			for (RegionIndexEntry entry : getStack(index, location).getEntries())
+				distance = Math.min(distance, entry.getSafeDistance(x, y, z));
+		}
+		return distance;
+	}
+
+	/**
+	 * Check if a flag could deny an event at a location, that is if the
+	 * GlobalRegion or any LocalRegion of the location world and chunk denies
+	 * it. Permissions are not checked
+	 *
+	 * @param flag
+	 *            The flag
+	 * @param location
+	 *            The location
+	 * @return false if no Region could deny the flag at the location, true
+	 *         otherwise
+	 */
+	public static boolean mayDeny(EnumRegionFlag flag, Location<World> location) {
+		String world = getWorldKey(location.getExtent().getName());
+		WorldRegionIndex index = WORLDS.get(world);
+		if (index == null)
+			return false;
+		long flagsVersion = Region.getFlagsVersion();
+		long globalDenied = index.getGlobalRegion() != null ? index.getGlobalRegion().getDeniedFlags() : 0L;
+		FlagSummary summary = index.getSummary();
+		if (!summary.isValid(VERSION, flagsVersion)) {
+			long denied = globalDenied;
+			for (RegionIndexEntry entry : index.getEntries())
+				denied |= entry.getRegion().getDeniedFlags();
+			summary.set(denied, VERSION, flagsVersion);
+		}
+		long bit = 1L << flag.ordinal();
+		if ((summary.getDenied() & bit) == 0L)
+			return false;
+		ChunkRegionStack stack = getStack(index, location);
+		summary = stack.getSummary();
+		if (!summary.isValid(VERSION, flagsVersion)) {
+			long denied = globalDenied;
+			for (RegionIndexEntry entry : stack.getEntries())
+				denied |= entry.getRegion().getDeniedFlags();
+			summary.set(denied, VERSION, flagsVersion);
+		}
+		return (summary.getDenied() & bit) != 0L;
+	}
+
+	/**
+	 * Get the LocalRegions intersecting a box
+	 *
+	 * @param world
+	 *            The world
+	 * @param minX
+	 *            The minimum X coordinate of the box
+	 * @param minY
+	 *            The minimum Y coordinate of the box
+	 * @param minZ
+	 *            The minimum Z coordinate of the box
+	 * @param maxX
+	 *            The maximum X coordinate of the box
+	 * @param maxY
+	 *            The maximum Y coordinate of the box
+	 * @param maxZ
+	 *            The maximum Z coordinate of the box
+	 * @return The LocalRegions intersecting the box, highest priority first
+	 */
+	public static ArrayList<LocalRegion> getLocalRegionsIn(World world, int minX, int minY, int minZ, int maxX,
+			int maxY, int maxZ) {
+		ArrayList<LocalRegion> regions = new ArrayList<LocalRegion>();
+		WorldRegionIndex index = WORLDS.get(getWorldKey(world.getName()));
+		if (index == null)
+			return regions;
+		Set<RegionIndexEntry> found = Collections.newSetFromMap(new IdentityHashMap<RegionIndexEntry, Boolean>());
+		for (int x = minX >> 4; x <= maxX >> 4; x++) {
+			for (int z = minZ >> 4; z <= maxZ >> 4; z++)
+				found.addAll(index.getChunk(x, z));
+		}
+		found.addAll(index.getLargeRegions());
+		ArrayList<RegionIndexEntry> entries = new ArrayList<RegionIndexEntry>();
+		for (RegionIndexEntry entry : found) {
+			if (entry.intersects(minX, minY, minZ, maxX, maxY, maxZ) && entry.getRegion().getBounds() != null
+					&& entry.getRegion().getBounds().isIn(world))
+				entries.add(entry);
+		}
+		Collections.sort(entries, PRIORITY_ORDER);
+		for (RegionIndexEntry entry : entries)
+			regions.add(entry.getRegion());
+		return regions;
+	}
+
+	/**
+	 * Check if the same Region applies to the whole chunk column of a location,
+	 * either because no LocalRegion touches it or because the LocalRegion with
+	 * the highest priority covers it
+	 *
+	 * @param location
+	 *            The location
+	 * @return true if every block of the chunk column is in the same Region,
+	 *         false otherwise
+	 */
+	public static boolean isUniformChunk(Location<World> location) {
+		WorldRegionIndex index = WORLDS.get(getWorldKey(location.getExtent().getName()));
+		if (index == null)
+			return true;
+		ChunkRegionStack stack = getStack(index, location);
+		return stack.isEmpty() || stack.isCovered();
+	}
+
+	/**
+	 * Get the GlobalRegion of a location world
+	 *
+	 * @param location
+	 *            The location
+	 * @return The GlobalRegion of the location world if exists, null otherwise
+	 */
+	public static GlobalRegion getGlobalRegion(Location<World> location) {
+		WorldRegionIndex index = WORLDS.get(getWorldKey(location.getExtent().getName()));
+		return index != null ? index.getGlobalRegion() : null;
+	}
+
+	/**
+	 * Get the resolved Regions of the chunk containing a location, building
+	 * them if they are not cached yet
+	 *
+	 * @param index
+	 *            The world index
+	 * @param location
+	 *            The location
+	 * @return The resolved Regions of the chunk
+	 */
+	private static ChunkRegionStack getStack(WorldRegionIndex index, Location<World> location) {
+		int chunkX = location.getBlockX() >> 4;
+		int chunkZ = location.getBlockZ() >> 4;
+		ChunkRegionStack stack = index.getStack(chunkX, chunkZ);
+		if (stack == null) {
+			ArrayList<RegionIndexEntry> entries = new ArrayList<RegionIndexEntry>(index.getChunk(chunkX, chunkZ));
+			for (RegionIndexEntry entry : index.getLargeRegions()) {
+				if (entry.touchesChunk(chunkX, chunkZ))
+					entries.add(entry);
+			}
+			RegionIndexEntry[] sorted = entries.toArray(new RegionIndexEntry[entries.size()]);
+			Arrays.sort(sorted, PRIORITY_ORDER);
+			// The location is used to check that world and dimension match
+			boolean covered = sorted.length > 0
+					&& sorted[0].coversChunk(chunkX, chunkZ, location.getExtent().getBlockMin().getY(),
+							location.getExtent().getBlockMax().getY())
+					&& RegionUtils.isInRegion(sorted[0].getRegion(), location);
+			stack = new ChunkRegionStack(sorted, covered);
+			index.setStack(chunkX, chunkZ, stack);
+		}
+		return stack;
+	}
+
+	/**
+	 * Get the index of a world, creating it if it doesn't exists
+	 *
+	 * @param world
+	 *            The world key
+	 * @return The index of the world
+	 */
+	private static WorldRegionIndex getOrCreateWorld(String world) {
+		WorldRegionIndex index = WORLDS.get(world);
+		if (index == null) {
+			index = new WorldRegionIndex();
+			WORLDS.put(world, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Get the key used to index a world
+	 *
+	 * @param world
+	 *            The world name
+	 * @return The world key
+	 */
+	private static String getWorldKey(String world) {
+		return world.toLowerCase();
+	}
+}
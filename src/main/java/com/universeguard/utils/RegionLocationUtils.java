@@ -100,5 +100,6 @@ public class RegionLocationUtils {
 				region.setSecondPoint(new RegionLocation(secondPoint.getX(), secondPoint.getY(), secondPoint.getZ() - blocks, secondPoint.getDimension(), secondPoint.getWorld()));
 			break;
 		}
+		RegionIndexUtils.refresh(region);
 	}
 }
@@ -0,0 +1,157 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.spongepowered.api.scheduler.Task;
+
+import com.universeguard.UniverseGuard;
+import com.universeguard.region.Region;
+
+/**
+ * Utility class for upgrading Regions saved by older versions.
+ * Regions are upgraded in memory while loading and saved a few at a time
+ * @author Jimi
+ *
+ */
+public class RegionMigrationUtils {
+
+	// Migration steps by the Region version they upgrade to
+	private static final TreeMap<Float, ArrayList<Consumer<Region>>> STEPS = new TreeMap<Float, ArrayList<Consumer<Region>>>();
+	// Migrated Regions waiting to be saved, with the file to delete if it changed
+	private static LinkedHashMap<Region, File> PENDING = new LinkedHashMap<Region, File>();
+	// Whether a migrated Region got a new ID, so the index has to be saved
+	private static boolean INDEX_CHANGED = false;
+	// The task saving the migrated Regions, null if nothing is waiting
+	private static Task SAVE_TASK;
+
+	static {
+		// Regions saved before IDs were added
+		register(UniverseGuard.REGION_VERSION, region -> {
+			if (region.getId() == null)
+				region.setId(UUID.randomUUID());
+		});
+		// Flags added or removed in this version
+		register(UniverseGuard.REGION_VERSION, Region::updateFlags);
+	}
+
+	/**
+	 * Register a migration step. The step is applied to Regions saved by a version older than the given one
+	 * @param version The Region version the step upgrades to
+	 * @param step The migration step
+	 */
+	public static void register(float version, Consumer<Region> step) {
+		if (!STEPS.containsKey(version))
+			STEPS.put(version, new ArrayList<Consumer<Region>>());
+		STEPS.get(version).add(step);
+	}
+
+	/**
+	 * Upgrade the Regions to the latest Region version and queue them to be saved
+	 * @param regions The loaded Regions
+	 * @return The number of migrated Regions
+	 */
+	public static int migrate(ArrayList<Region> regions) {
+		int migrated = 0;
+		for (Region region : regions) {
+			if (region.getVersion() == UniverseGuard.REGION_VERSION)
+				continue;
+			File file = RegionStorageUtils.getFile(region);
+			// Regions saved by a newer version only get the version number
+			if (region.getVersion() < UniverseGuard.REGION_VERSION) {
+				for (ArrayList<Consumer<Region>> steps : STEPS.subMap(region.getVersion(), false, UniverseGuard.REGION_VERSION, true).values()) {
+					for (Consumer<Region> step : steps)
+						step.accept(region);
+				}
+			}
+			region.setVersion(UniverseGuard.REGION_VERSION);
+			File newFile = RegionStorageUtils.getFile(region);
+			if (!newFile.equals(file))
+				INDEX_CHANGED = true;
+			PENDING.put(region, newFile.equals(file) ? null : file);
+			migrated++;
+		}
+		if (migrated > 0)
+			schedule();
+		return migrated;
+	}
+
+	/**
+	 * Get the number of migrated Regions waiting to be saved
+	 * @return The number of pending Regions
+	 */
+	public static int getPending() {
+		return PENDING.size();
+	}
+
+	/**
+	 * Check if a Region has been migrated but not saved yet
+	 * @param region The Region
+	 * @return true if the Region is waiting to be saved, false otherwise
+	 */
+	public static boolean isPending(Region region) {
+		return PENDING.containsKey(region);
+	}
+
+	/**
+	 * Schedule the task saving the migrated Regions if there isn't one already
+	 */
+	private static void schedule() {
+		if (SAVE_TASK != null)
+			return;
+		// Regions are loaded before being set as the loaded ones, so the first batch waits a tick
+		SAVE_TASK = Task.builder()
+			.execute(() -> save(UniverseGuard.MIGRATION_BATCH > 0 ? UniverseGuard.MIGRATION_BATCH : Integer.MAX_VALUE))
+			.delayTicks(1)
+			.intervalTicks(1)
+			.name("Region Migration Task")
+			.submit(UniverseGuard.INSTANCE);
+	}
+
+	/**
+	 * Queue all the migrated Regions to be saved
+	 */
+	public static void flush() {
+		save(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Queue some migrated Regions to be saved. Regions removed or reloaded since
+	 * they were migrated are not indexed anymore and are skipped
+	 * @param count The number of Regions to save
+	 */
+	private static void save(int count) {
+		Iterator<Entry<Region, File>> iterator = PENDING.entrySet().iterator();
+		while (iterator.hasNext() && count-- > 0) {
+			Entry<Region, File> entry = iterator.next();
+			iterator.remove();
+			if (!RegionIndexUtils.isIndexed(entry.getKey()))
+				continue;
+			RegionStorageUtils.save(RegionStorageUtils.getFile(entry.getKey()), entry.getKey());
+			if (entry.getValue() != null)
+				RegionStorageUtils.delete(entry.getValue());
+		}
+		if (PENDING.isEmpty()) {
+			if (INDEX_CHANGED)
+				RegionStorageUtils.saveIndex();
+			INDEX_CHANGED = false;
+			if (SAVE_TASK != null) {
+				SAVE_TASK.cancel();
+				SAVE_TASK = null;
+			}
+		}
+	}
+}
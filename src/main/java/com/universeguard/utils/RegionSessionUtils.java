@@ -0,0 +1,136 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.event.entity.MoveEntityEvent;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import com.universeguard.event.RegionTransitionHandler;
+import com.universeguard.region.Region;
+import com.universeguard.region.components.RegionSession;
+
+/**
+ * 
+ * Utility class for the Region each player is in
+ * @author Jimi
+ *
+ */
+public class RegionSessionUtils {
+	
+	// Sessions by player
+	private static HashMap<UUID, RegionSession> SESSIONS = new HashMap<UUID, RegionSession>();
+	// Handlers notified when a player moves from a Region to another one, in order
+	private static ArrayList<RegionTransitionHandler> HANDLERS = new ArrayList<RegionTransitionHandler>();
+	// Moves that changed block
+	private static long MOVE_CHECKS = 0;
+	// Moves that stayed within the safe distance and didn't resolve any Region
+	private static long SKIPPED_CHECKS = 0;
+	
+	/**
+	 * Add a handler notified when a player moves from a Region to another one.
+	 * Handlers are called in the order they have been added
+	 * @param handler The handler
+	 */
+	public static void addHandler(RegionTransitionHandler handler) {
+		HANDLERS.add(handler);
+	}
+	
+	/**
+	 * Handle a player movement. The Regions are resolved only if the player moved out of
+	 * the safe distance of its session and the handlers are notified only if the player changed Region
+	 * @param event The move event
+	 * @param player The player
+	 */
+	public static void handleMove(MoveEntityEvent event, Player player) {
+		Location<World> from = event.getFromTransform().getLocation();
+		Location<World> to = event.getToTransform().getLocation();
+		if(from.getExtent().equals(to.getExtent()) && from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+				&& from.getBlockZ() == to.getBlockZ())
+			return;
+		MOVE_CHECKS++;
+		long version = RegionIndexUtils.getVersion();
+		RegionSession session = getSession(player);
+		boolean fromSession = session.isWithin(from, version);
+		if(fromSession && session.isWithin(to, version)) {
+			SKIPPED_CHECKS++;
+			return;
+		}
+		Region regionFrom = fromSession ? session.getRegion() : RegionUtils.getRegion(from);
+		Region regionTo = RegionUtils.getRegion(to);
+		if(regionFrom != null && regionTo != null && regionFrom != regionTo) {
+			for(RegionTransitionHandler handler : HANDLERS) {
+				handler.handleTransition(event, player, regionFrom, regionTo);
+				if(event.isCancelled())
+					break;
+			}
+		}
+		if(event.isCancelled())
+			session.update(from, regionFrom, version, RegionIndexUtils.getSafeDistance(from));
+		else
+			session.update(to, regionTo, version, RegionIndexUtils.getSafeDistance(to));
+	}
+	
+	/**
+	 * Get the Region a player is in, resolving it only if the player moved
+	 * or the Regions changed since the last time
+	 * @param player The player
+	 * @return The Region the player is in
+	 */
+	public static Region getCurrentRegion(Player player) {
+		Location<World> location = player.getLocation();
+		long version = RegionIndexUtils.getVersion();
+		RegionSession session = getSession(player);
+		if(!session.isWithin(location, version))
+			session.update(location, RegionUtils.getRegion(location), version, RegionIndexUtils.getSafeDistance(location));
+		return session.getRegion();
+	}
+	
+	/**
+	 * Get the number of moves that changed block
+	 * @return The number of moves checked
+	 */
+	public static long getMoveChecks() {
+		return MOVE_CHECKS;
+	}
+	
+	/**
+	 * Get the number of moves that didn't need to resolve any Region
+	 * @return The number of moves skipped
+	 */
+	public static long getSkippedChecks() {
+		return SKIPPED_CHECKS;
+	}
+	
+	/**
+	 * Remove the session of a player
+	 * @param player The player
+	 */
+	public static void remove(Player player) {
+		SESSIONS.remove(player.getUniqueId());
+	}
+	
+	/**
+	 * Get the session of a player, creating it if it doesn't exists
+	 * @param player The player
+	 * @return The session of the player
+	 */
+	private static RegionSession getSession(Player player) {
+		RegionSession session = SESSIONS.get(player.getUniqueId());
+		if(session == null) {
+			session = new RegionSession();
+			SESSIONS.put(player.getUniqueId(), session);
+		}
+		return session;
+	}
+}
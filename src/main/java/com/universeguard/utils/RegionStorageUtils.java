@@ -0,0 +1,370 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.api.text.format.TextColors;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.universeguard.UniverseGuard;
+import com.universeguard.region.Region;
+import com.universeguard.region.enums.RegionText;
+import com.universeguard.storage.JournalRegionStore;
+import com.universeguard.storage.JsonRegionStore;
+import com.universeguard.storage.RegionStore;
+import com.universeguard.storage.RegionTypeAdapterFactory;
+import com.universeguard.storage.SqlRegionStore;
+
+/**
+ * Utility class for writing Regions to the storage engine.
+ * Saves are queued and coalesced, then written by a background thread
+ * @author Jimi
+ *
+ */
+public class RegionStorageUtils {
+
+	// Gson used to write Region files. Gson instances are thread safe
+	private static final Gson GSON = RegionTypeAdapterFactory.builder().serializeNulls().create();
+	// Files waiting to be written. A null Region means the file has to be deleted
+	private static LinkedHashMap<File, Region> PENDING = new LinkedHashMap<File, Region>();
+	// Whether the index file has to be written
+	private static boolean INDEX_PENDING = false;
+	// The scheduled flush task, null if no flush is scheduled
+	private static Task FLUSH_TASK;
+	// The thread writing the files
+	private static ExecutorService WRITER;
+	// The storage engine
+	private static RegionStore STORE;
+	// The last batch sent to the writer thread
+	private static Future<?> WRITE;
+	// Whether the last batch written to the storage engine failed. Set by the writer thread
+	private static volatile boolean WRITE_FAILED = false;
+
+	/**
+	 * Get the storage engine set in the configuration
+	 * @return The storage engine
+	 */
+	public static RegionStore getStore() {
+		if(STORE == null) {
+			if(UniverseGuard.STORAGE_ENGINE.equalsIgnoreCase("journal"))
+				STORE = new JournalRegionStore();
+			else if(UniverseGuard.STORAGE_ENGINE.equalsIgnoreCase("database"))
+				STORE = new SqlRegionStore();
+			else
+				STORE = new JsonRegionStore();
+		}
+		return STORE;
+	}
+
+	/**
+	 * Load all the Regions from the storage engine
+	 * @return The list of all Regions
+	 */
+	public static ArrayList<Region> load() {
+		return getStore().load();
+	}
+
+	/**
+	 * Get the JSON file of a Region. Regions saved before IDs were added use their name
+	 * @param region The Region
+	 * @return The Region file
+	 */
+	public static File getFile(Region region) {
+		return region.getId() != null ? RegionUtils.getFile(region) : RegionUtils.getFileByName(region);
+	}
+
+	/**
+	 * Get the key of a Region file, like "regions/id.json"
+	 * @param file The Region file
+	 * @return The key
+	 */
+	public static String getKey(File file) {
+		return file.getParentFile().getName() + "/" + file.getName();
+	}
+
+	/**
+	 * Check if a key is the one of a Local Region
+	 * @param key The key
+	 * @return true if the key is inside the Local Regions folder, false otherwise
+	 */
+	public static boolean isLocal(String key) {
+		return key.startsWith(RegionUtils.getRegionFolder().getName() + "/");
+	}
+
+	/**
+	 * Queue a Region to be written to a file
+	 * @param file The file
+	 * @param region The Region
+	 */
+	public static void save(File file, Region region) {
+		PENDING.put(file, region);
+		schedule();
+	}
+
+	/**
+	 * Queue a file to be deleted
+	 * @param file The file
+	 */
+	public static void delete(File file) {
+		PENDING.put(file, null);
+		schedule();
+	}
+
+	/**
+	 * Queue the index file to be written
+	 */
+	public static void saveIndex() {
+		INDEX_PENDING = true;
+		schedule();
+	}
+
+	/**
+	 * Check if a Region is waiting to be written to a file
+	 * @param file The file
+	 * @return true if the file will be written, false otherwise
+	 */
+	public static boolean isPending(File file) {
+		return PENDING.get(file) != null;
+	}
+
+	/**
+	 * Get the number of files waiting to be written
+	 * @return The number of pending files
+	 */
+	public static int getPending() {
+		return PENDING.size() + (INDEX_PENDING ? 1 : 0);
+	}
+
+	/**
+	 * Check if a batch is still being written. Batches are written in order,
+	 * so the store is up to date with the Regions once the last one is done
+	 * @return true if the writer thread is writing, false otherwise
+	 */
+	public static boolean isWriting() {
+		return WRITE != null && !WRITE.isDone();
+	}
+
+	/**
+	 * Check if the last batch written to the storage engine failed.
+	 * The storage engine may not have the latest Regions until a batch is written again
+	 * @return true if the last write failed, false otherwise
+	 */
+	public static boolean hasWriteFailed() {
+		return WRITE_FAILED;
+	}
+
+	/**
+	 * Schedule a flush of the pending files if there isn't one already
+	 */
+	private static void schedule() {
+		if(FLUSH_TASK != null)
+			return;
+		if(UniverseGuard.INSTANCE == null || UniverseGuard.SAVE_DELAY <= 0) {
+			flush();
+			return;
+		}
+		FLUSH_TASK = Task.builder()
+			.execute(() -> flush())
+			.delay(UniverseGuard.SAVE_DELAY, TimeUnit.MILLISECONDS)
+			.name("Region Save Task")
+			.submit(UniverseGuard.INSTANCE);
+	}
+
+	/**
+	 * Take a snapshot of the pending Regions and write them in background.
+	 * Must be called from the main thread
+	 * @return The Future of the write, null if nothing was pending
+	 */
+	public static Future<?> flush() {
+		if(FLUSH_TASK != null) {
+			FLUSH_TASK.cancel();
+			FLUSH_TASK = null;
+		}
+		if(PENDING.isEmpty() && !INDEX_PENDING)
+			return null;
+		final LinkedHashMap<File, JsonElement> snapshot = new LinkedHashMap<File, JsonElement>();
+		for(Entry<File, Region> entry : PENDING.entrySet())
+			snapshot.put(entry.getKey(), entry.getValue() != null ? GSON.toJsonTree(entry.getValue()) : null);
+		final RegionStore store = getStore();
+		JsonElement index = null;
+		if(INDEX_PENDING && store.usesIndex()) {
+			HashMap<String, UUID> regions = new HashMap<String, UUID>();
+			for (Region region : UniverseGuard.ALL_REGIONS)
+				regions.put(region.getName(), region.getId());
+			index = GSON.toJsonTree(regions);
+		}
+		final JsonElement indexSnapshot = index;
+		PENDING.clear();
+		INDEX_PENDING = false;
+		WRITE = getWriter().submit(() -> write(store, snapshot, indexSnapshot));
+		return WRITE;
+	}
+
+	/**
+	 * Write all the Regions to the JSON files, whatever the storage engine is,
+	 * and delete the JSON files of Regions that don't exist anymore.
+	 * Must be called from the main thread
+	 * @return The Future of the write
+	 */
+	public static Future<?> export() {
+		final LinkedHashMap<File, JsonElement> snapshot = new LinkedHashMap<File, JsonElement>();
+		HashMap<String, UUID> regions = new HashMap<String, UUID>();
+		for (Region region : UniverseGuard.ALL_REGIONS) {
+			snapshot.put(getFile(region), GSON.toJsonTree(region));
+			regions.put(region.getName(), region.getId());
+		}
+		// JSON files of Regions that don't exist anymore
+		for (File folder : new File[] { RegionUtils.getRegionFolder(), RegionUtils.getGlobalRegionFolder() }) {
+			File[] files = folder.listFiles((directory, name) -> name.endsWith(".json"));
+			if (files != null) {
+				for (File file : files) {
+					if (!snapshot.containsKey(file))
+						snapshot.put(file, null);
+				}
+			}
+		}
+		final JsonElement index = GSON.toJsonTree(regions);
+		WRITE = getWriter().submit(() -> write(new JsonRegionStore(), snapshot, index));
+		return WRITE;
+	}
+
+	/**
+	 * Write the pending Regions and wait until they are on disk
+	 */
+	public static void flushAndWait() {
+		Future<?> future = flush();
+		if(future != null) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				LogUtils.log(e);
+			}
+		}
+	}
+
+	/**
+	 * Write the pending Regions and stop the writer thread
+	 */
+	public static void shutdown() {
+		flushAndWait();
+		if(WRITER != null) {
+			WRITER.shutdown();
+			try {
+				WRITER.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			WRITER = null;
+		}
+		if(STORE != null) {
+			STORE.close();
+			STORE = null;
+		}
+	}
+
+	/**
+	 * Get the writer thread, creating it if needed
+	 * @return The writer thread
+	 */
+	private static ExecutorService getWriter() {
+		if(WRITER == null) {
+			WRITER = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, UniverseGuard.NAME + " Region Writer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return WRITER;
+	}
+
+	/**
+	 * Write a snapshot of the pending Regions. Called from the writer thread
+	 * @param store The storage engine
+	 * @param snapshot The Regions to write, null values are Regions to remove
+	 * @param index The index to write, null if the index didn't change
+	 */
+	private static void write(RegionStore store, LinkedHashMap<File, JsonElement> snapshot, JsonElement index) {
+		// Exports don't change what the storage engine has
+		boolean tracked = store == STORE;
+		try {
+			store.write(snapshot, index);
+			if (tracked)
+				WRITE_FAILED = false;
+		} catch (IOException | RuntimeException e) {
+			if (tracked)
+				WRITE_FAILED = true;
+			LogUtils.log(e);
+			LogUtils.print(TextColors.RED, RegionText.REGION_SAVE_EXCEPTION.getValue());
+		}
+	}
+
+	/**
+	 * Write a file through a temporary file, so a crash never leaves it half written
+	 * @param file The file
+	 * @param content The content of the file
+	 * @throws IOException If the file can't be written
+	 */
+	public static void write(File file, String content) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.exists())
+			directory.mkdirs();
+		File temp = new File(directory, file.getName() + ".tmp");
+		FileOutputStream stream = new FileOutputStream(temp);
+		try {
+			Writer writer = new OutputStreamWriter(stream);
+			writer.write(content);
+			writer.flush();
+			stream.getFD().sync();
+		} finally {
+			stream.close();
+		}
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		sync(directory);
+	}
+
+	/**
+	 * Flush a directory to the disk, so a renamed file survives a crash.
+	 * Platforms that can't open a directory, like Windows, are skipped
+	 * @param directory The directory
+	 */
+	private static void sync(File directory) {
+		try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// Directories can't be synced on this platform
+		}
+	}
+}
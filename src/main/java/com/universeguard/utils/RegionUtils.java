@@ -11,20 +11,28 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.UUID;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 import org.spongepowered.api.Sponge;
+import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.command.CommandSource;
+import org.spongepowered.api.data.Transaction;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.block.ChangeBlockEvent;
 import org.spongepowered.api.scoreboard.Scoreboard;
 import org.spongepowered.api.scoreboard.critieria.Criteria;
 import org.spongepowered.api.scoreboard.displayslot.DisplaySlots;
@@ -36,7 +44,6 @@ import org.spongepowered.api.world.Location;
 import org.spongepowered.api.world.World;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -61,6 +68,8 @@ import com.universeguard.region.enums.RegionPermission;
 import com.universeguard.region.enums.RegionRole;
 import com.universeguard.region.enums.RegionText;
 import com.universeguard.region.enums.RegionType;
+import com.universeguard.region.index.WorldRegionIndex;
+import com.universeguard.storage.RegionTypeAdapterFactory;
 
 /**
  * 
@@ -73,53 +82,45 @@ public class RegionUtils {
 
 	// Pending Regions
 	private static HashMap<CommandSource, Region> PENDINGS = new HashMap<CommandSource, Region>();
+	// Gson used to load Regions, shared by the loader threads
+	private static final Gson LOAD_GSON = RegionTypeAdapterFactory.builder().create();
+
+	static {
+		// Build the Region adapters now instead of on the first loaded file
+		LOAD_GSON.getAdapter(LocalRegion.class);
+		LOAD_GSON.getAdapter(GlobalRegion.class);
+	}
 
 	/**
 	 * Save a Region to a JSON file
 	 * 
 	 * @param region
 	 *            The Region
-	 * @return true if the Region has been saved correctly, false otherwise
+	 * @return true if the Region has been saved correctly, false if the last
+	 *         write to the storage engine failed
 	 */
 	public static boolean save(Region region) {
-		Gson gson = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
-		FileWriter fileWriter = null;
-		try {
-			File directory = region.isLocal() ? getRegionFolder() : getGlobalRegionFolder();
-			if (!directory.exists())
-				directory.mkdirs();
-			File file = getFile(region);
-			if (!file.exists())
-				file.createNewFile();
-			fileWriter = new FileWriter(file);
-			fileWriter.write(gson.toJson(region));
-			Region cachedRegion = null;
-			for (Region cached : UniverseGuard.ALL_REGIONS) {
-				if (cached.getId() != null && cached.getId().compareTo(region.getId()) == 0) {
-					cachedRegion = cached;
-					break;
-				}
-			}
-			if (cachedRegion != null) {
-				UniverseGuard.ALL_REGIONS.remove(cachedRegion);
-			}
-			UniverseGuard.ALL_REGIONS.add(region);
-			saveIndex();
-			return true;
-		} catch (IOException e) {
-			LogUtils.log(e);
-			LogUtils.print(TextColors.RED, RegionText.REGION_SAVE_EXCEPTION.getValue());
-			return false;
-		} finally {
-			if (fileWriter != null) {
-				try {
-					fileWriter.close();
-				} catch (IOException e) {
-					LogUtils.log(e);
-					LogUtils.print(RegionText.REGION_WRITER_CLOSE_EXCEPTION.getValue());
-				}
+		File file = getFile(region);
+		Region cachedRegion = null;
+		for (Region cached : UniverseGuard.ALL_REGIONS) {
+			if (cached.getId() != null && cached.getId().compareTo(region.getId()) == 0) {
+				cachedRegion = cached;
+				break;
 			}
 		}
+		if (cachedRegion != null) {
+			UniverseGuard.ALL_REGIONS.remove(cachedRegion);
+			RegionIndexUtils.remove(cachedRegion);
+			RegionBodyUtils.remove(cachedRegion);
+		}
+		UniverseGuard.ALL_REGIONS.add(region);
+		RegionIndexUtils.add(region);
+		RegionBodyUtils.add(region);
+		EventUtils.updateFlagEvents();
+		RegionStorageUtils.save(file, region);
+		saveIndex();
+		// The Region is still queued, but it's not reported as saved while the storage engine can't be written
+		return !RegionStorageUtils.hasWriteFailed();
 	}
 
 	/**
@@ -137,14 +138,9 @@ public class RegionUtils {
 		newRegion.setFarewellMessage(region.getFarewellMessage());
 		newRegion.setGreetingMessage(region.getGreetingMessage());
 		if (!UniverseGuard.UNIQUE_REGIONS) {
-			newRegion.setMembers(region.getMembers());
+			newRegion.setMembers(new ArrayList<RegionMember>(region.getMembers()));
 		}
-		newRegion.setFlags(region.getFlags());
-		newRegion.setInteracts(region.getInteracts());
-		newRegion.setVehicles(region.getVehicles());
-		newRegion.setExplosions(region.getExplosions());
-		newRegion.setMobs(region.getMobs());
-		newRegion.setCommands(region.getCommands());
+		newRegion.copyFlags(region);
 		return newRegion;
 	}
 
@@ -156,12 +152,11 @@ public class RegionUtils {
 	 * @return true if the Region has been removed correctly, false otherwise
 	 */
 	public static boolean remove(Region region) {
-		File directory = region.isLocal() ? getRegionFolder() : getGlobalRegionFolder();
-		if (!directory.exists())
-			return false;
-		File file = getFile(region);
-		if (file.exists() && file.delete()) {
-			UniverseGuard.ALL_REGIONS.remove(region);
+		if (UniverseGuard.ALL_REGIONS.remove(region)) {
+			RegionStorageUtils.delete(getFile(region));
+			RegionIndexUtils.remove(region);
+			RegionBodyUtils.remove(region);
+			EventUtils.updateFlagEvents();
 			saveIndex();
 			return true;
 		}
@@ -176,12 +171,11 @@ public class RegionUtils {
 	 * @return true if the Region has been removed correctly, false otherwise
 	 */
 	public static boolean removeByName(Region region) {
-		File directory = region.isLocal() ? getRegionFolder() : getGlobalRegionFolder();
-		if (!directory.exists())
-			return false;
-		File file = getFileByName(region);
-		if (file.exists() && file.delete()) {
-			UniverseGuard.ALL_REGIONS.remove(region);
+		if (UniverseGuard.ALL_REGIONS.remove(region)) {
+			RegionStorageUtils.delete(getFileByName(region));
+			RegionIndexUtils.remove(region);
+			RegionBodyUtils.remove(region);
+			EventUtils.updateFlagEvents();
 			saveIndex();
 			return true;
 		}
@@ -192,33 +186,7 @@ public class RegionUtils {
 	 * Save a Regions index file
 	 */
 	public static void saveIndex() {
-		Gson gson = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
-		FileWriter fileWriter = null;
-		try {
-			File directory = new File(getConfigFolder());
-			if (!directory.exists())
-				directory.mkdirs();
-			File file = new File(getConfigFolder() + "/" + "index.json");
-			if (!file.exists())
-				file.createNewFile();
-			fileWriter = new FileWriter(file);
-			HashMap<String, UUID> regions = new HashMap<String, UUID>();
-			for (Region region : UniverseGuard.ALL_REGIONS)
-				regions.put(region.getName(), region.getId());
-			fileWriter.write(gson.toJson(regions));
-		} catch (IOException e) {
-			LogUtils.log(e);
-			LogUtils.print(TextColors.RED, RegionText.REGION_SAVE_INDEX_EXCEPTION.getValue());
-		} finally {
-			if (fileWriter != null) {
-				try {
-					fileWriter.close();
-				} catch (IOException e) {
-					LogUtils.log(e);
-					LogUtils.print(RegionText.REGION_WRITER_INDEX_CLOSE_EXCEPTION.getValue());
-				}
-			}
-		}
+		RegionStorageUtils.saveIndex();
 	}
 
 	/**
@@ -252,58 +220,20 @@ public class RegionUtils {
 	}
 
 	/**
-	 * Update a Region to the latest RegionVersion
+	 * Get All Regions
 	 * 
-	 * @param region
-	 *            The Region to update
+	 * @return The list of all Regions
 	 */
-	public static void update(Region region) {
-		boolean removeOld = false;
-		if (region.isLocal()) {
-			LocalRegion newRegion = new LocalRegion(region.getName(), ((LocalRegion) region).getFirstPoint(),
-					((LocalRegion) region).getSecondPoint());
-			newRegion.setMembers(((LocalRegion) region).getMembers());
-			newRegion.setPriority(((LocalRegion) region).getPriority());
-			if (((LocalRegion) region).getSpawnLocation() != null)
-				newRegion.setSpawnLocation(((LocalRegion) region).getSpawnLocation());
-			if (((LocalRegion) region).getTeleportLocation() != null)
-				newRegion.setTeleportLocation(((LocalRegion) region).getTeleportLocation());
-			newRegion.setFlags(region.getFlags());
-			newRegion.setCommands(region.getCommands());
-			newRegion.setInteracts(region.getInteracts());
-			newRegion.setVehicles(region.getVehicles());
-			newRegion.setExplosions(region.getExplosions());
-			newRegion.setMobs(region.getMobs());
-			newRegion.setGamemode(region.getGameMode());
-			newRegion.setName(region.getName());
-			newRegion.updateFlags();
-			removeOld = save(newRegion);
-		} else {
-			GlobalRegion newRegion = new GlobalRegion(region.getName());
-			newRegion.setFlags(region.getFlags());
-			newRegion.setGamemode(region.getGameMode());
-			newRegion.setCommands(region.getCommands());
-			newRegion.setInteracts(region.getInteracts());
-			newRegion.setVehicles(region.getVehicles());
-			newRegion.setExplosions(region.getExplosions());
-			newRegion.setMobs(region.getMobs());
-			newRegion.updateFlags();
-			removeOld = save(newRegion);
-		}
-		if (removeOld) {
-			if (region.getId() == null)
-				removeByName(region);
-			else
-				remove(region);
-		}
+	public static ArrayList<Region> getAllRegions() {
+		return RegionStorageUtils.load();
 	}
 
 	/**
-	 * Get All Regions
+	 * Get All Regions from the JSON files
 	 * 
-	 * @return The list of all Regions
+	 * @return The list of all Regions saved as JSON files
 	 */
-	public static ArrayList<Region> getAllRegions() {
+	public static ArrayList<Region> getJsonRegions() {
 		ArrayList<Region> regions = new ArrayList<Region>();
 		if (getRegionFolder().exists())
 			regions.addAll(loadRegions(getRegionFolder(), RegionType.LOCAL));
@@ -474,37 +404,83 @@ public class RegionUtils {
 	 */
 	public static ArrayList<Region> loadRegions(File directory, RegionType type) {
 		ArrayList<Region> regions = new ArrayList<Region>();
-		for (File file : directory.listFiles()) {
-			Gson gson = new Gson();
-			BufferedReader bufferedReader = null;
-			try {
-				bufferedReader = new BufferedReader(new FileReader(file));
-				if (type == RegionType.LOCAL) {
-					LocalRegion region = gson.fromJson(bufferedReader, LocalRegion.class);
-					if (region != null)
-						regions.add(region);
-				} else {
-					GlobalRegion region = gson.fromJson(bufferedReader, GlobalRegion.class);
+		File[] files = directory.listFiles();
+		if (files == null || files.length == 0)
+			return regions;
+		ArrayList<Callable<Region>> tasks = new ArrayList<Callable<Region>>();
+		for (File file : files) {
+			// Skip files left by an interrupted write
+			if (!file.getName().endsWith(".tmp"))
+				tasks.add(() -> loadRegion(file, type));
+		}
+		int threads = Math.max(1, Math.min(tasks.size(), Math.min(Runtime.getRuntime().availableProcessors(), 8)));
+		ExecutorService loader = Executors.newFixedThreadPool(threads);
+		try {
+			for (Future<Region> future : loader.invokeAll(tasks)) {
+				try {
+					Region region = future.get();
 					if (region != null)
 						regions.add(region);
-				}
-			} catch (FileNotFoundException e) {
-				LogUtils.log(e);
-				LogUtils.print(TextColors.RED, RegionText.REGION_LOAD_EXCEPTION.getValue());
-			} finally {
-				if (bufferedReader != null) {
-					try {
-						bufferedReader.close();
-					} catch (IOException e) {
-						LogUtils.log(e);
-						LogUtils.print(TextColors.RED, RegionText.REGION_READER_CLOSE_EXCEPTION.getValue());
-					}
+				} catch (ExecutionException e) {
+					LogUtils.log(e);
 				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			loader.shutdown();
 		}
 		return regions;
 	}
 
+	/**
+	 * Load a Region from a JSON file. Corrupt files are reported and skipped
+	 * 
+	 * @param file
+	 *            The file
+	 * @param type
+	 *            The RegionType of the Region
+	 * @return The Region, null if the file can't be read
+	 */
+	private static Region loadRegion(File file, RegionType type) {
+		try {
+			return readRegion(file, type);
+		} catch (IOException | RuntimeException e) {
+			// The compact adapters also throw IllegalStateException, NumberFormatException and others on bad input
+			LogUtils.log(e);
+			LogUtils.print(TextColors.RED, RegionText.REGION_CORRUPT.getValue() + ": " + file.getPath());
+			return null;
+		}
+	}
+
+	/**
+	 * Read a Region from a JSON file
+	 * 
+	 * @param file
+	 *            The file
+	 * @param type
+	 *            The RegionType of the Region
+	 * @return The Region
+	 * @throws IOException
+	 *             If the file can't be read
+	 */
+	public static Region readRegion(File file, RegionType type) throws IOException {
+		BufferedReader bufferedReader = null;
+		try {
+			bufferedReader = new BufferedReader(new FileReader(file));
+			return LOAD_GSON.fromJson(bufferedReader, type == RegionType.LOCAL ? LocalRegion.class : GlobalRegion.class);
+		} finally {
+			if (bufferedReader != null) {
+				try {
+					bufferedReader.close();
+				} catch (IOException e) {
+					LogUtils.log(e);
+					LogUtils.print(TextColors.RED, RegionText.REGION_READER_CLOSE_EXCEPTION.getValue());
+				}
+			}
+		}
+	}
+
 	/**
 	 * Set the pending Region for a player
 	 * 
@@ -835,11 +811,7 @@ public class RegionUtils {
 	 *         otherwise
 	 */
 	public static RegionMember getMember(LocalRegion region, Player player) {
-		for (RegionMember member : region.getMembers()) {
-			if (member.getUUID().equals(player.getUniqueId()))
-				return member;
-		}
-		return null;
+		return region.getMember(player.getUniqueId());
 	}
 
 	/**
@@ -853,11 +825,7 @@ public class RegionUtils {
 	 *         otherwise
 	 */
 	public static RegionMember getMember(LocalRegion region, UUID player) {
-		for (RegionMember member : region.getMembers()) {
-			if (member.getUUID().equals(player))
-				return member;
-		}
-		return null;
+		return region.getMember(player);
 	}
 	
 	/**
@@ -903,8 +871,8 @@ public class RegionUtils {
 	 */
 	public static boolean isOwner(Region region, Player player) {
 		if (region.isLocal()) {
-			return isMember(region, player)
-					&& getMember((LocalRegion) region, player).getRole().equals(RegionRole.OWNER);
+			RegionMember member = getMember((LocalRegion) region, player);
+			return member != null && RegionRole.OWNER.equals(member.getRole());
 		}
 		return false;
 	}
@@ -930,11 +898,7 @@ public class RegionUtils {
 	 * @return true if the player has a Region, false otherwise
 	 */
 	public static boolean hasRegion(Player player) {
-		for (Region region : UniverseGuard.ALL_REGIONS) {
-			if (isMember(region, player))
-				return true;
-		}
-		return false;
+		return MemberIndexUtils.hasRegion(player.getUniqueId());
 	}
 
 	/**
@@ -945,11 +909,20 @@ public class RegionUtils {
 	 * @return true if the player has a Region, false otherwise
 	 */
 	public static boolean hasRegionByUUID(UUID player) {
-		for (Region region : UniverseGuard.ALL_REGIONS) {
-			if (isMemberByUUID(region, player))
-				return true;
-		}
-		return false;
+		return MemberIndexUtils.hasRegion(player);
+	}
+
+	/**
+	 * Get the Regions a player is a member of with a role
+	 * 
+	 * @param player
+	 *            The player's UUID
+	 * @param role
+	 *            The role, null for any role
+	 * @return The Regions the player is a member of with the given role
+	 */
+	public static ArrayList<LocalRegion> getRegionsByMember(UUID player, RegionRole role) {
+		return MemberIndexUtils.getRegions(player, role);
 	}
 
 	/**
@@ -961,7 +934,7 @@ public class RegionUtils {
 	 *            The page to display
 	 */
 	public static void printHelpHeader(CommandSource source, int page) {
-		MessageUtils.sendMessage(source, RegionText.HELP.getValue() + "(" + String.valueOf(page) + "/5)",
+		MessageUtils.sendMessage(source, RegionText.HELP.getValue() + "(" + String.valueOf(page) + "/6)",
 				TextColors.GOLD);
 	}
 
@@ -1030,24 +1003,8 @@ public class RegionUtils {
 	 * @return true if that location is in that Region, false otherwise
 	 */
 	public static boolean isInRegion(LocalRegion region, Location<World> location) {
-		Location<World> pos1 = region.getFirstPoint().getLocation();
-		Location<World> pos2 = region.getSecondPoint().getLocation();
-		if (pos1 != null && pos2 != null) {
-			int x1 = Math.min(pos1.getBlockX(), pos2.getBlockX());
-			int y1 = Math.min(pos1.getBlockY(), pos2.getBlockY());
-			int z1 = Math.min(pos1.getBlockZ(), pos2.getBlockZ());
-			int x2 = Math.max(pos1.getBlockX(), pos2.getBlockX());
-			int y2 = Math.max(pos1.getBlockY(), pos2.getBlockY());
-			int z2 = Math.max(pos1.getBlockZ(), pos2.getBlockZ());
-
-			return region.getWorld().equals(location.getExtent())
-					&& region.getFirstPoint().getDimension()
-							.equalsIgnoreCase(location.getExtent().getDimension().getType().getId())
-					&& ((location.getBlockX() >= x1 && location.getBlockX() <= x2)
-							&& (location.getBlockY() >= y1 && location.getBlockY() <= y2)
-							&& (location.getBlockZ() >= z1 && location.getBlockZ() <= z2));
-		}
-		return false;
+		return region.contains(location.getExtent(), location.getBlockX(), location.getBlockY(),
+				location.getBlockZ());
 	}
 
 	/**
@@ -1083,14 +1040,7 @@ public class RegionUtils {
 	 * @return The LocalRegion at the given location if exists, null otherwise
 	 */
 	public static LocalRegion getLocalRegion(Location<World> location) {
-		LocalRegion region = null;
-		for (Region r : UniverseGuard.ALL_REGIONS) {
-			if (r.isLocal() && isInRegion((LocalRegion) r, location)) {
-				if (region == null || ((LocalRegion) r).getPriority() >= region.getPriority())
-					region = ((LocalRegion) r);
-			}
-		}
-		return region;
+		return RegionIndexUtils.getLocalRegion(location);
 	}
 
 	/**
@@ -1101,13 +1051,7 @@ public class RegionUtils {
 	 * @return The LocalRegions at the given location if exists, null otherwise
 	 */
 	public static ArrayList<LocalRegion> getAllLocalRegionsAt(Location<World> location) {
-		ArrayList<LocalRegion> regions = new ArrayList<LocalRegion>();
-		for (Region r : UniverseGuard.ALL_REGIONS) {
-			if (r.isLocal() && isInRegion((LocalRegion) r, location) && !r.getFlag(EnumRegionFlag.HIDE_REGION)) {
-				regions.add((LocalRegion) r);
-			}
-		}
-		return regions;
+		return RegionIndexUtils.getAllLocalRegionsAt(location);
 	}
 
 	/**
@@ -1118,7 +1062,7 @@ public class RegionUtils {
 	 * @return The GlobalRegion at the given location
 	 */
 	public static GlobalRegion getGlobalRegion(Location<World> location) {
-		return (GlobalRegion) load(location.getExtent().getName());
+		return RegionIndexUtils.getGlobalRegion(location);
 	}
 
 	/**
@@ -1138,6 +1082,8 @@ public class RegionUtils {
 	 */
 	public static boolean handleEvent(Cancellable event, EnumRegionFlag flag, Location<World> location, Player player,
 			RegionEventType type) {
+		if (!RegionIndexUtils.mayDeny(flag, location))
+			return false;
 		Region region = RegionUtils.getRegion(location);
 		return handleEvent(event, flag, region, player, type);
 	}
@@ -1161,26 +1107,114 @@ public class RegionUtils {
 	 */
 	private static boolean handleEvent(Cancellable event, EnumRegionFlag flag, Region region, Player player,
 			RegionEventType type) {
-		if (region != null) {
-			boolean cancel = flag.equals(EnumRegionFlag.INVINCIBLE) ? region.getFlag(flag) : !region.getFlag(flag);
-			if (player != null) {
-				if (type.equals(RegionEventType.LOCAL)) {
-					if (region.isLocal())
-						cancel = cancel && !RegionUtils.hasPermission(player, region);
-					else if (PermissionUtils.hasPermission(player, RegionPermission.REGION))
-						cancel = false;
-				} else if (PermissionUtils.hasPermission(player, RegionPermission.REGION))
+		if (isDenied(flag, region, player, type)) {
+			if (event != null)
+				event.setCancelled(true);
+			if (player != null)
+				MessageUtils.sendHotbarErrorMessage(player, RegionText.NO_PERMISSION_REGION.getValue());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Check if a Flag denies an action in a Region
+	 * 
+	 * @param flag
+	 *            The flag
+	 * @param region
+	 *            The Region
+	 * @param player
+	 *            The player
+	 * @param type
+	 *            The EventType
+	 * @return true if the action is denied, false otherwise
+	 */
+	private static boolean isDenied(EnumRegionFlag flag, Region region, Player player, RegionEventType type) {
+		if (region == null)
+			return false;
+		boolean cancel = flag.equals(EnumRegionFlag.INVINCIBLE) ? region.getFlag(flag) : !region.getFlag(flag);
+		if (cancel && player != null) {
+			if (type.equals(RegionEventType.LOCAL)) {
+				if (region.isLocal())
+					cancel = !RegionUtils.hasPermission(player, region);
+				else if (PermissionUtils.hasPermission(player, RegionPermission.REGION))
 					cancel = false;
+			} else if (PermissionUtils.hasPermission(player, RegionPermission.REGION))
+				cancel = false;
+		}
+		return cancel;
+	}
+
+	/**
+	 * Handle a Flag event for every block changed by an event. Regions are
+	 * resolved once for each chunk entirely inside a single Region and the flag
+	 * is checked once for each Region, only the denied transactions are
+	 * invalidated
+	 * 
+	 * @param event
+	 *            The event
+	 * @param flag
+	 *            The flag
+	 * @param player
+	 *            The player
+	 * @param type
+	 *            The EventType
+	 * @param filter
+	 *            The transactions to check, null to check all of them
+	 * @return true if at least one transaction has been invalidated, false
+	 *         otherwise
+	 */
+	public static boolean handleTransactions(ChangeBlockEvent event, EnumRegionFlag flag, Player player,
+			RegionEventType type, Predicate<Transaction<BlockSnapshot>> filter) {
+		IdentityHashMap<Region, Boolean> decisions = new IdentityHashMap<Region, Boolean>();
+		// Decision for each chunk inside a single Region, null for chunks with more Regions
+		HashMap<Long, Boolean> chunks = new HashMap<Long, Boolean>();
+		World world = null;
+		boolean denied = false;
+		for (Transaction<BlockSnapshot> transaction : event.getTransactions()) {
+			if (!transaction.isValid() || (filter != null && !filter.test(transaction)))
+				continue;
+			Optional<Location<World>> location = transaction.getOriginal().getLocation();
+			if (!location.isPresent())
+				location = transaction.getFinal().getLocation();
+			if (!location.isPresent())
+				continue;
+			if (location.get().getExtent() != world) {
+				world = location.get().getExtent();
+				chunks.clear();
 			}
-			if (cancel) {
-				if (event != null)
-					event.setCancelled(true);
-				if (player != null)
-					MessageUtils.sendHotbarErrorMessage(player, RegionText.NO_PERMISSION_REGION.getValue());
-				return true;
+			Long chunk = WorldRegionIndex.getChunkKey(location.get().getBlockX() >> 4, location.get().getBlockZ() >> 4);
+			Boolean deny = chunks.get(chunk);
+			if (deny == null && !chunks.containsKey(chunk) && !RegionIndexUtils.mayDeny(flag, location.get())) {
+				deny = false;
+				chunks.put(chunk, deny);
+			}
+			if (deny == null) {
+				Region region = getRegion(location.get());
+				deny = decisions.get(region);
+				if (deny == null) {
+					deny = isDenied(flag, region, player, type);
+					decisions.put(region, deny);
+				}
+				if (!chunks.containsKey(chunk))
+					chunks.put(chunk, RegionIndexUtils.isUniformChunk(location.get()) ? deny : null);
+			}
+			if (deny) {
+				transaction.setValid(false);
+				denied = true;
 			}
 		}
-		return false;
+		if (denied) {
+			boolean valid = false;
+			for (Transaction<BlockSnapshot> transaction : event.getTransactions())
+				valid = valid || transaction.isValid();
+			if (!valid)
+				event.setCancelled(true);
+			if (player != null)
+				MessageUtils.sendHotbarErrorMessage(player, RegionText.NO_PERMISSION_REGION.getValue());
+		}
+		return denied;
 	}
 
 	/**
@@ -1254,6 +1288,10 @@ public class RegionUtils {
             printHelpFor(source, "removegreeting", RegionText.REGION_HELP_REMOVEGREETING);
 			printHelpFor(source, "help (flag) (page)", RegionText.REGION_HELP_HELP);
 			break;
+		case 6:
+			printHelpFor(source, "stats", RegionText.REGION_HELP_STATS);
+			printHelpFor(source, "export", RegionText.REGION_HELP_EXPORT);
+			break;
 		}
 	}
 
@@ -0,0 +1,112 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import org.junit.Test;
+
+/**
+ * Tests for the Journal Reader
+ * @author Jimi
+ *
+ */
+public class JournalReaderTest {
+
+	private static final String FIRST = "{\"FILE\":\"regions/first.json\",\"REGION\":{\"NAME\":\"first\"}}";
+	private static final String SECOND = "{\"FILE\":\"regions/second.json\",\"REGION\":{\"NAME\":\"second\"}}";
+	private static final String SECOND_UPDATED = "{\"FILE\":\"regions/second.json\",\"REGION\":{\"NAME\":\"second\",\"PRIORITY\":1}}";
+	private static final String REMOVE_FIRST = "{\"FILE\":\"regions/first.json\"}";
+
+	@Test
+	public void tornTailIsTruncated() throws IOException {
+		LinkedHashMap<String, String> records = new LinkedHashMap<String, String>();
+		JournalReader reader = new JournalReader(records);
+		int count = reader.read("regions.journal", lines(FIRST, SECOND, "{\"FILE\":\"regions/th"), true);
+		assertEquals(3, count);
+		assertTrue(reader.isTruncated());
+		assertTrue(reader.getSkipped().isEmpty());
+		assertTrue(reader.getSkippedRecords().isEmpty());
+		assertEquals(Arrays.asList("regions/first.json", "regions/second.json"), new ArrayList<String>(records.keySet()));
+	}
+
+	@Test
+	public void brokenSnapshotTailIsSkipped() throws IOException {
+		LinkedHashMap<String, String> records = new LinkedHashMap<String, String>();
+		JournalReader reader = new JournalReader(records);
+		reader.read("regions.snapshot", lines(FIRST, "{\"FILE\":"), false);
+		assertFalse(reader.isTruncated());
+		assertEquals(Arrays.asList("regions.snapshot:2"), reader.getSkipped());
+	}
+
+	@Test
+	public void corruptMiddleLineIsSkipped() throws IOException {
+		LinkedHashMap<String, String> records = new LinkedHashMap<String, String>();
+		JournalReader reader = new JournalReader(records);
+		int count = reader.read("regions.journal", lines(FIRST, "not a record", SECOND), true);
+		assertEquals(3, count);
+		assertFalse(reader.isTruncated());
+		assertEquals(Arrays.asList("regions.journal:2"), reader.getSkipped());
+		assertEquals(Arrays.asList("not a record"), reader.getSkippedRecords());
+		assertEquals(FIRST, records.get("regions/first.json"));
+		assertEquals(SECOND, records.get("regions/second.json"));
+	}
+
+	@Test
+	public void recordWithoutFileIsSkipped() throws IOException {
+		LinkedHashMap<String, String> records = new LinkedHashMap<String, String>();
+		JournalReader reader = new JournalReader(records);
+		reader.read("regions.journal", lines("{\"REGION\":{\"NAME\":\"first\"}}", "{\"FILE\":1}", SECOND), true);
+		assertFalse(reader.isTruncated());
+		assertEquals(Arrays.asList("regions.journal:1", "regions.journal:2"), reader.getSkipped());
+		assertEquals(Arrays.asList("regions/second.json"), new ArrayList<String>(records.keySet()));
+	}
+
+	@Test
+	public void deleteRecordRemovesRegion() throws IOException {
+		LinkedHashMap<String, String> records = new LinkedHashMap<String, String>();
+		JournalReader reader = new JournalReader(records);
+		reader.read("regions.snapshot", lines(FIRST, SECOND), false);
+		reader.read("regions.journal", lines(REMOVE_FIRST, SECOND_UPDATED), true);
+		assertFalse(reader.isTruncated());
+		assertTrue(reader.getSkipped().isEmpty());
+		assertEquals(1, records.size());
+		assertEquals(SECOND_UPDATED, records.get("regions/second.json"));
+	}
+
+	@Test
+	public void emptyLinesAreIgnored() throws IOException {
+		LinkedHashMap<String, String> records = new LinkedHashMap<String, String>();
+		JournalReader reader = new JournalReader(records);
+		int count = reader.read("regions.journal", lines(FIRST, "", ""), true);
+		assertEquals(1, count);
+		assertFalse(reader.isTruncated());
+		assertEquals(1, records.size());
+	}
+
+	/**
+	 * Build a reader for some lines
+	 * @param lines The lines
+	 * @return The reader
+	 */
+	private static BufferedReader lines(String... lines) {
+		StringBuilder content = new StringBuilder();
+		for (String line : lines)
+			content.append(line).append('\n');
+		return new BufferedReader(new StringReader(content.toString()));
+	}
+}
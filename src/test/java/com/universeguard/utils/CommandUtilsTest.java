@@ -0,0 +1,80 @@
+/* 
+ * Copyright (C) JimiIT92 - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited
+ * Proprietary and confidential
+ * Written by Jimi, December 2017
+ * 
+ */
+package com.universeguard.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.universeguard.region.components.RegionCommand;
+
+/**
+ * Tests for the Region commands handled by Command Utils
+ * @author Jimi
+ *
+ */
+public class CommandUtilsTest {
+
+	// "tp", "teleport" and "minecraft:tp" are the same command
+	private static final Function<String, String> CANONICAL = name -> {
+		HashMap<String, String> aliases = new HashMap<String, String>();
+		aliases.put("tp", "tp");
+		aliases.put("teleport", "tp");
+		aliases.put("minecraft:tp", "tp");
+		String alias = name.toLowerCase();
+		return aliases.containsKey(alias) ? aliases.get(alias) : alias;
+	};
+
+	@Test
+	public void aliasUpdatesExistingEntry() {
+		ArrayList<RegionCommand> commands = new ArrayList<RegionCommand>();
+		commands.add(new RegionCommand("minecraft:tp", true));
+		CommandUtils.setCommand(commands, "tp", false, CANONICAL);
+		assertEquals(1, commands.size());
+		assertEquals("minecraft:tp", commands.get(0).getCommand());
+		assertFalse(commands.get(0).isEnabled());
+	}
+
+	@Test
+	public void aliasRemovesShadowedEntries() {
+		ArrayList<RegionCommand> commands = new ArrayList<RegionCommand>();
+		commands.add(new RegionCommand("teleport", false));
+		commands.add(new RegionCommand("home", false));
+		commands.add(new RegionCommand("tp", true));
+		CommandUtils.setCommand(commands, "TP", true, CANONICAL);
+		assertEquals(2, commands.size());
+		assertEquals("teleport", commands.get(0).getCommand());
+		assertTrue(commands.get(0).isEnabled());
+		assertEquals("home", commands.get(1).getCommand());
+		assertFalse(commands.get(1).isEnabled());
+	}
+
+	@Test
+	public void newCommandIsAdded() {
+		ArrayList<RegionCommand> commands = new ArrayList<RegionCommand>();
+		commands.add(new RegionCommand("teleport", false));
+		CommandUtils.setCommand(commands, "home", false, CANONICAL);
+		assertEquals(2, commands.size());
+		assertEquals("home", commands.get(1).getCommand());
+	}
+
+	@Test
+	public void aliasFindsEntry() {
+		ArrayList<RegionCommand> commands = new ArrayList<RegionCommand>();
+		commands.add(new RegionCommand("home", true));
+		commands.add(new RegionCommand("minecraft:tp", false));
+		assertEquals(1, CommandUtils.indexOf(commands, "teleport", CANONICAL));
+		assertEquals(-1, CommandUtils.indexOf(commands, "spawn", CANONICAL));
+	}
+}